@@ -0,0 +1,166 @@
+package rocktable.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import rocktable.state.GameFactory;
+import rocktable.state.GameState;
+import rocktable.state.StateEngine;
+import rocktable.state.Turns;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the single actions of the {@link GameState} implementations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configurationFile=log4j2-benchmark.xml")
+public class GameStateBenchmark {
+
+    private static final int ROW = 1;
+
+    @Param({"ARRAY", "BITBOARD"})
+    private StateEngine engine;
+
+    private GameFactory factory;
+
+    /**
+     * A state at the start of a turn.
+     */
+    private GameState initial;
+
+    /**
+     * A state with {@value #ROW} chosen.
+     */
+    private GameState chosen;
+
+    /**
+     * A state with {@value #ROW} chosen and the left-most rock of the row
+     * picked up.
+     */
+    private GameState pickedUp;
+
+    /**
+     * A state with {@value #ROW} chosen, the left-most rock of the row picked
+     * up and placed in the right-most column, so the turn can be ended.
+     */
+    private GameState placed;
+
+    @Setup
+    public void setup() {
+        factory = GameFactory.initial(engine);
+        initial = factory.newGame();
+        chosen = factory.newGame();
+        chosen.setChosenRow(ROW);
+        pickedUp = factory.newGame();
+        pickedUp.setChosenRow(ROW);
+        pickedUp.pickupRock(0);
+        placed = factory.newGame();
+        placed.setChosenRow(ROW);
+        placed.pickupRock(0);
+        placed.placeRock(4);
+    }
+
+    @Benchmark
+    public GameState construction() {
+        return factory.newGame();
+    }
+
+    @Benchmark
+    public void isChoosableRow(Blackhole blackhole) {
+        for (int row = 0; row < 5; row++) {
+            blackhole.consume(initial.isChoosableRow(row));
+        }
+    }
+
+    @Benchmark
+    public void isPickupable(Blackhole blackhole) {
+        for (int col = 0; col < 5; col++) {
+            blackhole.consume(chosen.isPickupable(col));
+        }
+    }
+
+    @Benchmark
+    public void isPlaceable(Blackhole blackhole) {
+        for (int col = 0; col < 5; col++) {
+            blackhole.consume(pickedUp.isPlaceable(col));
+        }
+    }
+
+    @Benchmark
+    public boolean isFinished() {
+        return initial.isFinished();
+    }
+
+    /**
+     * Picks up the left-most rock of the chosen row and undoes it, so the
+     * state is the same before every invocation.
+     */
+    @Benchmark
+    public GameState pickupRock() {
+        chosen.pickupRock(0);
+        chosen.undo();
+        return chosen;
+    }
+
+    /**
+     * Places a rock to the right of the picked-up rock and undoes it.
+     */
+    @Benchmark
+    public GameState placeRock() {
+        pickedUp.placeRock(4);
+        pickedUp.undo();
+        return pickedUp;
+    }
+
+    /**
+     * Ends the turn and undoes it.
+     */
+    @Benchmark
+    public GameState endTurn() {
+        placed.endTurn();
+        placed.undo();
+        return placed;
+    }
+
+    /**
+     * Plays a whole turn on a new state, including its construction.
+     */
+    @Benchmark
+    public GameState turn() {
+        GameState state = factory.newGame();
+        state.setChosenRow(ROW);
+        state.pickupRock(0);
+        state.placeRock(3);
+        state.endTurn();
+        return state;
+    }
+
+    /**
+     * Plays the same turn as {@link #turn()} on a single state and undoes it,
+     * the way a search explores the game on one instance.
+     */
+    @Benchmark
+    public GameState turnAndUndo() {
+        initial.setChosenRow(ROW);
+        initial.pickupRock(0);
+        initial.placeRock(3);
+        initial.endTurn();
+        Turns.undo(initial);
+        return initial;
+    }
+
+}
@@ -0,0 +1,92 @@
+package rocktable.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import rocktable.journal.RecordingGameState;
+import rocktable.state.BitboardRockTableState;
+import rocktable.state.GameState;
+import rocktable.state.Positions;
+import rocktable.state.StateEngine;
+import rocktable.state.TurnGenerator;
+import rocktable.state.Turns;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures whole games of uniformly random turns from the initial position.
+ *
+ * <p>{@link #stateGame} plays the turns action by action on a {@link GameState},
+ * as the user interface does, {@link #recordedGame} does the same while
+ * recording the actions into the move journal, and {@link #packedGame} plays
+ * them on packed positions, as the computer players do.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configurationFile=log4j2-benchmark.xml")
+public class PlayoutBenchmark {
+
+    private final int[] buffer = new int[TurnGenerator.MAX_TURNS];
+
+    private SplittableRandom random;
+
+    /**
+     * The implementation used by {@link #stateGame}.
+     */
+    @State(Scope.Thread)
+    public static class Engine {
+
+        @Param({"ARRAY", "BITBOARD"})
+        private StateEngine engine;
+
+    }
+
+    @Setup
+    public void setup() {
+        random = new SplittableRandom(42);
+    }
+
+    @Benchmark
+    public GameState stateGame(Engine engine) {
+        GameState state = engine.engine.newState();
+        while (!state.isFinished()) {
+            int count = TurnGenerator.generate(Positions.of(state), buffer);
+            Turns.apply(state, buffer[random.nextInt(count)]);
+        }
+        return state;
+    }
+
+    @Benchmark
+    public RecordingGameState recordedGame(Engine engine) {
+        GameState state = engine.engine.newState();
+        RecordingGameState recording = new RecordingGameState(state);
+        while (!recording.isFinished()) {
+            int count = TurnGenerator.generate(Positions.of(state), buffer);
+            Turns.apply(recording, buffer[random.nextInt(count)]);
+        }
+        return recording;
+    }
+
+    @Benchmark
+    public long packedGame() {
+        long position = Positions.of(BitboardRockTableState.INITIAL_TABLE, 0, 0, 0);
+        while (!Positions.isFinished(position)) {
+            int count = TurnGenerator.generate(position, buffer);
+            position = Turns.play(position, buffer[random.nextInt(count)]);
+        }
+        return position;
+    }
+
+}
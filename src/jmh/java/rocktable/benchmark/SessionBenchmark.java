@@ -0,0 +1,112 @@
+package rocktable.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import rocktable.session.GameSnapshot;
+import rocktable.session.SessionManager;
+import rocktable.state.GameFactory;
+import rocktable.state.GameState;
+import rocktable.state.StateEngine;
+import rocktable.state.Turns;
+
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a turn played on a random session of a {@link SessionManager} by
+ * every core at once, as the number of live sessions grows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(Threads.MAX)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configurationFile=log4j2-benchmark.xml")
+public class SessionBenchmark {
+
+    private static final int TURN = Turns.of(1, 0b11100, 0b00011);
+
+    @Param({"1", "1000", "100000"})
+    private int sessions;
+
+    private SessionManager manager;
+
+    private long[] ids;
+
+    /**
+     * The states of as many games without a manager, the baseline of the
+     * memory traffic of the games themselves.
+     */
+    private GameState[] states;
+
+    /**
+     * The generator of the session ids of a thread.
+     */
+    @State(Scope.Thread)
+    public static class Picker {
+
+        private final SplittableRandom random = new SplittableRandom();
+
+        long next(long[] ids) {
+            return ids[random.nextInt(ids.length)];
+        }
+
+        GameState next(GameState[] states) {
+            return states[random.nextInt(states.length)];
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        GameFactory factory = GameFactory.initial(StateEngine.BITBOARD);
+        manager = new SessionManager(factory, Duration.ofHours(1));
+        ids = new long[sessions];
+        states = new GameState[sessions];
+        for (int i = 0; i < sessions; i++) {
+            ids[i] = manager.create().getId();
+            states[i] = factory.newGame();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        manager.close();
+    }
+
+    @Benchmark
+    public Object turnAndUndo(Picker picker) {
+        return manager.apply(picker.next(ids), state -> {
+            Turns.apply(state, TURN);
+            Turns.undo(state);
+            return state;
+        });
+    }
+
+    @Benchmark
+    public GameState turnAndUndoWithoutManager(Picker picker) {
+        GameState state = picker.next(states);
+        Turns.apply(state, TURN);
+        Turns.undo(state);
+        return state;
+    }
+
+    @Benchmark
+    public GameSnapshot snapshot(Picker picker) {
+        return manager.getSnapshot(picker.next(ids)).orElseThrow();
+    }
+
+}
@@ -0,0 +1,85 @@
+package rocktable.benchmark;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.persist.PersistService;
+import lombok.extern.slf4j.Slf4j;
+import rocktable.results.GameResult;
+import rocktable.results.GameResultDao;
+import util.guice.JpaInitializer;
+import util.guice.PersistenceModule;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Measures the throughput of saving game results into the database of the
+ * application.
+ *
+ * <p>Several threads save batches of results concurrently. Running the tool in
+ * several processes at the same time measures the throughput of the writes
+ * shared by the processes, since the database is opened in auto-server mode.</p>
+ */
+@Slf4j
+public final class WriteThroughput {
+
+    private WriteThroughput() {
+    }
+
+    @SuppressWarnings("checkstyle:MissingJavadocMethod")
+    public static void main(String[] args) throws InterruptedException, ExecutionException {
+        int results = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int batchSize = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+
+        Injector injector = Guice.createInjector(new AbstractModule() {
+            @Override
+            protected void configure() {
+                install(new PersistenceModule("rock-table"));
+                bind(GameResultDao.class);
+            }
+        });
+        injector.getInstance(JpaInitializer.class).awaitReady();
+        GameResultDao gameResultDao = injector.getInstance(GameResultDao.class);
+        String winner = "Load" + ManagementFactory.getRuntimeMXBean().getPid();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int thread = 0; thread < threads; thread++) {
+            int from = (int) ((long) results * thread / threads);
+            int to = (int) ((long) results * (thread + 1) / threads);
+            futures.add(executor.submit(() -> {
+                List<GameResult> batch = new ArrayList<>(batchSize);
+                for (int i = from; i < to; i++) {
+                    batch.add(GameResult.builder()
+                            .winner(winner)
+                            .duration(Duration.ofMillis(i))
+                            .build());
+                    if (batch.size() == batchSize || i == to - 1) {
+                        gameResultDao.persistAll(batch);
+                        batch.clear();
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        executor.shutdown();
+        injector.getInstance(PersistService.class).stop();
+
+        System.out.printf(Locale.ROOT, "Saved %d results in %d ms (%.0f results/s) with %d threads, %d results per transaction%n",
+                results, millis, results * 1000.0 / millis, threads, batchSize);
+    }
+
+}
@@ -0,0 +1,5 @@
+/**
+ * Provides the JMH benchmarks of the game engine and a load tool of the
+ * database.
+ */
+package rocktable.benchmark;
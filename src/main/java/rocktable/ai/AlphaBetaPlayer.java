@@ -0,0 +1,264 @@
+package rocktable.ai;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import rocktable.state.Positions;
+import rocktable.state.TurnGenerator;
+import rocktable.state.Turns;
+
+import static rocktable.state.BitboardRockTableState.ROW_BITS;
+import static rocktable.state.BitboardRockTableState.ROW_MASK;
+
+/**
+ * A computer player using a negamax search with alpha-beta pruning.
+ *
+ * <p>The search is deepened iteratively until the time budget runs out or the
+ * outcome of the position is proven. The turns are ordered by the best turn
+ * stored in the transposition table first and by the history heuristic after
+ * that. The positions at the horizon are evaluated by the nim-sum of the rows,
+ * treating every row as an independent game and ignoring the rocks of the
+ * players. An instance is not thread-safe.</p>
+ */
+@Slf4j
+public class AlphaBetaPlayer implements ComputerPlayer {
+
+    /**
+     * The score of a won position, decreased by the number of turns to the win.
+     */
+    public static final int WIN_SCORE = 30000;
+
+    private static final int INFINITY = 32000;
+
+    /**
+     * A bound of the length of a game: every turn lowers the sum of the rows.
+     */
+    private static final int MAX_PLY = 5 * ROW_MASK + 1;
+
+    private static final int CHECK_INTERVAL = 1023;
+
+    private static final int NIM_SCORE = 100;
+
+    /**
+     * The Grundy values of the rows.
+     */
+    private static final int[] GRUNDY = new int[ROW_MASK + 1];
+
+    static {
+        for (int row = 1; row <= ROW_MASK; row++) {
+            long seen = 0;
+            for (int next : TurnGenerator.rowSuccessors(row)) {
+                seen |= 1L << GRUNDY[next];
+            }
+            GRUNDY[row] = Long.numberOfTrailingZeros(~seen);
+        }
+    }
+
+    private final long budgetNanos;
+    private final TranspositionTable table;
+    private final int[][] turns = new int[MAX_PLY + 1][TurnGenerator.MAX_TURNS];
+    private final int[] history = new int[1 << 13];
+
+    private long deadline;
+    private long nodes;
+    private boolean aborted;
+    private int rootTurn;
+
+    /**
+     * The statistics of the last search.
+     */
+    @Getter
+    private SearchStatistics lastStatistics;
+
+    /**
+     * Creates an {@code AlphaBetaPlayer} with a transposition table of 2<sup>20</sup> slots.
+     *
+     * @param budgetMillis the time budget of a turn in milliseconds
+     */
+    public AlphaBetaPlayer(long budgetMillis) {
+        this(budgetMillis, 1 << 20);
+    }
+
+    /**
+     * Creates an {@code AlphaBetaPlayer}.
+     *
+     * @param budgetMillis the time budget of a turn in milliseconds
+     * @param tableSize the number of slots of the transposition table
+     */
+    public AlphaBetaPlayer(long budgetMillis, int tableSize) {
+        this.budgetNanos = budgetMillis * 1_000_000;
+        this.table = new TranspositionTable(tableSize);
+    }
+
+    @Override
+    public int selectTurn(long position) {
+        long start = System.nanoTime();
+        int count = TurnGenerator.generate(position, turns[0]);
+        if (count == 0) {
+            throw new IllegalArgumentException("The game is finished");
+        }
+        deadline = start + budgetNanos;
+        nodes = 0;
+        aborted = false;
+        for (int i = 0; i < history.length; i++) {
+            history[i] >>= 2;
+        }
+
+        long hash = Zobrist.hash(position);
+        int best = turns[0][0];
+        int bestScore = 0;
+        int depth = 0;
+        while (depth < MAX_PLY) {
+            rootTurn = 0;
+            int score = search(position, hash, depth + 1, 0, -INFINITY, INFINITY);
+            if (aborted) {
+                break;
+            }
+            depth++;
+            best = rootTurn;
+            bestScore = score;
+            if (Math.abs(score) > WIN_SCORE - MAX_PLY) {
+                break;
+            }
+        }
+
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        lastStatistics = new SearchStatistics(depth, nodes, millis, bestScore);
+        log.debug("Alpha-beta chose {} (depth {}, score {}, {} nodes in {} ms, {} nodes/s)",
+                Turns.toString(best), depth, bestScore, nodes, millis, lastStatistics.getNodesPerSecond());
+        return best;
+    }
+
+    private int search(long position, long hash, int depth, int ply, int alpha, int beta) {
+        if ((++nodes & CHECK_INTERVAL) == 0 && System.nanoTime() > deadline) {
+            aborted = true;
+        }
+        if (aborted) {
+            return 0;
+        }
+        if (Positions.isFinished(position)) {
+            return WIN_SCORE - ply;
+        }
+        if (depth == 0) {
+            return evaluate(position);
+        }
+
+        int originalAlpha = alpha;
+        int hashTurn = 0;
+        long entry = table.probe(hash, position);
+        if (entry != -1) {
+            hashTurn = TranspositionTable.turn(entry);
+            if (ply > 0 && TranspositionTable.depth(entry) >= depth) {
+                int score = fromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT) {
+                    return score;
+                } else if (bound == TranspositionTable.LOWER) {
+                    alpha = Math.max(alpha, score);
+                } else {
+                    beta = Math.min(beta, score);
+                }
+                if (alpha >= beta) {
+                    return score;
+                }
+            }
+        }
+
+        int[] buffer = turns[ply];
+        int count = TurnGenerator.generate(position, buffer);
+        int best = -INFINITY;
+        int bestTurn = 0;
+        for (int i = 0; i < count; i++) {
+            int turn = nextTurn(buffer, i, count, hashTurn);
+            int score = -search(Turns.play(position, turn), Zobrist.next(hash, position, turn),
+                    depth - 1, ply + 1, -beta, -alpha);
+            if (aborted) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                bestTurn = turn;
+                if (ply == 0) {
+                    rootTurn = turn;
+                }
+            }
+            if (score > alpha) {
+                alpha = score;
+            }
+            if (alpha >= beta) {
+                history[turn] += depth * depth;
+                break;
+            }
+        }
+
+        int bound = best <= originalAlpha ? TranspositionTable.UPPER
+                : best >= beta ? TranspositionTable.LOWER
+                : TranspositionTable.EXACT;
+        table.store(hash, position, depth, toTable(best, ply), bound, bestTurn);
+        return best;
+    }
+
+    /**
+     * Moves the next turn to search to index {@code i} of the buffer: the turn
+     * of the transposition table first, then the turn with the best history.
+     */
+    private int nextTurn(int[] buffer, int i, int count, int hashTurn) {
+        int selected = i;
+        for (int j = i; j < count; j++) {
+            if (buffer[j] == hashTurn) {
+                selected = j;
+                break;
+            }
+            if (history[buffer[j]] > history[buffer[selected]]) {
+                selected = j;
+            }
+        }
+        int turn = buffer[selected];
+        buffer[selected] = buffer[i];
+        buffer[i] = turn;
+        return turn;
+    }
+
+    private static int evaluate(long position) {
+        int table = Positions.table(position);
+        int nimSum = 0;
+        for (int rest = table; rest != 0; rest >>>= ROW_BITS) {
+            nimSum ^= GRUNDY[rest & ROW_MASK];
+        }
+        return nimSum != 0 ? NIM_SCORE : -NIM_SCORE;
+    }
+
+    private static int toTable(int score, int ply) {
+        if (score > WIN_SCORE - MAX_PLY) {
+            return score + ply;
+        }
+        if (score < MAX_PLY - WIN_SCORE) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score > WIN_SCORE - MAX_PLY) {
+            return score - ply;
+        }
+        if (score < MAX_PLY - WIN_SCORE) {
+            return score + ply;
+        }
+        return score;
+    }
+
+    /**
+     * Returns the time budget of a turn in milliseconds.
+     *
+     * @return the time budget
+     */
+    public long getBudgetMillis() {
+        return budgetNanos / 1_000_000;
+    }
+
+    @Override
+    public String toString() {
+        return "AlphaBetaPlayer(" + getBudgetMillis() + " ms)";
+    }
+
+}
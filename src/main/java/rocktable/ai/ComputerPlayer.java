@@ -0,0 +1,17 @@
+package rocktable.ai;
+
+/**
+ * A computer player choosing complete turns of the Rock Table game.
+ */
+public interface ComputerPlayer {
+
+    /**
+     * Chooses a turn in the specified position.
+     *
+     * @param position the packed position, see {@link rocktable.state.Positions}
+     * @return a legal turn of the position, see {@link rocktable.state.Turns}
+     * @throws IllegalArgumentException if the game is already finished in the position
+     */
+    int selectTurn(long position);
+
+}
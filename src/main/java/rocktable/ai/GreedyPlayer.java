@@ -0,0 +1,95 @@
+package rocktable.ai;
+
+import rocktable.state.Positions;
+import rocktable.state.TurnGenerator;
+import rocktable.state.Turns;
+
+import java.util.SplittableRandom;
+
+import static rocktable.state.BitboardRockTableState.ROW_BITS;
+import static rocktable.state.BitboardRockTableState.ROW_MASK;
+
+/**
+ * A computer player looking a single turn ahead. It never empties the table
+ * while it has another choice, leaves a single rock to the opponent whenever
+ * it can, and otherwise prefers the turns leaving the opponent the position
+ * least often won, breaking ties randomly. An instance is not thread-safe.
+ *
+ * <p>The outcome of a position mostly depends on the number of non-empty rows
+ * and on whether the player to move has rocks to place. The scores of the
+ * positions are the ratios of the won positions for each combination,
+ * measured on the tablebase of 10 rocks and scaled to {@code -100..100}: for
+ * example a single row is usually lost, while two rows are almost always
+ * won.</p>
+ */
+public class GreedyPlayer implements ComputerPlayer {
+
+    /**
+     * The scores of the positions for the player to move, indexed by the
+     * number of non-empty rows and by whether the player to move has rocks.
+     */
+    private static final int[][] SCORES = {
+            {0, 0},
+            {-65, -68},
+            {90, 99},
+            {-27, 69},
+            {18, 79},
+            {56, 87}
+    };
+
+    private final SplittableRandom random;
+    private final int[] buffer = new int[TurnGenerator.MAX_TURNS];
+
+    /**
+     * Creates a {@code GreedyPlayer}.
+     *
+     * @param random the source of randomness used for breaking ties
+     */
+    public GreedyPlayer(SplittableRandom random) {
+        this.random = random;
+    }
+
+    @Override
+    public int selectTurn(long position) {
+        int count = TurnGenerator.generate(position, buffer);
+        if (count == 0) {
+            throw new IllegalArgumentException("The game is finished");
+        }
+        int best = 0;
+        int bestScore = Integer.MIN_VALUE;
+        int ties = 0;
+        for (int i = 0; i < count; i++) {
+            int score = score(Turns.play(position, buffer[i]));
+            if (score > bestScore) {
+                best = i;
+                bestScore = score;
+                ties = 1;
+            } else if (score == bestScore && random.nextInt(++ties) == 0) {
+                best = i;
+            }
+        }
+        return buffer[best];
+    }
+
+    private static int score(long next) {
+        int table = Positions.table(next);
+        if (table == 0) {
+            return -AlphaBetaPlayer.WIN_SCORE;
+        }
+        if ((table & table - 1) == 0) {
+            return AlphaBetaPlayer.WIN_SCORE;
+        }
+        return -SCORES[nonEmptyRows(table)][Positions.moverRocks(next) == 0 ? 0 : 1];
+    }
+
+    private static int nonEmptyRows(int table) {
+        int rows = 0;
+        for (int rest = table; rest != 0; rest >>>= ROW_BITS) {
+            if ((rest & ROW_MASK) != 0) {
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+}
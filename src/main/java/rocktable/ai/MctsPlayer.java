@@ -0,0 +1,263 @@
+package rocktable.ai;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import rocktable.state.Positions;
+import rocktable.state.TurnGenerator;
+import rocktable.state.Turns;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * A computer player using Monte Carlo tree search.
+ *
+ * <p>The search is parallelized at the root: every worker grows its own tree
+ * with the UCT selection rule and uniformly random playouts until the time
+ * budget runs out, and the visits and wins of the turns of the root are merged
+ * afterwards. The workers share nothing while searching, so the number of
+ * playouts grows with the number of cores. The turn visited most often is
+ * chosen. The workers run on a fork-join pool shared by every player, by
+ * default the common pool, so creating a player for every game starts no
+ * threads.</p>
+ */
+@Slf4j
+public class MctsPlayer implements ComputerPlayer {
+
+    private static final double EXPLORATION = Math.sqrt(2);
+
+    /**
+     * A bound of the length of a game: every turn lowers the sum of the rows.
+     */
+    private static final int MAX_PLY = 5 * 31 + 1;
+
+    private static final int CHECK_INTERVAL = 63;
+
+    private final long budgetNanos;
+    private final long maxPlayouts;
+    private final int workers;
+    private final ForkJoinPool pool;
+    private final SplittableRandom random;
+
+    /**
+     * The statistics of the last search.
+     */
+    @Getter
+    private MctsStatistics lastStatistics;
+
+    /**
+     * Creates an {@code MctsPlayer} running a worker on every thread of the
+     * common fork-join pool.
+     *
+     * @param budgetMillis the time budget of a turn in milliseconds
+     */
+    public MctsPlayer(long budgetMillis) {
+        this(budgetMillis, Long.MAX_VALUE, ForkJoinPool.commonPool().getParallelism(), new SplittableRandom());
+    }
+
+    /**
+     * Creates an {@code MctsPlayer} running on the common fork-join pool.
+     *
+     * @param budgetMillis the time budget of a turn in milliseconds
+     * @param maxPlayouts the maximum number of playouts of a worker in a turn
+     * @param workers the number of workers searching in parallel
+     * @param random the source of randomness, split between the workers
+     */
+    public MctsPlayer(long budgetMillis, long maxPlayouts, int workers, SplittableRandom random) {
+        this(budgetMillis, maxPlayouts, workers, random, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates an {@code MctsPlayer} running on the specified pool.
+     *
+     * @param budgetMillis the time budget of a turn in milliseconds
+     * @param maxPlayouts the maximum number of playouts of a worker in a turn
+     * @param workers the number of workers searching in parallel
+     * @param random the source of randomness, split between the workers
+     * @param pool the pool executing the workers
+     * @throws IllegalArgumentException if the number of workers is not positive
+     */
+    public MctsPlayer(long budgetMillis, long maxPlayouts, int workers, SplittableRandom random, ForkJoinPool pool) {
+        if (workers <= 0) {
+            throw new IllegalArgumentException("The number of workers must be positive");
+        }
+        this.budgetNanos = budgetMillis * 1_000_000;
+        this.maxPlayouts = maxPlayouts;
+        this.workers = workers;
+        this.pool = pool;
+        this.random = random;
+    }
+
+    @Override
+    public int selectTurn(long position) {
+        long start = System.nanoTime();
+        int[] rootTurns = new int[TurnGenerator.MAX_TURNS];
+        int count = TurnGenerator.generate(position, rootTurns);
+        if (count == 0) {
+            throw new IllegalArgumentException("The game is finished");
+        }
+
+        List<Worker> tasks = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            tasks.add(new Worker(position, start + budgetNanos, maxPlayouts, random.split()));
+        }
+        long[] visits = new long[count];
+        long[] wins = new long[count];
+        long playouts = 0;
+        for (Worker task : pool.invoke(new Root(tasks))) {
+            Node root = task.root;
+            playouts += root.visits;
+            for (int i = 0; i < root.expanded; i++) {
+                visits[i] += root.children[i].visits;
+                wins[i] += root.children[i].wins;
+            }
+        }
+
+        int best = 0;
+        for (int i = 1; i < count; i++) {
+            if (visits[i] > visits[best]) {
+                best = i;
+            }
+        }
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        lastStatistics = new MctsStatistics(playouts, millis, workers,
+                visits[best] == 0 ? 0 : (double) wins[best] / visits[best]);
+        log.debug("MCTS chose {} (win rate {}, {} playouts in {} ms on {} workers, {} playouts/s)",
+                Turns.toString(rootTurns[best]), String.format("%.3f", lastStatistics.getWinRate()),
+                playouts, millis, workers, lastStatistics.getPlayoutsPerSecond());
+        return rootTurns[best];
+    }
+
+    @Override
+    public String toString() {
+        return "MctsPlayer(" + budgetNanos / 1_000_000 + " ms, " + workers + " workers)";
+    }
+
+    /**
+     * A node of the search tree. The wins are counted for the player who
+     * played the turn leading to the node.
+     */
+    private static final class Node {
+
+        final long position;
+        final int[] turns;
+        final Node[] children;
+        int expanded;
+        int visits;
+        int wins;
+
+        Node(long position, int[] buffer) {
+            this.position = position;
+            int count = TurnGenerator.generate(position, buffer);
+            this.turns = Arrays.copyOf(buffer, count);
+            this.children = new Node[count];
+        }
+    }
+
+    /**
+     * Runs the workers and returns them when all of them are finished.
+     */
+    private static final class Root extends RecursiveTask<List<Worker>> {
+
+        private final List<Worker> workers;
+
+        Root(List<Worker> workers) {
+            this.workers = workers;
+        }
+
+        @Override
+        protected List<Worker> compute() {
+            invokeAll(workers);
+            return workers;
+        }
+    }
+
+    /**
+     * Grows a search tree of its own.
+     */
+    private static final class Worker extends RecursiveTask<Void> {
+
+        private final long deadline;
+        private final long maxPlayouts;
+        private final SplittableRandom random;
+        private final int[] buffer = new int[TurnGenerator.MAX_TURNS];
+        private final Node[] path = new Node[MAX_PLY + 1];
+        private final Node root;
+
+        Worker(long position, long deadline, long maxPlayouts, SplittableRandom random) {
+            this.deadline = deadline;
+            this.maxPlayouts = maxPlayouts;
+            this.random = random;
+            this.root = new Node(position, buffer);
+        }
+
+        @Override
+        protected Void compute() {
+            long playouts = 0;
+            while (playouts < maxPlayouts
+                    && ((playouts & CHECK_INTERVAL) != 0 || System.nanoTime() < deadline)) {
+                iterate();
+                playouts++;
+            }
+            return null;
+        }
+
+        private void iterate() {
+            Node node = root;
+            int length = 0;
+            path[length++] = node;
+            while (node.children.length > 0 && node.expanded == node.children.length) {
+                node = select(node);
+                path[length++] = node;
+            }
+            if (node.expanded < node.children.length) {
+                int turn = node.turns[node.expanded];
+                Node child = new Node(Turns.play(node.position, turn), buffer);
+                node.children[node.expanded++] = child;
+                node = child;
+                path[length++] = node;
+            }
+            int winner = playout(node.position);
+            for (int i = 0; i < length; i++) {
+                Node visited = path[i];
+                visited.visits++;
+                if (Positions.activePlayer(visited.position) != winner) {
+                    visited.wins++;
+                }
+            }
+        }
+
+        private Node select(Node node) {
+            double logVisits = Math.log(node.visits);
+            Node best = null;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (Node child : node.children) {
+                double value = (double) child.wins / child.visits
+                        + EXPLORATION * Math.sqrt(logVisits / child.visits);
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = child;
+                }
+            }
+            return best;
+        }
+
+        /**
+         * Plays random turns until the game is finished.
+         *
+         * @return the index of the winner
+         */
+        private int playout(long position) {
+            while (!Positions.isFinished(position)) {
+                int count = TurnGenerator.generate(position, buffer);
+                position = Turns.play(position, buffer[random.nextInt(count)]);
+            }
+            return Positions.activePlayer(position);
+        }
+    }
+
+}
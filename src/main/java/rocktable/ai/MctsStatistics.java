@@ -0,0 +1,40 @@
+package rocktable.ai;
+
+import lombok.Value;
+
+/**
+ * Statistics of a search performed by {@link MctsPlayer}.
+ */
+@Value
+public class MctsStatistics {
+
+    /**
+     * The number of playouts performed by all the workers.
+     */
+    long playouts;
+
+    /**
+     * The time spent on the search in milliseconds.
+     */
+    long millis;
+
+    /**
+     * The number of workers taking part in the search.
+     */
+    int workers;
+
+    /**
+     * The ratio of the playouts won after the chosen turn.
+     */
+    double winRate;
+
+    /**
+     * Returns the number of playouts performed per second.
+     *
+     * @return the speed of the search
+     */
+    public long getPlayoutsPerSecond() {
+        return millis == 0 ? playouts * 1000 : playouts * 1000 / millis;
+    }
+
+}
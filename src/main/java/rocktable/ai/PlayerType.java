@@ -0,0 +1,82 @@
+package rocktable.ai;
+
+/**
+ * The kinds of players that can take part in a game.
+ */
+public enum PlayerType {
+
+    /**
+     * A player using the user interface.
+     */
+    HUMAN("Human"),
+
+    /**
+     * A computer player using {@link AlphaBetaPlayer}.
+     */
+    ALPHA_BETA("Computer (alpha-beta)") {
+        @Override
+        public ComputerPlayer createComputerPlayer(long budgetMillis) {
+            return new AlphaBetaPlayer(budgetMillis);
+        }
+    },
+
+    /**
+     * A computer player using {@link MctsPlayer} on every available core.
+     */
+    MCTS("Computer (MCTS)") {
+        @Override
+        public ComputerPlayer createComputerPlayer(long budgetMillis) {
+            return new MctsPlayer(budgetMillis);
+        }
+    };
+
+    /**
+     * The name of the system property specifying the time budget of the
+     * computer players in milliseconds.
+     */
+    public static final String BUDGET_PROPERTY = "rocktable.ai.budget";
+
+    private static final long DEFAULT_BUDGET_MILLIS = 1000;
+
+    private final String displayName;
+
+    PlayerType(String displayName) {
+        this.displayName = displayName;
+    }
+
+    /**
+     * Checks whether the player is a computer player.
+     *
+     * @return {@code true} if the player is a computer player, {@code false} otherwise
+     */
+    public boolean isComputer() {
+        return this != HUMAN;
+    }
+
+    /**
+     * Creates a computer player of this type.
+     *
+     * @param budgetMillis the time budget of a turn in milliseconds
+     * @return a new computer player
+     * @throws UnsupportedOperationException if this is not a computer player type
+     */
+    public ComputerPlayer createComputerPlayer(long budgetMillis) {
+        throw new UnsupportedOperationException(name() + " is not a computer player");
+    }
+
+    /**
+     * Returns the time budget specified by the {@value #BUDGET_PROPERTY} system
+     * property, or one second if the property is not set.
+     *
+     * @return the time budget of a turn in milliseconds
+     */
+    public static long budgetFromSystemProperties() {
+        return Long.getLong(BUDGET_PROPERTY, DEFAULT_BUDGET_MILLIS);
+    }
+
+    @Override
+    public String toString() {
+        return displayName;
+    }
+
+}
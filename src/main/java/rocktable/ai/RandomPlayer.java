@@ -0,0 +1,34 @@
+package rocktable.ai;
+
+import rocktable.state.TurnGenerator;
+
+import java.util.SplittableRandom;
+
+/**
+ * A computer player choosing uniformly random turns. An instance is not
+ * thread-safe.
+ */
+public class RandomPlayer implements ComputerPlayer {
+
+    private final SplittableRandom random;
+    private final int[] buffer = new int[TurnGenerator.MAX_TURNS];
+
+    /**
+     * Creates a {@code RandomPlayer}.
+     *
+     * @param random the source of randomness
+     */
+    public RandomPlayer(SplittableRandom random) {
+        this.random = random;
+    }
+
+    @Override
+    public int selectTurn(long position) {
+        int count = TurnGenerator.generate(position, buffer);
+        if (count == 0) {
+            throw new IllegalArgumentException("The game is finished");
+        }
+        return buffer[random.nextInt(count)];
+    }
+
+}
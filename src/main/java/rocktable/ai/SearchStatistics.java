@@ -0,0 +1,40 @@
+package rocktable.ai;
+
+import lombok.Value;
+
+/**
+ * Statistics of a search performed by a computer player.
+ */
+@Value
+public class SearchStatistics {
+
+    /**
+     * The depth of the last completed iteration.
+     */
+    int depth;
+
+    /**
+     * The number of positions visited.
+     */
+    long nodes;
+
+    /**
+     * The time spent on the search in milliseconds.
+     */
+    long millis;
+
+    /**
+     * The score of the chosen turn from the point of view of the player to move.
+     */
+    int score;
+
+    /**
+     * Returns the number of positions visited per second.
+     *
+     * @return the speed of the search
+     */
+    public long getNodesPerSecond() {
+        return millis == 0 ? nodes * 1000 : nodes * 1000 / millis;
+    }
+
+}
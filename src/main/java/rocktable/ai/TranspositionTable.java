@@ -0,0 +1,132 @@
+package rocktable.ai;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size transposition table for the alpha-beta search.
+ *
+ * <p>The slot of a position is selected by its Zobrist hash, and the packed
+ * position itself is kept as the key of the slot, so a lookup never returns
+ * the entry of another position. The depth, score, bound and best turn of an
+ * entry are packed into a single {@code long}.</p>
+ */
+public class TranspositionTable {
+
+    /**
+     * The score is exact.
+     */
+    public static final int EXACT = 0;
+
+    /**
+     * The score is a lower bound.
+     */
+    public static final int LOWER = 1;
+
+    /**
+     * The score is an upper bound.
+     */
+    public static final int UPPER = 2;
+
+    private static final long EMPTY = -1;
+
+    private final long[] keys;
+    private final long[] entries;
+    private final int mask;
+
+    /**
+     * Creates a {@code TranspositionTable} with the specified number of slots.
+     *
+     * @param size the number of slots, rounded down to a power of two
+     * @throws IllegalArgumentException if the size is not positive
+     */
+    public TranspositionTable(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Invalid size: " + size);
+        }
+        int slots = Integer.highestOneBit(size);
+        keys = new long[slots];
+        entries = new long[slots];
+        mask = slots - 1;
+        clear();
+    }
+
+    /**
+     * Removes every entry of the table.
+     */
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+    }
+
+    /**
+     * Returns the packed entry of the specified position.
+     *
+     * @param hash the Zobrist hash of the position
+     * @param position the packed position
+     * @return the packed entry, or {@code -1} if the position is not stored
+     */
+    public long probe(long hash, long position) {
+        int slot = (int) hash & mask;
+        return keys[slot] == position ? entries[slot] : EMPTY;
+    }
+
+    /**
+     * Stores an entry of the specified position. An entry of the same position
+     * searched to a larger depth is kept.
+     *
+     * @param hash the Zobrist hash of the position
+     * @param position the packed position
+     * @param depth the depth of the search
+     * @param score the score of the position
+     * @param bound one of {@link #EXACT}, {@link #LOWER} and {@link #UPPER}
+     * @param turn the best turn found, or {@code 0} if there is none
+     */
+    public void store(long hash, long position, int depth, int score, int bound, int turn) {
+        int slot = (int) hash & mask;
+        if (keys[slot] == position && depth(entries[slot]) > depth) {
+            return;
+        }
+        keys[slot] = position;
+        entries[slot] = (score & 0xFFFFL) | (long) depth << 16 | (long) bound << 24 | (long) turn << 26;
+    }
+
+    /**
+     * Returns the score of a packed entry.
+     *
+     * @param entry the packed entry
+     * @return the score
+     */
+    public static int score(long entry) {
+        return (short) entry;
+    }
+
+    /**
+     * Returns the depth of a packed entry.
+     *
+     * @param entry the packed entry
+     * @return the depth
+     */
+    public static int depth(long entry) {
+        return (int) (entry >>> 16) & 0xFF;
+    }
+
+    /**
+     * Returns the bound of a packed entry.
+     *
+     * @param entry the packed entry
+     * @return one of {@link #EXACT}, {@link #LOWER} and {@link #UPPER}
+     */
+    public static int bound(long entry) {
+        return (int) (entry >>> 24) & 0x3;
+    }
+
+    /**
+     * Returns the best turn of a packed entry.
+     *
+     * @param entry the packed entry
+     * @return the best turn, or {@code 0} if there is none
+     */
+    public static int turn(long entry) {
+        return (int) (entry >>> 26) & 0x1FFF;
+    }
+
+}
@@ -0,0 +1,78 @@
+package rocktable.ai;
+
+import rocktable.state.Positions;
+import rocktable.state.Turns;
+
+import java.util.SplittableRandom;
+
+import static rocktable.state.BitboardRockTableState.ROW_BITS;
+
+/**
+ * Zobrist hashing of packed positions. The hash of a position is the
+ * exclusive or of a random key for every rock on the table, for the rocks of
+ * both players and for the player to move, so it can be updated
+ * incrementally when a turn is played.
+ */
+public final class Zobrist {
+
+    private static final long[] CELLS = new long[25];
+    private static final long[] MOVER_ROCKS = new long[Positions.MAX_ROCKS + 1];
+    private static final long[] OPPONENT_ROCKS = new long[Positions.MAX_ROCKS + 1];
+    private static final long SECOND_PLAYER;
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5EED_2020L);
+        for (int i = 0; i < CELLS.length; i++) {
+            CELLS[i] = random.nextLong();
+        }
+        for (int i = 0; i <= Positions.MAX_ROCKS; i++) {
+            MOVER_ROCKS[i] = random.nextLong();
+            OPPONENT_ROCKS[i] = random.nextLong();
+        }
+        SECOND_PLAYER = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * Returns the hash of the specified position.
+     *
+     * @param position the packed position
+     * @return the hash of the position
+     */
+    public static long hash(long position) {
+        long hash = MOVER_ROCKS[Positions.moverRocks(position)]
+                ^ OPPONENT_ROCKS[Positions.opponentRocks(position)];
+        if (Positions.activePlayer(position) == 1) {
+            hash ^= SECOND_PLAYER;
+        }
+        for (int rest = Positions.table(position); rest != 0; rest &= rest - 1) {
+            hash ^= CELLS[Integer.numberOfTrailingZeros(rest)];
+        }
+        return hash;
+    }
+
+    /**
+     * Returns the hash of the position reached by playing the specified turn.
+     *
+     * @param hash the hash of the position
+     * @param position the packed position
+     * @param turn a legal turn of the position
+     * @return the hash of {@code Turns.play(position, turn)}
+     */
+    public static long next(long hash, long position, int turn) {
+        int mover = Positions.moverRocks(position);
+        int opponent = Positions.opponentRocks(position);
+        int changed = Turns.before(turn) ^ Turns.after(turn);
+        int shift = Turns.row(turn) * ROW_BITS;
+        for (int rest = changed; rest != 0; rest &= rest - 1) {
+            hash ^= CELLS[Integer.numberOfTrailingZeros(rest) + shift];
+        }
+        int moved = mover + Integer.bitCount(Turns.before(turn)) - Integer.bitCount(Turns.after(turn));
+        return hash ^ MOVER_ROCKS[mover] ^ OPPONENT_ROCKS[opponent]
+                ^ MOVER_ROCKS[opponent] ^ OPPONENT_ROCKS[moved]
+                ^ SECOND_PLAYER;
+    }
+
+}
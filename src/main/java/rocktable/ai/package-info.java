@@ -0,0 +1,4 @@
+/**
+ * Provides the computer players of the Rock Table game.
+ */
+package rocktable.ai;
\ No newline at end of file
@@ -3,15 +3,17 @@ package rocktable.javafx;
 import com.gluonhq.ignite.guice.GuiceContext;
 import com.google.inject.AbstractModule;
 import javafx.application.Application;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.stage.Stage;
 import lombok.extern.slf4j.Slf4j;
+import rocktable.journal.MoveJournal;
 import rocktable.results.GameResultDao;
+import rocktable.results.GameResultWriter;
+import rocktable.results.Leaderboard;
+import util.guice.JpaInitializer;
 import util.guice.PersistenceModule;
 
 import javax.inject.Inject;
+import java.lang.management.ManagementFactory;
 import java.util.List;
 
 @Slf4j
@@ -23,23 +25,59 @@ public class RockTableApplication extends Application {
                 protected void configure() {
                     install(new PersistenceModule("rock-table"));
                     bind(GameResultDao.class);
+                    bind(GameResultWriter.class);
+                    bind(Leaderboard.class);
+                    bind(MoveJournal.class);
+                    bind(SceneCache.class);
                 }
             }
     ));
 
     @Inject
-    private FXMLLoader fxmlLoader;
+    private SceneCache sceneCache;
+
+    @Inject
+    private GameResultWriter gameResultWriter;
+
+    @Inject
+    private Leaderboard leaderboard;
+
+    @Inject
+    private GameResultDao gameResultDao;
+
+    @Inject
+    private MoveJournal moveJournal;
+
+    @Inject
+    private JpaInitializer jpaInitializer;
 
     @Override
     public void start(Stage primaryStage) throws Exception {
         log.info("Starting application...");
+        long start = System.nanoTime();
+        // The persistence starts in the background, the leaderboard is loaded once it is ready.
         context.init();
-        fxmlLoader.setLocation(getClass().getResource("/fxml/launch.fxml"));
-        Parent root = fxmlLoader.load();
+        leaderboard.load();
         primaryStage.setTitle("Rock Table");
         primaryStage.setResizable(false);
-        primaryStage.setScene(new Scene(root));
-        primaryStage.show();
+        sceneCache.show(primaryStage, SceneCache.LAUNCH);
+        sceneCache.preload(SceneCache.GAME, SceneCache.HIGH_SCORES);
+        log.info("Launch screen shown {} ms after the JVM started, the application thread was blocked for {} ms",
+                ManagementFactory.getRuntimeMXBean().getUptime(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Override
+    public void stop() {
+        log.info("Stopping application...");
+        if (gameResultWriter != null) {
+            gameResultWriter.close();
+            if (jpaInitializer.isReady()) {
+                log.info("Cache statistics: {}", gameResultDao.getCacheStatistics());
+            }
+        }
+        if (moveJournal != null) {
+            moveJournal.close();
+        }
     }
 
 }
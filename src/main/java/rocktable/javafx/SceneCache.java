@@ -0,0 +1,168 @@
+package rocktable.javafx;
+
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.stage.Stage;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.inject.Inject;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The scenes of the application, each loaded from its FXML file once and
+ * reused by every transition.
+ *
+ * <p>Loading an FXML file parses it and creates its controller through the
+ * injector. The scenes can be {@link #preload(String...) preloaded} on a
+ * background thread, as nodes may be created on any thread until they are
+ * shown, while the {@link Scene} itself is created on the JavaFX application
+ * thread when it is first shown. The controllers reset their state when their
+ * scene is shown again.</p>
+ */
+@Slf4j
+@Singleton
+public class SceneCache {
+
+    /**
+     * The location of the launch screen.
+     */
+    public static final String LAUNCH = "/fxml/launch.fxml";
+
+    /**
+     * The location of the game screen.
+     */
+    public static final String GAME = "/fxml/game.fxml";
+
+    /**
+     * The location of the high score screen.
+     */
+    public static final String HIGH_SCORES = "/fxml/highscores.fxml";
+
+    private final Provider<FXMLLoader> fxmlLoaderProvider;
+
+    private final ConcurrentMap<String, CompletableFuture<LoadedScene>> scenes = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a {@code SceneCache} loading the scenes with the loaders of the
+     * specified provider.
+     *
+     * @param fxmlLoaderProvider the provider of the loaders creating the
+     *                           controllers through the injector
+     */
+    @Inject
+    public SceneCache(Provider<FXMLLoader> fxmlLoaderProvider) {
+        this.fxmlLoaderProvider = fxmlLoaderProvider;
+    }
+
+    /**
+     * Loads the specified scenes on a background thread, unless they are
+     * already loaded.
+     *
+     * @param locations the locations of the FXML files
+     */
+    public void preload(String... locations) {
+        List<String> pending = new ArrayList<>();
+        List<CompletableFuture<LoadedScene>> futures = new ArrayList<>();
+        for (String location : locations) {
+            CompletableFuture<LoadedScene> future = new CompletableFuture<>();
+            if (scenes.putIfAbsent(location, future) == null) {
+                pending.add(location);
+                futures.add(future);
+            }
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            for (int i = 0; i < pending.size(); i++) {
+                try {
+                    futures.get(i).complete(load(pending.get(i)));
+                } catch (IOException | RuntimeException e) {
+                    futures.get(i).completeExceptionally(e);
+                }
+            }
+        }, "scene-preloader");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Shows the specified scene on the stage, loading it first if it is not
+     * preloaded, and returns its controller. Must be called on the JavaFX
+     * application thread.
+     *
+     * @param stage the stage
+     * @param location the location of the FXML file
+     * @param <T> the type of the controller
+     * @return the controller of the scene
+     * @throws IOException if the FXML file cannot be loaded
+     */
+    public <T> T show(Stage stage, String location) throws IOException {
+        long start = System.nanoTime();
+        LoadedScene loaded = get(location);
+        if (loaded.scene == null) {
+            loaded.scene = new Scene(loaded.root);
+        }
+        stage.setScene(loaded.scene);
+        stage.show();
+        log.debug("Scene {} shown in {} ms", location, (System.nanoTime() - start) / 1_000_000);
+        return loaded.getController();
+    }
+
+    private LoadedScene get(String location) throws IOException {
+        CompletableFuture<LoadedScene> future = scenes.get(location);
+        if (future != null) {
+            try {
+                return future.join();
+            } catch (CompletionException e) {
+                log.warn("Preloading {} failed, loading it again", location, e.getCause());
+            }
+        }
+        LoadedScene loaded = load(location);
+        scenes.put(location, CompletableFuture.completedFuture(loaded));
+        return loaded;
+    }
+
+    private LoadedScene load(String location) throws IOException {
+        long start = System.nanoTime();
+        FXMLLoader fxmlLoader = fxmlLoaderProvider.get();
+        fxmlLoader.setLocation(getClass().getResource(location));
+        Parent root = fxmlLoader.load();
+        log.debug("Scene {} loaded on {} in {} ms", location, Thread.currentThread().getName(),
+                (System.nanoTime() - start) / 1_000_000);
+        return new LoadedScene(root, fxmlLoader.getController());
+    }
+
+    /**
+     * The root and the controller of a loaded FXML file, and its scene once
+     * it is shown.
+     */
+    private static class LoadedScene {
+
+        private final Parent root;
+
+        private final Object controller;
+
+        private Scene scene;
+
+        LoadedScene(Parent root, Object controller) {
+            this.root = root;
+            this.controller = controller;
+        }
+
+        @SuppressWarnings("unchecked")
+        <T> T getController() {
+            return (T) controller;
+        }
+    }
+
+}
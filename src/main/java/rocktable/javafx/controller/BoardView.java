@@ -0,0 +1,267 @@
+package rocktable.javafx.controller;
+
+import javafx.animation.AnimationTimer;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.Button;
+import javafx.scene.layout.GridPane;
+import javafx.scene.paint.Color;
+import rocktable.state.GameState;
+
+import static rocktable.state.BitboardRockTableState.ROW_BITS;
+import static rocktable.state.BitboardRockTableState.ROW_MASK;
+
+/**
+ * The table of the game screen drawn on a single {@link Canvas}, and the
+ * buttons choosing the rows.
+ *
+ * <p>The view remembers the packed table, the rows that can be chosen and the
+ * chosen row it displayed last. Rendering a state compares them with the
+ * state, so only the cells and the row buttons that changed are touched. The
+ * rows that can be chosen are derived from the packed table with a few bit
+ * operations instead of checking the state row by row.</p>
+ *
+ * <p>A rock picked up shrinks and a rock placed grows for
+ * {@value #ANIMATION_MILLIS} ms. The cells being animated are redrawn by a
+ * single {@link AnimationTimer}, which only runs while there is an animation,
+ * so the board adds no nodes to the scene graph however many boards are
+ * shown.</p>
+ */
+class BoardView {
+
+    private static final String CHOSEN_STYLE = "-fx-text-fill: black; -fx-base: green";
+
+    private static final Color TABLE_COLOR = Color.web("#E0E0E0");
+
+    private static final Color EMPTY_COLOR = Color.web("#eaeaea");
+
+    private static final Color ROCK_COLOR = Color.YELLOW;
+
+    private static final Color ROCK_STROKE_COLOR = Color.BLACK;
+
+    /**
+     * The size of an empty cell relative to the size of a cell.
+     */
+    private static final double EMPTY_SIZE = 90.0 / 102;
+
+    /**
+     * The diameter of a rock relative to the size of a cell.
+     */
+    private static final double ROCK_SIZE = 0.8 * 88.0 / 102;
+
+    private static final long ANIMATION_MILLIS = 150;
+
+    private static final long ANIMATION_NANOS = ANIMATION_MILLIS * 1_000_000;
+
+    private final Canvas canvas;
+
+    private final Button[] rowButtons = new Button[5];
+
+    private final long[] animationStarts = new long[25];
+
+    private final AnimationTimer timer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            animate(now);
+        }
+    };
+
+    private boolean rendered;
+
+    private int table;
+
+    private int choosableRows;
+
+    private int chosenRow = -1;
+
+    /**
+     * The cells being animated, bit {@code 5r+c} for the cell {@code (r, c)}.
+     */
+    private int animatedCells;
+
+    /**
+     * Creates a {@code BoardView} object drawing on the specified canvas.
+     *
+     * @param canvas the canvas of the table
+     * @param buttonGrid the grid of the buttons choosing the rows
+     */
+    BoardView(Canvas canvas, GridPane buttonGrid) {
+        this.canvas = canvas;
+        for (int row = 0; row < 5; row++) {
+            rowButtons[row] = (Button) buttonGrid.getChildren().get(row);
+        }
+    }
+
+    /**
+     * Forgets the state displayed, so the next state is drawn at once without
+     * animation, e.g. when a new game starts.
+     */
+    void reset() {
+        timer.stop();
+        animatedCells = 0;
+        rendered = false;
+    }
+
+    /**
+     * Returns the rows that can be chosen.
+     *
+     * @param table the packed table
+     * @param rowChosen whether a row is already chosen in the turn
+     * @return the mask of the rows that can be chosen, bit {@code r} for row {@code r}
+     */
+    static int choosableRows(int table, boolean rowChosen) {
+        if (rowChosen) {
+            return 0;
+        }
+        int rows = 0;
+        for (int row = 0; row < 5; row++) {
+            if ((table >>> row * ROW_BITS & ROW_MASK) != 0) {
+                rows |= 1 << row;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Returns the cell at the specified point of the canvas.
+     *
+     * @param x the horizontal coordinate in the canvas
+     * @param y the vertical coordinate in the canvas
+     * @return {@code 5r+c} for the cell {@code (r, c)}, or {@code -1} if the
+     * point is outside of the table
+     */
+    int cellAt(double x, double y) {
+        double cellSize = cellSize();
+        int col = (int) Math.floor(x / cellSize);
+        int row = (int) Math.floor(y / cellSize);
+        if (row < 0 || row > 4 || col < 0 || col > 4) {
+            return -1;
+        }
+        return row * 5 + col;
+    }
+
+    private double cellSize() {
+        return Math.min(canvas.getWidth(), canvas.getHeight()) / 5;
+    }
+
+    /**
+     * Updates the cells and the buttons that differ from the specified state.
+     * The cells are redrawn at once when the state is rendered for the first
+     * time, and animated afterwards.
+     *
+     * @param state the state to display
+     */
+    void render(GameState state) {
+        int newTable = state.getTableBits();
+        int newChoosableRows = choosableRows(newTable, state.isRowChosen());
+        int newChosenRow = state.getChosenRow();
+
+        if (!rendered) {
+            GraphicsContext gc = canvas.getGraphicsContext2D();
+            gc.setFill(TABLE_COLOR);
+            gc.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+            for (int cell = 0; cell < 25; cell++) {
+                drawCell(cell, (newTable & bit(cell)) != 0 ? 1 : 0);
+            }
+        } else {
+            int dirtyBits = newTable ^ table;
+            long now = System.nanoTime();
+            while (dirtyBits != 0) {
+                int index = Integer.numberOfTrailingZeros(dirtyBits);
+                dirtyBits &= dirtyBits - 1;
+                // Bit 5r+4-c of the table stores the cell (r, c).
+                int cell = index / ROW_BITS * 5 + 4 - index % ROW_BITS;
+                animationStarts[cell] = now;
+                animatedCells |= 1 << cell;
+            }
+            if (animatedCells != 0) {
+                table = newTable;
+                animate(now);
+                timer.start();
+            }
+        }
+
+        int dirtyRows = rendered ? newChoosableRows ^ choosableRows : ROW_MASK;
+        if (newChosenRow != chosenRow) {
+            dirtyRows |= rowBit(chosenRow) | rowBit(newChosenRow);
+        }
+        while (dirtyRows != 0) {
+            int row = Integer.numberOfTrailingZeros(dirtyRows);
+            dirtyRows &= dirtyRows - 1;
+            Button rowButton = rowButtons[row];
+            rowButton.setDisable((newChoosableRows >>> row & 1) == 0);
+            if (row == newChosenRow) {
+                rowButton.setText("CHOSEN");
+                rowButton.setStyle(CHOSEN_STYLE);
+            } else {
+                rowButton.setText("Choose");
+                rowButton.setStyle(null);
+            }
+        }
+
+        table = newTable;
+        choosableRows = newChoosableRows;
+        chosenRow = newChosenRow;
+        rendered = true;
+    }
+
+    /**
+     * Redraws the cells being animated, and stops the timer when every
+     * animation is finished.
+     */
+    private void animate(long now) {
+        int cells = animatedCells;
+        while (cells != 0) {
+            int cell = Integer.numberOfTrailingZeros(cells);
+            cells &= cells - 1;
+            double progress = Math.min(1, Math.max(0, (double) (now - animationStarts[cell]) / ANIMATION_NANOS));
+            boolean occupied = (table & bit(cell)) != 0;
+            drawCell(cell, occupied ? progress : 1 - progress);
+            if (progress == 1) {
+                animatedCells &= ~(1 << cell);
+            }
+        }
+        if (animatedCells == 0) {
+            timer.stop();
+        }
+    }
+
+    /**
+     * Draws a cell with a rock of the specified scale, or an empty cell if the
+     * scale is zero.
+     */
+    private void drawCell(int cell, double scale) {
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        double cellSize = cellSize();
+        double x = cell % 5 * cellSize;
+        double y = cell / 5 * cellSize;
+        gc.setFill(TABLE_COLOR);
+        gc.fillRect(x, y, cellSize, cellSize);
+        if (scale < 1) {
+            double emptySize = EMPTY_SIZE * cellSize;
+            double inset = (cellSize - emptySize) / 2;
+            gc.setGlobalAlpha(1 - scale);
+            gc.setFill(EMPTY_COLOR);
+            gc.fillRoundRect(x + inset, y + inset, emptySize, emptySize, 5, 5);
+            gc.setGlobalAlpha(1);
+        }
+        if (scale > 0) {
+            double rockSize = ROCK_SIZE * cellSize * scale;
+            double inset = (cellSize - rockSize) / 2;
+            gc.setFill(ROCK_COLOR);
+            gc.fillOval(x + inset, y + inset, rockSize, rockSize);
+            gc.setStroke(ROCK_STROKE_COLOR);
+            gc.setLineWidth(1);
+            gc.strokeOval(x + inset + 0.5, y + inset + 0.5, rockSize - 1, rockSize - 1);
+        }
+    }
+
+    private static int bit(int cell) {
+        return 1 << cell / 5 * ROW_BITS + 4 - cell % 5;
+    }
+
+    private static int rowBit(int row) {
+        return row < 0 ? 0 : 1 << row;
+    }
+
+}
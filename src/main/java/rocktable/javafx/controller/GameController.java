@@ -7,42 +7,51 @@ import javafx.application.Platform;
 import javafx.beans.property.*;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.scene.Node;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
+import javafx.scene.canvas.Canvas;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.GridPane;
-import javafx.scene.shape.Circle;
-import javafx.scene.shape.Rectangle;
 import javafx.stage.Stage;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.time.DurationFormatUtils;
+import rocktable.ai.ComputerPlayer;
+import rocktable.ai.PlayerType;
+import rocktable.javafx.SceneCache;
+import rocktable.journal.MoveJournal;
+import rocktable.journal.RecordingGameState;
 import rocktable.results.GameResult;
-import rocktable.results.GameResultDao;
-import rocktable.state.RockTableState;
+import rocktable.results.GameResultWriter;
+import rocktable.state.GameFactory;
+import rocktable.state.Positions;
+import rocktable.state.Turns;
 
 import javax.inject.Inject;
 import java.io.IOException;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.concurrent.CompletableFuture;
 
 @SuppressWarnings("checkstyle:MissingJavadocType")
 @Slf4j
 public class GameController {
 
     @Inject
-    private FXMLLoader fxmlLoader;
+    private SceneCache sceneCache;
 
     @Inject
-    private GameResultDao gameResultDao;
+    private GameResultWriter gameResultWriter;
+
+    @Inject
+    private MoveJournal moveJournal;
 
     private String playerName1;
     private String playerName2;
-    private RockTableState gameState;
+    private ComputerPlayer computerPlayer2;
+    private RecordingGameState gameState;
+    private BoardView boardView;
     private IntegerProperty activePlayerRocks = new SimpleIntegerProperty();
     private StringProperty activePlayerName = new SimpleStringProperty();
     private Instant startTime;
@@ -54,7 +63,7 @@ public class GameController {
     private Label gameErrorLabel;
 
     @FXML
-    private GridPane gameGrid;
+    private Canvas boardCanvas;
 
     @FXML
     private GridPane buttonGrid;
@@ -76,21 +85,19 @@ public class GameController {
     @FXML
     private Button giveUpButton;
 
-    private BooleanProperty gameOver = new SimpleBooleanProperty();
+    @FXML
+    private Button undoButton;
 
-    @SuppressWarnings("checkstyle:MissingJavadocMethod")
-    public void setPlayerName1(String playerName) {
-        this.playerName1 = playerName;
-    }
-    @SuppressWarnings("checkstyle:MissingJavadocMethod")
-    public void setPlayerName2(String playerName) {
-        this.playerName2 = playerName;
-    }
+    @FXML
+    private Button redoButton;
+
+    private BooleanProperty gameOver = new SimpleBooleanProperty();
 
     @SuppressWarnings("checkstyle:MissingJavadocMethod")
     @FXML
     public void initialize() {
 
+        boardView = new BoardView(boardCanvas, buttonGrid);
         playerLabel.textProperty().bind(activePlayerName);
         rockLabel.textProperty().bind(activePlayerRocks.asString());
 
@@ -99,23 +106,43 @@ public class GameController {
             if (newValue) {
                 log.info("Game is over");
                 log.debug("Saving result to database...");
-                gameResultDao.persist(createGameResult());
+                long startPosition = gameState.getStartPosition();
+                byte[] actions = gameState.getActions();
+                gameResultWriter.submit(createGameResult())
+                        .whenComplete((result, throwable) -> {
+                            if (throwable != null) {
+                                log.error("The result could not be saved", throwable);
+                            } else {
+                                log.debug("Result saved: {}", result);
+                                moveJournal.save(result.getId(), startPosition, actions);
+                            }
+                        });
                 stopWatchTimeline.stop();
             }
         });
-
-        startGame();
     }
 
-
-    private void startGame() {
+    /**
+     * Starts a new game on the screen. The scene is reused by every game, so
+     * everything left from the previous game is reset here.
+     *
+     * @param playerName1 the name of the first player
+     * @param playerName2 the name of the second player
+     * @param playerType2 the type of the second player
+     */
+    public void startGame(String playerName1, String playerName2, PlayerType playerType2) {
         /*int[][] a = {{0,1,1,0,0},
                 {0,1,0,0,0},
                 {1,0,0,0,0},
                 {0,1,1,0,0},
                 {0,0,1,0,0}};*/
 
-        gameState = new RockTableState();
+        this.playerName1 = playerName1;
+        this.playerName2 = playerName2;
+        this.computerPlayer2 = playerType2.isComputer()
+                ? playerType2.createComputerPlayer(PlayerType.budgetFromSystemProperties())
+                : null;
+        gameState = new RecordingGameState(GameFactory.fromSystemProperties().newGame());
 
         activePlayerRocks.set(0);
         activePlayerName.setValue(playerName1);
@@ -123,32 +150,21 @@ public class GameController {
         startTime = Instant.now();
         gameOver.setValue(false);
 
+        giveUpButton.setText("Give Up");
+        gameErrorLabel.setText("");
+        boardView.reset();
+        setBoardDisabled(false);
         displayGameState();
-        createStopWatch();
+        startStopWatch();
         Platform.runLater(() -> messageLabel.setText("Good luck!"));
     }
 
     private void displayGameState() {
-        for (int i = 0; i < 5; i++) {
-
-            Button rowButton = (Button)buttonGrid.getChildren().get(i);
-            rowButton.setDisable(!gameState.isChoosableRow(i));
-
-            for (int j = 0; j < 5; j++) {
-                Circle rock = (Circle) gameGrid.getChildren().get((i * 5 + j)+25);
-                Rectangle backg = (Rectangle) gameGrid.getChildren().get(i*5+j);
-                if (gameState.getTable()[i][j]==0){
-                    rock.setVisible(false);
-                    backg.setVisible(true);
-                }
-                else {
-                    rock.setVisible(true);
-                    backg.setVisible(false);
-                }
-            }
-        }
+        boardView.render(gameState);
 
         endTurnButton.setDisable(!gameState.canBeEnded());
+        undoButton.setDisable(!gameState.canUndo());
+        redoButton.setDisable(!gameState.canRedo());
         activePlayerRocks.set(gameState.getRocks()[gameState.getActivePlayer()]);
 
         switch (gameState.getActivePlayer()){
@@ -162,40 +178,38 @@ public class GameController {
     }
 
     @SuppressWarnings("checkstyle:MissingJavadocMethod")
-    public void handleClickOnRock(MouseEvent mouseEvent) {
-        int row = GridPane.getRowIndex((Node) mouseEvent.getSource());
-        int col = GridPane.getColumnIndex((Node) mouseEvent.getSource());
-
-        log.info("Rock ({}, {}) is clicked", row, col);
-
-        if (gameState.isPickupable(col) && gameState.getChosenRow()==row){
-            log.info("Not empty clicked.");
-            gameState.pickupRock(col);
-            displayGameState();
-            gameErrorLabel.setText("");
+    public void handleClickOnBoard(MouseEvent mouseEvent) {
+        int cell = boardView.cellAt(mouseEvent.getX(), mouseEvent.getY());
+        if (cell < 0) {
+            return;
         }
-        else {
-            gameErrorLabel.setText("Can't pick up!");
-        }
-    }
+        int row = cell / 5;
+        int col = cell % 5;
 
-    @SuppressWarnings("checkstyle:MissingJavadocMethod")
-    public void handleClickOnBckg(MouseEvent mouseEvent) {
-        int row = GridPane.getRowIndex((Node) mouseEvent.getSource());
-        int col = GridPane.getColumnIndex((Node) mouseEvent.getSource());
+        log.info("Cell ({}, {}) is clicked", row, col);
 
-        log.info("Rock ({}, {}) is clicked", row, col);
-
-        if (gameState.isPlaceable(col) && gameState.getChosenRow()==row){
-            log.info("Empty clicked.");
-            gameState.placeRock(col);
-            displayGameState();
-            gameErrorLabel.setText("");
+        if (gameState.isOccupied(row, col)) {
+            if (gameState.isPickupable(col) && gameState.getChosenRow()==row){
+                log.info("Not empty clicked.");
+                gameState.pickupRock(col);
+                displayGameState();
+                gameErrorLabel.setText("");
+            }
+            else {
+                gameErrorLabel.setText("Can't pick up!");
+            }
         }
         else {
-            gameErrorLabel.setText("Can't place!");
+            if (gameState.isPlaceable(col) && gameState.getChosenRow()==row){
+                log.info("Empty clicked.");
+                gameState.placeRock(col);
+                displayGameState();
+                gameErrorLabel.setText("");
+            }
+            else {
+                gameErrorLabel.setText("Can't place!");
+            }
         }
-
     }
 
 
@@ -207,10 +221,6 @@ public class GameController {
             log.info("{} button is pressed.",((Button) actionEvent.getSource()).getText());
             log.info("Choosing row.");
 
-            Button rowButton = (Button)buttonGrid.getChildren().get(0);
-            rowButton.setText("CHOSEN");
-            rowButton.setStyle("-fx-text-fill: black; -fx-base: green");
-
             gameState.setChosenRow(0);
             displayGameState();
 
@@ -224,10 +234,6 @@ public class GameController {
             log.info("{} button is pressed.",((Button) actionEvent.getSource()).getText());
             log.info("Choosing row.");
 
-            Button rowButton = (Button)buttonGrid.getChildren().get(1);
-            rowButton.setText("CHOSEN");
-            rowButton.setStyle("-fx-text-fill: black; -fx-base: green");
-
             gameState.setChosenRow(1);
             displayGameState();
         }
@@ -239,10 +245,6 @@ public class GameController {
             log.info("{} button is pressed.",((Button) actionEvent.getSource()).getText());
             log.info("Choosing row.");
 
-            Button rowButton = (Button)buttonGrid.getChildren().get(2);
-            rowButton.setText("CHOSEN");
-            rowButton.setStyle("-fx-text-fill: black; -fx-base: green");
-
             gameState.setChosenRow(2);
             displayGameState();
         }
@@ -254,10 +256,6 @@ public class GameController {
             log.info("{} button is pressed.",((Button) actionEvent.getSource()).getText());
             log.info("Choosing row.");
 
-            Button rowButton = (Button)buttonGrid.getChildren().get(3);
-            rowButton.setText("CHOSEN");
-            rowButton.setStyle("-fx-text-fill: black; -fx-base: green");
-
             gameState.setChosenRow(3);
             displayGameState();
         }
@@ -269,10 +267,6 @@ public class GameController {
             log.info("{} button is pressed.",((Button) actionEvent.getSource()).getText());
             log.info("Choosing row.");
 
-            Button rowButton = (Button)buttonGrid.getChildren().get(4);
-            rowButton.setText("CHOSEN");
-            rowButton.setStyle("-fx-text-fill: black; -fx-base: green");
-
             gameState.setChosenRow(4);
             displayGameState();
         }
@@ -283,17 +277,84 @@ public class GameController {
     public void handleEndTurnButton(ActionEvent actionEvent)  {
         if (gameState.canBeEnded()){
             gameState.endTurn();
-            displayGameState();
+            handleTurnEnded();
+        }
+    }
+
+    private void handleTurnEnded() {
+        displayGameState();
+
+        if (gameState.isFinished()){
+            giveUpButton.setText("Finish");
+            messageLabel.setText("Congratulations, " + activePlayerName.getValue() + "!");
+        }
+        else if (gameState.getActivePlayer() == 1 && computerPlayer2 != null) {
+            playComputerTurn();
+        }
+    }
 
-            for (int i = 0; i < 5; i++) {
-                Button temp = (Button) buttonGrid.getChildren().get(i);
-                temp.setText("Choose");
-                temp.setStyle(null);
+    private void playComputerTurn() {
+        setBoardDisabled(true);
+        messageLabel.setText("Thinking...");
+        RecordingGameState state = gameState;
+        long position = Positions.of(state);
+        CompletableFuture.supplyAsync(() -> computerPlayer2.selectTurn(position))
+                .whenCompleteAsync((turn, throwable) -> {
+                    // The game may be over, or another game may have started on the screen.
+                    if (gameOver.getValue() || state != gameState) {
+                        return;
+                    }
+                    setBoardDisabled(false);
+                    if (throwable != null) {
+                        log.error("The computer player failed", throwable);
+                        messageLabel.setText("The computer player failed!");
+                        return;
+                    }
+                    log.info("The computer plays {}", Turns.toString(turn));
+                    messageLabel.setText("Good luck!");
+                    Turns.apply(gameState, turn);
+                    handleTurnEnded();
+                }, Platform::runLater);
+    }
+
+    private void setBoardDisabled(boolean disabled) {
+        boardCanvas.setDisable(disabled);
+        buttonGrid.setDisable(disabled);
+        endTurnButton.setDisable(disabled || !gameState.canBeEnded());
+        undoButton.setDisable(disabled || !gameState.canUndo());
+        redoButton.setDisable(disabled || !gameState.canRedo());
+    }
+
+    @SuppressWarnings("checkstyle:MissingJavadocMethod")
+    public void handleUndoButton(ActionEvent actionEvent) {
+        if (gameState.canUndo()){
+            log.info("Undoing the last action.");
+            gameState.undo();
+            // The turn of the computer player is taken back together with the action before it.
+            while (computerPlayer2 != null && gameState.getActivePlayer() == 1 && gameState.canUndo()) {
+                gameState.undo();
             }
+            giveUpButton.setText("Give Up");
+            messageLabel.setText("Good luck!");
+            gameErrorLabel.setText("");
+            displayGameState();
+        }
+    }
 
-            if (gameState.isFinished()){
-                giveUpButton.setText("Finish");
-                messageLabel.setText("Congratulations, " + activePlayerName.getValue() + "!");
+    @SuppressWarnings("checkstyle:MissingJavadocMethod")
+    public void handleRedoButton(ActionEvent actionEvent) {
+        if (gameState.canRedo()){
+            log.info("Redoing the last action undone.");
+            gameState.redo();
+            while (computerPlayer2 != null && gameState.getActivePlayer() == 1 && gameState.canRedo()) {
+                gameState.redo();
+            }
+            gameErrorLabel.setText("");
+            if (gameState.isRowChosen()) {
+                displayGameState();
+            }
+            else {
+                handleTurnEnded();
             }
         }
     }
@@ -318,11 +379,8 @@ public class GameController {
 
         log.info("Loading high scores scene...");
 
-        fxmlLoader.setLocation(getClass().getResource("/fxml/highscores.fxml"));
-        Parent root = fxmlLoader.load();
         Stage stage = (Stage) ((Node) actionEvent.getSource()).getScene().getWindow();
-        stage.setScene(new Scene(root));
-        stage.show();
+        sceneCache.<HighScoreController>show(stage, SceneCache.HIGH_SCORES).refresh();
     }
 
 
@@ -335,13 +393,15 @@ public class GameController {
     }
 
 
-    private void createStopWatch() {
-        stopWatchTimeline = new Timeline(new KeyFrame(javafx.util.Duration.ZERO, e -> {
-            long millisElapsed = startTime.until(Instant.now(), ChronoUnit.MILLIS);
-            stopWatchLabel.setText(DurationFormatUtils.formatDuration(millisElapsed, "HH:mm:ss"));
-        }), new KeyFrame(javafx.util.Duration.seconds(1)));
-        stopWatchTimeline.setCycleCount(Animation.INDEFINITE);
-        stopWatchTimeline.play();
+    private void startStopWatch() {
+        if (stopWatchTimeline == null) {
+            stopWatchTimeline = new Timeline(new KeyFrame(javafx.util.Duration.ZERO, e -> {
+                long millisElapsed = startTime.until(Instant.now(), ChronoUnit.MILLIS);
+                stopWatchLabel.setText(DurationFormatUtils.formatDuration(millisElapsed, "HH:mm:ss"));
+            }), new KeyFrame(javafx.util.Duration.seconds(1)));
+            stopWatchTimeline.setCycleCount(Animation.INDEFINITE);
+        }
+        stopWatchTimeline.playFromStart();
     }
 
 }
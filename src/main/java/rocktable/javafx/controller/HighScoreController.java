@@ -1,23 +1,25 @@
 package rocktable.javafx.controller;
 
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.scene.Node;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.TableCell;
 import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableRow;
 import javafx.scene.control.TableView;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.Stage;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.time.DurationFormatUtils;
-import rocktable.results.GameResult;
+import rocktable.javafx.SceneCache;
 import rocktable.results.GameResultDao;
+import rocktable.results.GameResultWriter;
+import rocktable.results.HighScore;
+import rocktable.results.Leaderboard;
 
 import javax.inject.Inject;
 import java.io.IOException;
@@ -25,40 +27,65 @@ import java.time.Duration;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.FormatStyle;
-import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 public class HighScoreController {
 
+    /**
+     * The number of results loaded by scrolling at once.
+     */
+    private static final int PAGE_SIZE = 50;
+
+    /**
+     * The number of rows before the end of the table where the next page is loaded.
+     */
+    private static final int PREFETCH_ROWS = 10;
+
+    @Inject
+    private SceneCache sceneCache;
+
     @Inject
-    private FXMLLoader fxmlLoader;
+    private Leaderboard leaderboard;
 
     @Inject
     private GameResultDao gameResultDao;
 
+    @Inject
+    private GameResultWriter gameResultWriter;
+
     @FXML
-    private TableView<GameResult> highScoreTable;
+    private TableView<HighScore> highScoreTable;
 
     @FXML
-    private TableColumn<GameResult, String> winner;
+    private TableColumn<HighScore, String> winner;
 
     @FXML
-    private TableColumn<GameResult, Duration> duration;
+    private TableColumn<HighScore, Duration> duration;
 
     @FXML
-    private TableColumn<GameResult, ZonedDateTime> created;
+    private TableColumn<HighScore, ZonedDateTime> created;
+
+    private final ObservableList<HighScore> highScores = FXCollections.observableArrayList();
+
+    private boolean loadingPage = true;
+
+    private boolean lastPageLoaded;
+
+    /**
+     * The number of times the high scores were loaded from the start, so the
+     * pages requested before the last reload are dropped.
+     */
+    private int generation;
 
     @FXML
     private void initialize() {
-        log.debug("Loading high scores...");
-        List<GameResult> highScoreList = gameResultDao.findBest(10);
-
         winner.setCellValueFactory(new PropertyValueFactory<>("winner"));
         duration.setCellValueFactory(new PropertyValueFactory<>("duration"));
         created.setCellValueFactory(new PropertyValueFactory<>("created"));
 
         duration.setCellFactory(column -> {
-            TableCell<GameResult, Duration> cell = new TableCell<GameResult, Duration>() {
+            TableCell<HighScore, Duration> cell = new TableCell<HighScore, Duration>() {
                 @Override
                 protected void updateItem(Duration item, boolean empty) {
                     super.updateItem(item, empty);
@@ -73,7 +100,7 @@ public class HighScoreController {
         });
 
         created.setCellFactory(column -> {
-            TableCell<GameResult, ZonedDateTime> cell = new TableCell<GameResult, ZonedDateTime>() {
+            TableCell<HighScore, ZonedDateTime> cell = new TableCell<HighScore, ZonedDateTime>() {
                 private DateTimeFormatter formatter = DateTimeFormatter.ofLocalizedDateTime(FormatStyle.LONG);
                 @Override
                 protected void updateItem(ZonedDateTime item, boolean empty) {
@@ -88,21 +115,74 @@ public class HighScoreController {
             return cell;
         });
 
-        ObservableList<GameResult> observableResult = FXCollections.observableArrayList();
-        observableResult.addAll(highScoreList);
+        highScoreTable.setRowFactory(table -> new TableRow<HighScore>() {
+            @Override
+            protected void updateItem(HighScore item, boolean empty) {
+                super.updateItem(item, empty);
+                if (!empty && getIndex() >= highScores.size() - PREFETCH_ROWS) {
+                    loadNextPage();
+                }
+            }
+        });
+        highScoreTable.setItems(highScores);
+    }
 
-        highScoreTable.setItems(observableResult);
+    /**
+     * Loads the high scores from the start, when the screen is shown after a game.
+     */
+    public void refresh() {
+        int current = ++generation;
+        loadingPage = true;
+        lastPageLoaded = false;
+        highScores.clear();
+
+        log.debug("Loading high scores...");
+        gameResultWriter.flushed()
+                .thenCompose(ignored -> leaderboard.load())
+                .whenCompleteAsync((highScoreList, throwable) -> {
+                    if (current != generation) {
+                        return;
+                    }
+                    loadingPage = false;
+                    if (throwable != null) {
+                        log.error("The high scores could not be loaded", throwable);
+                        return;
+                    }
+                    lastPageLoaded = highScoreList.size() < leaderboard.getCapacity();
+                    highScores.setAll(highScoreList);
+                }, Platform::runLater);
+    }
+
+    private void loadNextPage() {
+        if (loadingPage || lastPageLoaded || highScores.isEmpty()) {
+            return;
+        }
+        loadingPage = true;
+        int current = generation;
+        HighScore last = highScores.get(highScores.size() - 1);
+        log.debug("Loading high scores after {}...", last);
+        CompletableFuture.supplyAsync(() -> gameResultDao.findBestScoresAfter(last, PAGE_SIZE))
+                .whenCompleteAsync((page, throwable) -> {
+                    if (current != generation) {
+                        return;
+                    }
+                    loadingPage = false;
+                    if (throwable != null) {
+                        log.error("The high scores could not be loaded", throwable);
+                        lastPageLoaded = true;
+                        return;
+                    }
+                    lastPageLoaded = page.size() < PAGE_SIZE;
+                    highScores.addAll(page);
+                }, Platform::runLater);
     }
 
     @SuppressWarnings("checkstyle:MissingJavadocMethod")
     public void handleRestartButton(ActionEvent actionEvent) throws IOException {
         log.debug("{} is pressed", ((Button) actionEvent.getSource()).getText());
         log.info("Loading launch scene...");
-        fxmlLoader.setLocation(getClass().getResource("/fxml/launch.fxml"));
-        Parent root = fxmlLoader.load();
         Stage stage = (Stage) ((Node) actionEvent.getSource()).getScene().getWindow();
-        stage.setScene(new Scene(root));
-        stage.show();
+        sceneCache.<LaunchController>show(stage, SceneCache.LAUNCH).reset();
     }
 
 }
@@ -2,14 +2,14 @@ package rocktable.javafx.controller;
 
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.scene.Node;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
+import javafx.scene.control.ChoiceBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.TextField;
 import javafx.stage.Stage;
 import lombok.extern.slf4j.Slf4j;
+import rocktable.ai.PlayerType;
+import rocktable.javafx.SceneCache;
 
 import javax.inject.Inject;
 import java.io.IOException;
@@ -18,18 +18,39 @@ import java.io.IOException;
 public class LaunchController {
 
     @Inject
-    private FXMLLoader fxmlLoader;
+    private SceneCache sceneCache;
 
     @FXML
     private TextField playerNameTextField;
     @FXML
     private TextField playerNameTextField1;
 
+    @FXML
+    private ChoiceBox<PlayerType> opponentChoiceBox;
+
     @FXML
     private Label errorLabel;
 
+    @FXML
+    private void initialize() {
+        opponentChoiceBox.getItems().setAll(PlayerType.values());
+        opponentChoiceBox.setValue(PlayerType.HUMAN);
+    }
+
+    /**
+     * Clears the error of the previous launch when the screen is shown again.
+     * The names and the opponent are kept for the next game.
+     */
+    public void reset() {
+        errorLabel.setText("");
+    }
+
     @SuppressWarnings("checkstyle:MissingJavadocMethod")
     public void startAction(ActionEvent actionEvent) throws IOException {
+        PlayerType opponent = opponentChoiceBox.getValue();
+        if (opponent.isComputer() && playerNameTextField1.getText().isEmpty()) {
+            playerNameTextField1.setText("Computer");
+        }
         if (playerNameTextField.getText().isEmpty() || playerNameTextField1.getText().isEmpty()) {
             errorLabel.setText("Enter player names!");
         }
@@ -40,16 +61,12 @@ public class LaunchController {
             errorLabel.setText("Choose different names!");
         }
         else {
-            fxmlLoader.setLocation(getClass().getResource("/fxml/game.fxml"));
-            Parent root = fxmlLoader.load();
-            fxmlLoader.<GameController>getController().setPlayerName1(playerNameTextField.getText());
-            fxmlLoader.<GameController>getController().setPlayerName2(playerNameTextField1.getText());
-
             Stage stage = (Stage) ((Node) actionEvent.getSource()).getScene().getWindow();
-            stage.setScene(new Scene(root));
-            stage.show();
+            sceneCache.<GameController>show(stage, SceneCache.GAME)
+                    .startGame(playerNameTextField.getText(), playerNameTextField1.getText(), opponent);
             log.info("The player1's name is set to {}", playerNameTextField.getText());
             log.info("The player2's name is set to {}", playerNameTextField1.getText());
+            log.info("The player2 is {}", opponent);
             log.info("Loading game scene...");
         }
     }
@@ -0,0 +1,116 @@
+package rocktable.journal;
+
+import rocktable.state.GameState;
+
+/**
+ * Helper methods for single actions of a player packed into a {@code byte}.
+ *
+ * <p>Bits {@code 3..4} of an action hold its type and bits {@code 0..2} its
+ * argument: the chosen row, or the column where a rock is picked up or placed.
+ * The argument of {@link #END_TURN} is zero.</p>
+ */
+public final class Actions {
+
+    /**
+     * The type of {@link GameState#setChosenRow(int)}.
+     */
+    public static final int CHOOSE_ROW = 0;
+
+    /**
+     * The type of {@link GameState#pickupRock(int)}.
+     */
+    public static final int PICKUP_ROCK = 1;
+
+    /**
+     * The type of {@link GameState#placeRock(int)}.
+     */
+    public static final int PLACE_ROCK = 2;
+
+    /**
+     * The type of {@link GameState#endTurn()}.
+     */
+    public static final int END_TURN = 3;
+
+    private static final int TYPE_SHIFT = 3;
+
+    private Actions() {
+    }
+
+    /**
+     * Packs the specified values into an action.
+     *
+     * @param type the type of the action
+     * @param argument the row or the column of the action
+     * @return the packed action
+     */
+    public static byte of(int type, int argument) {
+        return (byte) (type << TYPE_SHIFT | argument);
+    }
+
+    /**
+     * Returns the type of the action.
+     *
+     * @param action the packed action
+     * @return the type of the action
+     */
+    public static int type(byte action) {
+        return action >>> TYPE_SHIFT & 0x3;
+    }
+
+    /**
+     * Returns the argument of the action.
+     *
+     * @param action the packed action
+     * @return the row or the column of the action
+     */
+    public static int argument(byte action) {
+        return action & 0x7;
+    }
+
+    /**
+     * Performs the action on the specified state.
+     *
+     * @param state the state
+     * @param action the packed action
+     * @throws IllegalArgumentException if the action is not legal in the state
+     */
+    public static void apply(GameState state, byte action) {
+        int argument = argument(action);
+        switch (type(action)) {
+            case CHOOSE_ROW:
+                state.setChosenRow(argument);
+                break;
+            case PICKUP_ROCK:
+                state.pickupRock(argument);
+                break;
+            case PLACE_ROCK:
+                state.placeRock(argument);
+                break;
+            default:
+                if (!state.canBeEnded()) {
+                    throw new IllegalArgumentException();
+                }
+                state.endTurn();
+        }
+    }
+
+    /**
+     * Creates a {@code String} representation of the action.
+     *
+     * @param action the packed action
+     * @return the {@code String} representation of the action
+     */
+    public static String toString(byte action) {
+        switch (type(action)) {
+            case CHOOSE_ROW:
+                return "choose row " + argument(action);
+            case PICKUP_ROCK:
+                return "pick up " + argument(action);
+            case PLACE_ROCK:
+                return "place " + argument(action);
+            default:
+                return "end turn";
+        }
+    }
+
+}
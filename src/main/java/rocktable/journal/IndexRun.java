@@ -0,0 +1,381 @@
+package rocktable.journal;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * A file of index entries sorted by position, see {@link PositionIndex}.
+ *
+ * <p>The file starts with a header of {@value #HEADER_SIZE} bytes, stored in
+ * big-endian byte order:</p>
+ * <ul>
+ *     <li>the magic number {@code RTPI} (4 bytes)</li>
+ *     <li>the format version (2 bytes) and a reserved short</li>
+ *     <li>the number of entries (8 bytes)</li>
+ *     <li>the smallest and the largest sequence number of the updates in the
+ *     run (8 bytes each)</li>
+ *     <li>the offset of the journal up to which the games are indexed (8 bytes)</li>
+ *     <li>the largest position in the run (8 bytes)</li>
+ * </ul>
+ * <p>The rest of the header is zero. The entries follow the header, sorted by
+ * position, each entry is a position and an occurrence (8 bytes each), see
+ * {@link #value(long, int, int)}. The first position of every block of
+ * {@value #BLOCK_ENTRIES} entries is stored after the entries, and is kept in
+ * memory while the run is open, so finding a position reads one block in
+ * most cases.</p>
+ */
+class IndexRun implements Closeable {
+
+    static final int MAGIC = 0x52545049;
+
+    static final int VERSION = 1;
+
+    static final int HEADER_SIZE = 64;
+
+    static final int ENTRY_SIZE = 2 * Long.BYTES;
+
+    static final int BLOCK_ENTRIES = 256;
+
+    private static final int BLOCK_SIZE = BLOCK_ENTRIES * ENTRY_SIZE;
+
+    private static final int STREAM_BUFFER_SIZE = 1 << 16;
+
+    /**
+     * The number of bits left for the index of the value next to a position
+     * of at most {@value Long#SIZE} - {@value #VALUE_INDEX_BITS} bits.
+     */
+    static final int VALUE_INDEX_BITS = 28;
+
+    private static final int PLY_BITS = 15;
+
+    private static final long MAX_GAME_ID = (1L << Long.SIZE - PLY_BITS - 1) - 1;
+
+    /**
+     * The largest ply stored in an entry.
+     */
+    static final int MAX_PLY = (1 << PLY_BITS) - 1;
+
+    private final Path path;
+
+    private final FileChannel channel;
+
+    private final long entries;
+
+    private final long base;
+
+    private final long sequence;
+
+    private final long journalEnd;
+
+    private final long lastKey;
+
+    private final long[] fences;
+
+    private IndexRun(Path path, FileChannel channel, ByteBuffer header, long[] fences) {
+        this.path = path;
+        this.channel = channel;
+        this.entries = header.getLong(8);
+        this.base = header.getLong(16);
+        this.sequence = header.getLong(24);
+        this.journalEnd = header.getLong(32);
+        this.lastKey = header.getLong(40);
+        this.fences = fences;
+    }
+
+    /**
+     * Packs an occurrence of a position into the value of an entry.
+     *
+     * @param gameId the id of the game
+     * @param ply the number of turns played before the position
+     * @param winner the index of the winner of the game
+     * @return the value of the entry
+     * @throws IllegalArgumentException if the id or the ply is out of range
+     */
+    static long value(long gameId, int ply, int winner) {
+        if (gameId < 0 || gameId > MAX_GAME_ID || ply > MAX_PLY) {
+            throw new IllegalArgumentException("Game " + gameId + ", ply " + ply + " cannot be indexed");
+        }
+        return gameId << PLY_BITS + 1 | (long) winner << PLY_BITS | ply;
+    }
+
+    static Occurrence occurrence(long value) {
+        return new Occurrence(value >>> PLY_BITS + 1, (int) value & MAX_PLY, (int) (value >>> PLY_BITS) & 1);
+    }
+
+    static IndexRun open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            read(channel, header, 0);
+            if (header.getInt(0) != MAGIC) {
+                throw new IOException("Not an index run: " + path);
+            }
+            if (header.getShort(4) != VERSION) {
+                throw new IOException("Unsupported index run version " + header.getShort(4) + ": " + path);
+            }
+            long entries = header.getLong(8);
+            long blocks = (entries + BLOCK_ENTRIES - 1) / BLOCK_ENTRIES;
+            long fenceOffset = HEADER_SIZE + entries * ENTRY_SIZE;
+            if (channel.size() != fenceOffset + blocks * Long.BYTES) {
+                throw new IOException("Index run size mismatch: " + path);
+            }
+            ByteBuffer fenceBuffer = ByteBuffer.allocate((int) (blocks * Long.BYTES));
+            read(channel, fenceBuffer, fenceOffset);
+            long[] fences = new long[(int) blocks];
+            fenceBuffer.flip().asLongBuffer().get(fences);
+            return new IndexRun(path, channel, header, fences);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    long getEntries() {
+        return entries;
+    }
+
+    long getBase() {
+        return base;
+    }
+
+    long getSequence() {
+        return sequence;
+    }
+
+    long getJournalEnd() {
+        return journalEnd;
+    }
+
+    /**
+     * Passes the values of the entries of the specified position to the sink,
+     * in the order they are stored.
+     */
+    void find(long key, ValueSink sink) throws IOException {
+        if (entries == 0 || key < fences[0] || key > lastKey) {
+            return;
+        }
+        int low = 0;
+        int high = fences.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (fences[middle] < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        // The block before the first block starting with the position may end with it.
+        int block = Math.max(low - 1, 0);
+        ByteBuffer buffer = ByteBuffer.allocate(BLOCK_SIZE);
+        for (; block < fences.length && fences[block] <= key; block++) {
+            long offset = HEADER_SIZE + (long) block * BLOCK_SIZE;
+            buffer.clear().limit((int) Math.min(BLOCK_SIZE, HEADER_SIZE + entries * ENTRY_SIZE - offset));
+            read(channel, buffer, offset);
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                long entryKey = buffer.getLong();
+                long value = buffer.getLong();
+                if (entryKey == key) {
+                    sink.accept(value);
+                } else if (entryKey > key) {
+                    return;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Writes a run of the specified entries. Each entry is a position shifted
+     * left by {@value #VALUE_INDEX_BITS} bits, combined with the index of its
+     * value, with the sign bit flipped, and the entries are already sorted.
+     */
+    static IndexRun write(Path path, long[] entries, long[] values, int size,
+                          long base, long sequence, long journalEnd) throws IOException {
+        long lastKey = size == 0 ? 0 : (entries[size - 1] ^ Long.MIN_VALUE) >>> VALUE_INDEX_BITS;
+        return write(path, size, base, sequence, journalEnd, lastKey, new EntrySource() {
+            private int index;
+
+            @Override
+            public boolean next(long[] entry) {
+                if (index == size) {
+                    return false;
+                }
+                long packed = entries[index++] ^ Long.MIN_VALUE;
+                entry[0] = packed >>> VALUE_INDEX_BITS;
+                entry[1] = values[(int) (packed & (1 << VALUE_INDEX_BITS) - 1)];
+                return true;
+            }
+        });
+    }
+
+    /**
+     * Merges the specified runs into a new run. The entries of the same position
+     * keep the order of the runs.
+     */
+    static IndexRun merge(Path path, List<IndexRun> runs, long sequence) throws IOException {
+        PriorityQueue<RunReader> queue = new PriorityQueue<>((a, b) -> a.key != b.key
+                ? Long.compare(a.key, b.key)
+                : Integer.compare(a.order, b.order));
+        long entries = 0;
+        long base = Long.MAX_VALUE;
+        long journalEnd = 0;
+        long lastKey = 0;
+        try {
+            for (int i = 0; i < runs.size(); i++) {
+                IndexRun run = runs.get(i);
+                entries += run.entries;
+                base = Math.min(base, run.base);
+                journalEnd = Math.max(journalEnd, run.journalEnd);
+                lastKey = Math.max(lastKey, run.lastKey);
+                RunReader reader = new RunReader(run, i);
+                if (reader.advance()) {
+                    queue.add(reader);
+                } else {
+                    reader.close();
+                }
+            }
+            return write(path, entries, base, sequence, journalEnd, lastKey, entry -> {
+                RunReader reader = queue.poll();
+                if (reader == null) {
+                    return false;
+                }
+                entry[0] = reader.key;
+                entry[1] = reader.value;
+                if (reader.advance()) {
+                    queue.add(reader);
+                } else {
+                    reader.close();
+                }
+                return true;
+            });
+        } finally {
+            for (RunReader reader : queue) {
+                reader.close();
+            }
+        }
+    }
+
+    private static IndexRun write(Path path, long entries, long base, long sequence, long journalEnd,
+                                  long lastKey, EntrySource source) throws IOException {
+        Path temp = Files.createTempFile(path.toAbsolutePath().getParent(), path.getFileName().toString(), ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(temp), STREAM_BUFFER_SIZE))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeShort(0);
+            out.writeLong(entries);
+            out.writeLong(base);
+            out.writeLong(sequence);
+            out.writeLong(journalEnd);
+            out.writeLong(lastKey);
+            out.write(new byte[HEADER_SIZE - out.size()]);
+            long[] fences = new long[(int) ((entries + BLOCK_ENTRIES - 1) / BLOCK_ENTRIES)];
+            long[] entry = new long[2];
+            long written = 0;
+            while (source.next(entry)) {
+                if (written % BLOCK_ENTRIES == 0) {
+                    fences[(int) (written / BLOCK_ENTRIES)] = entry[0];
+                }
+                out.writeLong(entry[0]);
+                out.writeLong(entry[1]);
+                written++;
+            }
+            if (written != entries) {
+                throw new IOException("Expected " + entries + " entries, got " + written);
+            }
+            for (long fence : fences) {
+                out.writeLong(fence);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return open(path);
+    }
+
+    private static void read(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException();
+            }
+        }
+    }
+
+    /**
+     * Receives the values of the entries found.
+     */
+    interface ValueSink {
+
+        void accept(long value);
+
+    }
+
+    private interface EntrySource {
+
+        boolean next(long[] entry) throws IOException;
+
+    }
+
+    /**
+     * Reads the entries of a run sequentially.
+     */
+    private static class RunReader implements Closeable {
+
+        private final DataInputStream in;
+        private final int order;
+        private long remaining;
+        private long key;
+        private long value;
+
+        RunReader(IndexRun run, int order) throws IOException {
+            FileChannel channel = FileChannel.open(run.path, StandardOpenOption.READ);
+            channel.position(HEADER_SIZE);
+            this.in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), STREAM_BUFFER_SIZE));
+            this.order = order;
+            this.remaining = run.entries;
+        }
+
+        boolean advance() throws IOException {
+            if (remaining == 0) {
+                return false;
+            }
+            remaining--;
+            key = in.readLong();
+            value = in.readLong();
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+}
@@ -0,0 +1,422 @@
+package rocktable.journal;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.function.ObjLongConsumer;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only file of recorded games.
+ *
+ * <p>The file starts with a header of {@value #HEADER_SIZE} bytes: the magic
+ * number {@code RTMJ} (4 bytes) and the format version (2 bytes), the rest
+ * of the header is zero. Every game is appended as a record, stored in
+ * big-endian byte order:</p>
+ * <ul>
+ *     <li>the id of the result of the game (8 bytes)</li>
+ *     <li>the start position, see {@link rocktable.state.Positions} (8 bytes)</li>
+ *     <li>the number of actions (2 bytes, unsigned)</li>
+ *     <li>the actions, see {@link Actions} (1 byte each)</li>
+ *     <li>the CRC-32 checksum of the preceding bytes of the record (4 bytes)</li>
+ * </ul>
+ * <p>A game of 100 turns takes about 500 bytes. The offset of every record is
+ * kept in memory in a primitive hash table, taking at most 32 bytes per game,
+ * so a game is read with a single positional read. A record
+ * left incomplete by a crash is truncated when the file is opened.</p>
+ *
+ * <p>Several processes may append to the same file. Opening the file and
+ * appending a game hold an exclusive lock of the file, so a record is only
+ * incomplete if its process crashed, and a game is always appended at the
+ * real end of the file, after reading the games appended by the other
+ * processes meanwhile. A process should open a file only once, as the lock
+ * is held by the process rather than by the {@code JournalFile}.</p>
+ */
+@Slf4j
+public class JournalFile implements Closeable {
+
+    /**
+     * The magic number at the start of every journal file.
+     */
+    public static final int MAGIC = 0x52544D4A;
+
+    /**
+     * The current version of the file format.
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * The size of the header in bytes.
+     */
+    public static final int HEADER_SIZE = 16;
+
+    /**
+     * The largest number of actions of a game.
+     */
+    public static final int MAX_ACTIONS = 0xFFFF;
+
+    private static final int RECORD_HEAD_SIZE = 2 * Long.BYTES + Short.BYTES;
+
+    private static final int CHECKSUM_SIZE = Integer.BYTES;
+
+    private static final int MAX_RECORD_SIZE = RECORD_HEAD_SIZE + MAX_ACTIONS + CHECKSUM_SIZE;
+
+    private static final int CHUNK_SIZE = 2 * MAX_RECORD_SIZE;
+
+    private final Path path;
+
+    private final FileChannel channel;
+
+    private final OffsetTable offsets = new OffsetTable();
+
+    private long end = HEADER_SIZE;
+
+    private JournalFile(Path path, FileChannel channel) {
+        this.path = path;
+        this.channel = channel;
+    }
+
+    /**
+     * Opens the specified journal file for reading and appending, creating it
+     * if it does not exist.
+     *
+     * @param path the path of the file
+     * @return the journal file
+     * @throws IOException if an I/O error occurs or the file is not a valid journal file
+     */
+    public static JournalFile open(Path path) throws IOException {
+        long start = System.nanoTime();
+        if (path.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+        }
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        JournalFile journal = new JournalFile(path, channel);
+        try (FileLock lock = channel.lock()) {
+            if (channel.size() == 0) {
+                journal.writeHeader();
+            } else {
+                journal.readHeader();
+                journal.scan();
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        log.debug("Journal {} with {} games opened in {} us", path, journal.offsets.size(),
+                (System.nanoTime() - start) / 1000);
+        return journal;
+    }
+
+    private void writeHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putShort((short) VERSION);
+        header.clear();
+        write(header, 0);
+        end = HEADER_SIZE;
+    }
+
+    private void readHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        if (!read(header, 0)) {
+            throw new IOException("Truncated journal header: " + path);
+        }
+        header.flip();
+        if (header.getInt() != MAGIC) {
+            throw new IOException("Not a journal file: " + path);
+        }
+        int version = header.getShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported journal version " + version + ": " + path);
+        }
+    }
+
+    /**
+     * Reads the records following {@link #end}, appended by this process
+     * before it was opened or by other processes, and truncates an
+     * incomplete record at the end of the file. The file must be locked.
+     */
+    private void scan() throws IOException {
+        long size = channel.size();
+        long offset = end;
+        ByteBuffer head = ByteBuffer.allocate(RECORD_HEAD_SIZE);
+        while (offset < size) {
+            head.clear();
+            if (!read(head, offset)) {
+                break;
+            }
+            long gameId = head.getLong(0);
+            int actionCount = Short.toUnsignedInt(head.getShort(2 * Long.BYTES));
+            ByteBuffer record = ByteBuffer.allocate(RECORD_HEAD_SIZE + actionCount + CHECKSUM_SIZE);
+            if (!read(record, offset) || !isValid(record)) {
+                break;
+            }
+            offsets.put(gameId, offset);
+            offset += record.capacity();
+        }
+        if (offset < size) {
+            log.warn("Truncating {} bytes of an incomplete record at the end of {}", size - offset, path);
+            channel.truncate(offset);
+        }
+        end = offset;
+    }
+
+    private static boolean isValid(ByteBuffer record) {
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), 0, record.capacity() - CHECKSUM_SIZE);
+        return (int) crc.getValue() == record.getInt(record.capacity() - CHECKSUM_SIZE);
+    }
+
+    /**
+     * Appends the specified game to the file. Appending a game with an id that
+     * is already in the file replaces the game.
+     *
+     * @param gameId the id of the result of the game
+     * @param startPosition the position where the game started
+     * @param actions the packed actions of the game
+     * @throws IOException if an I/O error occurs
+     * @throws IllegalArgumentException if the game has more than {@value #MAX_ACTIONS} actions
+     */
+    public synchronized void append(long gameId, long startPosition, byte[] actions) throws IOException {
+        if (actions.length > MAX_ACTIONS) {
+            throw new IllegalArgumentException("Too many actions: " + actions.length);
+        }
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEAD_SIZE + actions.length + CHECKSUM_SIZE);
+        record.putLong(gameId)
+                .putLong(startPosition)
+                .putShort((short) actions.length)
+                .put(actions);
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), 0, record.position());
+        record.putInt((int) crc.getValue());
+        record.flip();
+        try (FileLock lock = channel.lock()) {
+            // Afterwards the end is the size of the file.
+            scan();
+            try {
+                write(record, end);
+            } catch (IOException e) {
+                channel.truncate(end);
+                throw e;
+            }
+        }
+        offsets.put(gameId, end);
+        end += record.capacity();
+    }
+
+    /**
+     * Reads the specified game from the file.
+     *
+     * @param gameId the id of the result of the game
+     * @return an {@link Optional} object wrapping the replay of the game
+     * @throws IOException if an I/O error occurs or the record is corrupted
+     */
+    public Optional<Replay> read(long gameId) throws IOException {
+        long offset;
+        synchronized (this) {
+            offset = offsets.get(gameId);
+        }
+        if (offset == 0) {
+            return Optional.empty();
+        }
+        ByteBuffer head = ByteBuffer.allocate(RECORD_HEAD_SIZE);
+        if (!read(head, offset)) {
+            throw new IOException("Truncated record of game " + gameId + ": " + path);
+        }
+        int actionCount = Short.toUnsignedInt(head.getShort(2 * Long.BYTES));
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEAD_SIZE + actionCount + CHECKSUM_SIZE);
+        if (!read(record, offset) || !isValid(record)) {
+            throw new IOException("Corrupted record of game " + gameId + ": " + path);
+        }
+        byte[] actions = new byte[actionCount];
+        record.position(RECORD_HEAD_SIZE).get(actions);
+        return Optional.of(new Replay(gameId, record.getLong(Long.BYTES), actions));
+    }
+
+    /**
+     * Reads the games appended at or after the specified offset one by one, in
+     * the order they were appended. The file is read sequentially in large
+     * chunks, and only one game is kept in memory at a time.
+     *
+     * @param offset the offset of a record, e.g. a value returned by
+     *               {@link #getEnd()} earlier, or {@value #HEADER_SIZE} to read
+     *               every game
+     * @param action the action performed on the replay of every game and the
+     *               offset following its record
+     * @return the offset following the last game read
+     * @throws IOException if an I/O error occurs, a record is corrupted or the
+     *                     offset is beyond the end of the file
+     */
+    public long forEach(long offset, ObjLongConsumer<Replay> action) throws IOException {
+        long limit = getEnd();
+        if (offset > limit) {
+            throw new IOException("Offset " + offset + " beyond the end of " + path);
+        }
+        ByteBuffer chunk = ByteBuffer.allocate(CHUNK_SIZE);
+        long position = Math.max(offset, HEADER_SIZE);
+        while (position < limit) {
+            // The chunk holds the bytes of the file starting at position.
+            chunk.limit((int) Math.min(CHUNK_SIZE, limit - position));
+            if (!read(chunk, position)) {
+                throw new IOException("Truncated journal: " + path);
+            }
+            chunk.flip();
+            long chunkStart = position;
+            while (chunk.remaining() >= RECORD_HEAD_SIZE) {
+                int actionCount = Short.toUnsignedInt(chunk.getShort(chunk.position() + 2 * Long.BYTES));
+                int size = RECORD_HEAD_SIZE + actionCount + CHECKSUM_SIZE;
+                if (chunk.remaining() < size) {
+                    break;
+                }
+                ByteBuffer record = ByteBuffer.allocate(size);
+                record.put(chunk.array(), chunk.position(), size);
+                if (!isValid(record)) {
+                    throw new IOException("Corrupted record at offset " + position + ": " + path);
+                }
+                byte[] actions = new byte[actionCount];
+                record.position(RECORD_HEAD_SIZE).get(actions);
+                chunk.position(chunk.position() + size);
+                position += size;
+                action.accept(new Replay(record.getLong(0), record.getLong(Long.BYTES), actions), position);
+            }
+            if (position == chunkStart) {
+                throw new IOException("Corrupted record at offset " + position + ": " + path);
+            }
+            chunk.compact();
+        }
+        return position;
+    }
+
+    /**
+     * Returns the offset following the last game appended.
+     *
+     * @return the size of the file in bytes
+     */
+    public synchronized long getEnd() {
+        return end;
+    }
+
+    /**
+     * Returns the ids of the games in the file.
+     *
+     * @return a new array of the ids in no particular order
+     */
+    public synchronized long[] getGameIds() {
+        return offsets.keys();
+    }
+
+    /**
+     * Returns the number of games in the file.
+     *
+     * @return the number of games
+     */
+    public synchronized int size() {
+        return offsets.size();
+    }
+
+    /**
+     * Writes the appended games to the storage device and closes the file.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel.isOpen()) {
+            try {
+                channel.force(false);
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    private boolean read(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void write(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+
+    /**
+     * A hash table from the ids of the games to the offsets of their records.
+     * The offset of a record is never zero, so zero marks the empty slots.
+     */
+    private static class OffsetTable {
+
+        private long[] keys = new long[1024];
+        private long[] values = new long[1024];
+        private int size;
+
+        long get(long key) {
+            int mask = keys.length - 1;
+            for (int slot = hash(key) & mask; values[slot] != 0; slot = slot + 1 & mask) {
+                if (keys[slot] == key) {
+                    return values[slot];
+                }
+            }
+            return 0;
+        }
+
+        void put(long key, long value) {
+            if (2 * (size + 1) > keys.length) {
+                long[] oldKeys = keys;
+                long[] oldValues = values;
+                keys = new long[oldKeys.length * 2];
+                values = new long[oldValues.length * 2];
+                size = 0;
+                for (int i = 0; i < oldKeys.length; i++) {
+                    if (oldValues[i] != 0) {
+                        put(oldKeys[i], oldValues[i]);
+                    }
+                }
+            }
+            int mask = keys.length - 1;
+            int slot = hash(key) & mask;
+            while (values[slot] != 0 && keys[slot] != key) {
+                slot = slot + 1 & mask;
+            }
+            if (values[slot] == 0) {
+                size++;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+        }
+
+        int size() {
+            return size;
+        }
+
+        long[] keys() {
+            long[] result = new long[size];
+            int count = 0;
+            for (int i = 0; i < keys.length; i++) {
+                if (values[i] != 0) {
+                    result[count++] = keys[i];
+                }
+            }
+            return result;
+        }
+
+        private static int hash(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ h >>> 32);
+        }
+    }
+
+}
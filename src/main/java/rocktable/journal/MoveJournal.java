@@ -0,0 +1,147 @@
+package rocktable.journal;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * The journal of the games played, stored in a {@link JournalFile}, and the
+ * {@link PositionIndex} of the games.
+ *
+ * <p>The file can be selected with the {@value #PROPERTY} system property and
+ * is opened when it is first used. The index is stored in the directory next
+ * to the file with the {@code .index} suffix. It is only updated when it is
+ * {@link #getPositionIndex() requested}, e.g. by the {@link OpeningReport},
+ * with the games saved since its last update, so saving a game and closing
+ * the journal never wait for indexing.</p>
+ */
+@Slf4j
+@Singleton
+public class MoveJournal implements AutoCloseable {
+
+    /**
+     * The name of the system property selecting the journal file.
+     */
+    public static final String PROPERTY = "rocktable.journal";
+
+    private final Path path;
+
+    private JournalFile file;
+
+    private PositionIndex index;
+
+    private boolean closed;
+
+    /**
+     * Creates a {@code MoveJournal} stored in the file selected by the
+     * {@value #PROPERTY} system property, or in {@code ~/.rocktable/moves.rtmj}
+     * if the property is not set.
+     */
+    @Inject
+    public MoveJournal() {
+        this(Path.of(System.getProperty(PROPERTY,
+                Path.of(System.getProperty("user.home"), ".rocktable", "moves.rtmj").toString())));
+    }
+
+    /**
+     * Creates a {@code MoveJournal} stored in the specified file.
+     *
+     * @param path the path of the journal file
+     */
+    public MoveJournal(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Saves the specified game. Errors are logged and do not affect the caller.
+     *
+     * @param gameId the id of the result of the game
+     * @param startPosition the position where the game started
+     * @param actions the packed actions of the game
+     */
+    public synchronized void save(long gameId, long startPosition, byte[] actions) {
+        if (closed) {
+            log.error("The journal is closed, dropping the actions of game {}", gameId);
+            return;
+        }
+        try {
+            file().append(gameId, startPosition, actions);
+            log.debug("{} actions of game {} saved to the journal", actions.length, gameId);
+        } catch (IOException | RuntimeException e) {
+            log.error("The actions of game {} could not be saved", gameId, e);
+        }
+    }
+
+    /**
+     * Reads the specified game from the journal.
+     *
+     * @param gameId the id of the result of the game
+     * @return an {@link Optional} object wrapping the replay of the game
+     * @throws IOException if an I/O error occurs
+     */
+    public Optional<Replay> find(long gameId) throws IOException {
+        JournalFile journalFile;
+        synchronized (this) {
+            if (closed) {
+                throw new IOException("The journal is closed");
+            }
+            journalFile = file();
+        }
+        return journalFile.read(gameId);
+    }
+
+    /**
+     * Returns the index of the positions of the games in the journal, after
+     * indexing the games saved since the index was last updated.
+     *
+     * @return the index of the positions
+     * @throws IOException if an I/O error occurs
+     */
+    public synchronized PositionIndex getPositionIndex() throws IOException {
+        if (closed) {
+            throw new IOException("The journal is closed");
+        }
+        if (index == null) {
+            index = PositionIndex.open(path.resolveSibling(path.getFileName() + ".index"));
+        }
+        index.update(file());
+        return index;
+    }
+
+    private JournalFile file() throws IOException {
+        if (file == null) {
+            file = JournalFile.open(path);
+        }
+        return file;
+    }
+
+    /**
+     * Closes the journal file and the index.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (index != null) {
+            try {
+                index.close();
+            } catch (IOException e) {
+                log.error("The position index of {} could not be closed", path, e);
+            }
+        }
+        if (file != null) {
+            try {
+                file.close();
+            } catch (IOException e) {
+                log.error("The journal {} could not be closed", path, e);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,26 @@
+package rocktable.journal;
+
+import lombok.Value;
+
+/**
+ * An occurrence of a position in a recorded game, see {@link PositionIndex}.
+ */
+@Value
+public class Occurrence {
+
+    /**
+     * The id of the result of the game.
+     */
+    long gameId;
+
+    /**
+     * The number of turns played before the position.
+     */
+    int ply;
+
+    /**
+     * The index of the winner of the game.
+     */
+    int winner;
+
+}
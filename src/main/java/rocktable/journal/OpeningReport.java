@@ -0,0 +1,55 @@
+package rocktable.journal;
+
+import rocktable.state.BitboardRockTableState;
+import rocktable.state.Positions;
+import rocktable.state.TurnGenerator;
+import rocktable.state.Turns;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Locale;
+
+/**
+ * Prints how often the choice of each row wins as the first turn of the
+ * recorded games, using the {@link PositionIndex} of the journal.
+ */
+public class OpeningReport {
+
+    @SuppressWarnings("checkstyle:MissingJavadocMethod")
+    public static void main(String[] args) throws IOException {
+        try (MoveJournal journal = args.length > 0 ? new MoveJournal(Paths.get(args[0])) : new MoveJournal()) {
+            long start = System.nanoTime();
+            PositionIndex index = journal.getPositionIndex();
+            System.out.printf(Locale.ROOT, "Index of %d positions updated in %d ms%n",
+                    index.size(), (System.nanoTime() - start) / 1_000_000);
+
+            long initial = Positions.of(BitboardRockTableState.INITIAL_TABLE, 0, 0, 0);
+            start = System.nanoTime();
+            PositionStatistics statistics = index.getStatistics(initial);
+            System.out.printf(Locale.ROOT, "%d games from the initial position, the first player won %.1f%%"
+                            + " (%d us)%n", statistics.getGames(), 100 * statistics.getWinRatio(),
+                    (System.nanoTime() - start) / 1000);
+
+            int[] turns = new int[TurnGenerator.MAX_TURNS];
+            int count = TurnGenerator.generate(initial, turns);
+            long[] games = new long[5];
+            long[] wins = new long[5];
+            start = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                PositionStatistics next = index.getStatistics(Turns.play(initial, turns[i]));
+                games[Turns.row(turns[i])] += next.getGames();
+                // The player to move after the first turn is the opponent of the player choosing the row.
+                wins[Turns.row(turns[i])] += next.getGames() - next.getWins();
+            }
+            System.out.printf(Locale.ROOT, "%d positions after the first turn looked up in %d us%n",
+                    count, (System.nanoTime() - start) / 1000);
+            for (int row = 0; row < 5; row++) {
+                if (games[row] > 0) {
+                    System.out.printf(Locale.ROOT, "Row %d: %d games, won %.1f%%%n",
+                            row, games[row], 100.0 * wins[row] / games[row]);
+                }
+            }
+        }
+    }
+
+}
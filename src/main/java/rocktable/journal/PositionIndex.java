@@ -0,0 +1,373 @@
+package rocktable.journal;
+
+import lombok.extern.slf4j.Slf4j;
+import rocktable.state.Positions;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * An on-disk index of the positions of the games in a {@link JournalFile}.
+ *
+ * <p>The index maps every position reached at the start of a turn, packed as
+ * in {@link Positions}, to the games and the turns it occurred in. The packed
+ * position is already a unique key of the table, the rocks of the players and
+ * the player to move, so no hashing is needed.</p>
+ *
+ * <p>The index is a directory of runs, files of entries sorted by position.
+ * Every {@link #update(JournalFile) update} sorts the games appended to the
+ * journal since the previous update in memory and writes them as new runs,
+ * so the index is built incrementally without reading the indexed games
+ * again. Runs are merged in size tiers: the tier of a run is the base
+ * {@value #MERGE_FACTOR} logarithm of its number of entries, and every
+ * {@value #MERGE_FACTOR} adjacent runs of the same tier are merged into a
+ * run of the next tier, so an entry is rewritten once per tier rather than
+ * every time the runs are merged. When there are still more than
+ * {@value #MAX_RUNS} runs, the adjacent runs with the fewest entries are
+ * merged. A lookup reads about one block of every run, and only the first
+ * position of every block is kept in memory.</p>
+ *
+ * <p>The directory is locked while the index is open, so another process
+ * opening it fails instead of overwriting the runs.</p>
+ */
+@Slf4j
+public class PositionIndex implements Closeable {
+
+    /**
+     * The number of adjacent runs of the same tier merged at once.
+     */
+    public static final int MERGE_FACTOR = 4;
+
+    /**
+     * The largest number of runs kept before the smallest ones are merged
+     * regardless of their tiers.
+     */
+    public static final int MAX_RUNS = 16;
+
+    /**
+     * The largest number of entries sorted in memory at once, at most
+     * 2<sup>28</sup>, see {@link #entries}.
+     */
+    public static final int MEMTABLE_ENTRIES = 1 << 20;
+
+    private static final String RUN_SUFFIX = ".rtpi";
+
+    private static final String LOCK_FILE = "lock";
+
+    private final Path directory;
+
+    private final FileChannel lockChannel;
+
+    private final List<IndexRun> runs;
+
+    /**
+     * The positions to be written, each shifted left and combined with the
+     * index of its value, so sorting the entries keeps the values of a
+     * position in the order they were added. The sign bit is flipped, so the
+     * entries are sorted as unsigned values.
+     */
+    private long[] entries;
+
+    private long[] values;
+
+    private PositionIndex(Path directory, FileChannel lockChannel, List<IndexRun> runs) {
+        this.directory = directory;
+        this.lockChannel = lockChannel;
+        this.runs = runs;
+    }
+
+    /**
+     * Opens the index stored in the specified directory, creating the directory
+     * if it does not exist.
+     *
+     * @param directory the directory of the index
+     * @return the index
+     * @throws IOException if an I/O error occurs, a run is not valid, or the
+     *                     index is open in another process or another
+     *                     {@code PositionIndex}
+     */
+    public static PositionIndex open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        FileChannel lockChannel = FileChannel.open(directory.resolve(LOCK_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        List<IndexRun> runs = new ArrayList<>();
+        try {
+            FileLock lock;
+            try {
+                lock = lockChannel.tryLock();
+            } catch (OverlappingFileLockException e) {
+                lock = null;
+            }
+            if (lock == null) {
+                throw new IOException("The position index is already open: " + directory);
+            }
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + RUN_SUFFIX)) {
+                for (Path file : files) {
+                    runs.add(IndexRun.open(file));
+                }
+            }
+            runs.sort(Comparator.comparingLong(IndexRun::getSequence).thenComparingLong(IndexRun::getBase));
+            // A merge may have been interrupted before the merged runs were deleted.
+            List<IndexRun> merged = new ArrayList<>();
+            for (IndexRun run : runs) {
+                if (runs.stream().anyMatch(other -> other != run && other.getBase() <= run.getBase()
+                        && run.getSequence() <= other.getSequence())) {
+                    merged.add(run);
+                }
+            }
+            for (IndexRun run : merged) {
+                runs.remove(run);
+                run.close();
+                Files.deleteIfExists(run.getPath());
+            }
+        } catch (IOException | RuntimeException e) {
+            for (IndexRun run : runs) {
+                run.close();
+            }
+            lockChannel.close();
+            throw e;
+        }
+        PositionIndex index = new PositionIndex(directory, lockChannel, runs);
+        log.debug("Position index {} with {} runs opened", directory, runs.size());
+        return index;
+    }
+
+    /**
+     * Returns the offset of the journal up to which the games are indexed.
+     *
+     * @return the offset following the last game indexed, or {@code 0} if the
+     * index is empty
+     */
+    public synchronized long getJournalEnd() {
+        return runs.stream().mapToLong(IndexRun::getJournalEnd).max().orElse(0);
+    }
+
+    /**
+     * Returns the number of entries of the index.
+     *
+     * @return the number of positions indexed, counting every occurrence
+     */
+    public synchronized long size() {
+        return runs.stream().mapToLong(IndexRun::getEntries).sum();
+    }
+
+    /**
+     * Indexes the games appended to the journal since the previous update.
+     *
+     * @param journal the journal of the games
+     * @return the number of games indexed
+     * @throws IOException if an I/O error occurs, or the journal is shorter
+     *                     than the part already indexed
+     */
+    public synchronized int update(JournalFile journal) throws IOException {
+        long start = System.nanoTime();
+        int[] size = new int[1];
+        int[] games = new int[1];
+        long[] indexed = {getJournalEnd()};
+        try {
+            journal.forEach(indexed[0], (replay, next) -> {
+                if (entries == null) {
+                    // A game has fewer positions than its record has bytes.
+                    int capacity = (int) Math.min(MEMTABLE_ENTRIES, journal.getEnd() - indexed[0]);
+                    entries = new long[capacity];
+                    values = new long[capacity];
+                }
+                int turns = replay.getTurnCount();
+                if (size[0] + turns + 1 > entries.length) {
+                    flush(size[0], indexed[0]);
+                    size[0] = 0;
+                }
+                int winner = replay.getWinner();
+                for (int ply = 0; ply <= turns; ply++) {
+                    entries[size[0]] = (replay.getPosition(ply) << IndexRun.VALUE_INDEX_BITS | size[0]) ^ Long.MIN_VALUE;
+                    values[size[0]++] = IndexRun.value(replay.getGameId(), ply, winner);
+                }
+                indexed[0] = next;
+                games[0]++;
+            });
+            if (size[0] > 0) {
+                flush(size[0], indexed[0]);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            entries = null;
+            values = null;
+        }
+        compact();
+        log.debug("{} games indexed in {} ms", games[0], (System.nanoTime() - start) / 1_000_000);
+        return games[0];
+    }
+
+    private void flush(int size, long journalEnd) {
+        Arrays.sort(entries, 0, size);
+        long sequence = nextSequence();
+        try {
+            runs.add(IndexRun.write(runPath(sequence, sequence), entries, values, size, sequence, sequence, journalEnd));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns the tier of a run with the specified number of entries.
+     */
+    static int tier(long entries) {
+        int tier = 0;
+        for (long rest = entries; rest >= MERGE_FACTOR; rest /= MERGE_FACTOR) {
+            tier++;
+        }
+        return tier;
+    }
+
+    private void compact() throws IOException {
+        for (int from = mergeableRuns(); from >= 0; from = mergeableRuns()) {
+            merge(from, from + MERGE_FACTOR);
+        }
+    }
+
+    /**
+     * Returns the first of the {@value #MERGE_FACTOR} adjacent runs to be
+     * merged next, or {@code -1} if no runs are to be merged.
+     */
+    private int mergeableRuns() {
+        for (int from = 0; from + MERGE_FACTOR <= runs.size(); from++) {
+            int tier = tier(runs.get(from).getEntries());
+            int to = from + 1;
+            while (to < from + MERGE_FACTOR && tier(runs.get(to).getEntries()) == tier) {
+                to++;
+            }
+            if (to == from + MERGE_FACTOR) {
+                return from;
+            }
+        }
+        if (runs.size() <= MAX_RUNS) {
+            return -1;
+        }
+        int smallest = 0;
+        long smallestEntries = Long.MAX_VALUE;
+        for (int from = 0; from + MERGE_FACTOR <= runs.size(); from++) {
+            long entries = 0;
+            for (int i = from; i < from + MERGE_FACTOR; i++) {
+                entries += runs.get(i).getEntries();
+            }
+            if (entries < smallestEntries) {
+                smallest = from;
+                smallestEntries = entries;
+            }
+        }
+        return smallest;
+    }
+
+    /**
+     * Merges the adjacent runs from {@code from} to {@code to}, exclusive.
+     * The merged run takes the place and the last sequence number of the
+     * runs, so the runs keep the order of the games.
+     */
+    private void merge(int from, int to) throws IOException {
+        long start = System.nanoTime();
+        List<IndexRun> merging = runs.subList(from, to);
+        long base = merging.get(0).getBase();
+        long sequence = merging.get(merging.size() - 1).getSequence();
+        IndexRun merged = IndexRun.merge(runPath(base, sequence), merging, sequence);
+        for (IndexRun run : merging) {
+            run.close();
+            Files.delete(run.getPath());
+        }
+        merging.clear();
+        runs.add(from, merged);
+        log.debug("{} entries merged in {} ms", merged.getEntries(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private long nextSequence() {
+        return runs.stream().mapToLong(IndexRun::getSequence).max().orElse(0) + 1;
+    }
+
+    private Path runPath(long base, long sequence) {
+        return directory.resolve(String.format(Locale.ROOT, "run-%016d-%016d%s", base, sequence, RUN_SUFFIX));
+    }
+
+    /**
+     * Returns the occurrences of the specified position.
+     *
+     * @param position the packed position
+     * @return the list of occurrences in the order the games were indexed
+     * @throws IOException if an I/O error occurs
+     */
+    public synchronized List<Occurrence> find(long position) throws IOException {
+        List<Occurrence> occurrences = new ArrayList<>();
+        for (IndexRun run : runs) {
+            run.find(position, value -> occurrences.add(IndexRun.occurrence(value)));
+        }
+        return occurrences;
+    }
+
+    /**
+     * Returns the statistics of the specified position without creating an
+     * object for every occurrence.
+     *
+     * @param position the packed position
+     * @return the statistics of the position
+     * @throws IOException if an I/O error occurs
+     */
+    public synchronized PositionStatistics getStatistics(long position) throws IOException {
+        int player = Positions.activePlayer(position);
+        long[] counts = new long[3];
+        long[] lastGameId = {-1};
+        for (IndexRun run : runs) {
+            run.find(position, value -> {
+                counts[0]++;
+                Occurrence occurrence = IndexRun.occurrence(value);
+                // The occurrences of a game are stored next to each other, as every game is in a single run.
+                if (occurrence.getGameId() != lastGameId[0]) {
+                    lastGameId[0] = occurrence.getGameId();
+                    counts[1]++;
+                    if (occurrence.getWinner() == player) {
+                        counts[2]++;
+                    }
+                }
+            });
+        }
+        return new PositionStatistics(position, counts[0], counts[1], counts[2]);
+    }
+
+    /**
+     * Closes the files of the index and unlocks its directory.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        IOException failure = null;
+        for (IndexRun run : runs) {
+            try {
+                run.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        runs.clear();
+        try {
+            lockChannel.close();
+        } catch (IOException e) {
+            failure = e;
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+}
@@ -0,0 +1,40 @@
+package rocktable.journal;
+
+import lombok.Value;
+
+/**
+ * Statistics of a position over the recorded games, see {@link PositionIndex}.
+ */
+@Value
+public class PositionStatistics {
+
+    /**
+     * The packed position.
+     */
+    long position;
+
+    /**
+     * The number of times the position occurred.
+     */
+    long occurrences;
+
+    /**
+     * The number of games the position occurred in.
+     */
+    long games;
+
+    /**
+     * The number of games the player to move in the position won.
+     */
+    long wins;
+
+    /**
+     * Returns the ratio of the games won by the player to move in the position.
+     *
+     * @return the ratio of the games won, or {@code 0} if the position did not occur
+     */
+    public double getWinRatio() {
+        return games == 0 ? 0 : (double) wins / games;
+    }
+
+}
@@ -0,0 +1,221 @@
+package rocktable.journal;
+
+import rocktable.state.GameState;
+import rocktable.state.Positions;
+
+import java.util.Arrays;
+
+/**
+ * A {@link GameState} recording every successful action performed on another
+ * state.
+ *
+ * <p>Each action is appended as a single byte to an array, see {@link Actions},
+ * so recording neither allocates nor logs on the move path, apart from the
+ * occasional growth of the array. An action undone is removed from the
+ * recording, and recorded again when it is redone.</p>
+ */
+public class RecordingGameState implements GameState {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final GameState state;
+
+    private final long startPosition;
+
+    private byte[] actions = new byte[INITIAL_CAPACITY];
+
+    private int actionCount;
+
+    /**
+     * The number of actions recorded and the actions undone that can be redone.
+     */
+    private int redoLimit;
+
+    /**
+     * Creates a {@code RecordingGameState} recording the actions performed on
+     * the specified state.
+     *
+     * @param state a state at the start of a turn
+     * @throws IllegalStateException if the active player already chose a row in this turn
+     */
+    public RecordingGameState(GameState state) {
+        this.state = state;
+        this.startPosition = Positions.of(state);
+    }
+
+    /**
+     * Returns the position where the recording started.
+     *
+     * @return the packed position
+     */
+    public long getStartPosition() {
+        return startPosition;
+    }
+
+    /**
+     * Returns the number of actions recorded.
+     *
+     * @return the number of actions recorded
+     */
+    public int getActionCount() {
+        return actionCount;
+    }
+
+    /**
+     * Returns the actions recorded so far.
+     *
+     * @return a new array of the packed actions in the order they were performed
+     */
+    public byte[] getActions() {
+        return Arrays.copyOf(actions, actionCount);
+    }
+
+    private void record(int type, int argument) {
+        byte action = Actions.of(type, argument);
+        if (actionCount < redoLimit && actions[actionCount] == action) {
+            actionCount++;
+            return;
+        }
+        if (actionCount == actions.length) {
+            actions = Arrays.copyOf(actions, actionCount * 2);
+        }
+        actions[actionCount++] = action;
+        redoLimit = actionCount;
+    }
+
+    @Override
+    public int getActivePlayer() {
+        return state.getActivePlayer();
+    }
+
+    @Override
+    public int[] getRocks() {
+        return state.getRocks();
+    }
+
+    @Override
+    public int getChosenRow() {
+        return state.getChosenRow();
+    }
+
+    @Override
+    public boolean isRowChosen() {
+        return state.isRowChosen();
+    }
+
+    @Override
+    public boolean isPickedUp() {
+        return state.isPickedUp();
+    }
+
+    @Override
+    public int getLeftMostCol() {
+        return state.getLeftMostCol();
+    }
+
+    @Override
+    public int[][] getTable() {
+        return state.getTable();
+    }
+
+    @Override
+    public int getTableBits() {
+        return state.getTableBits();
+    }
+
+    @Override
+    public boolean isOccupied(int row, int col) {
+        return state.isOccupied(row, col);
+    }
+
+    @Override
+    public boolean isFinished() {
+        return state.isFinished();
+    }
+
+    @Override
+    public void setChosenRow(int n) {
+        state.setChosenRow(n);
+        record(Actions.CHOOSE_ROW, n);
+    }
+
+    @Override
+    public boolean isChoosableRow(int n) {
+        return state.isChoosableRow(n);
+    }
+
+    @Override
+    public boolean isPickupable(int n) {
+        return state.isPickupable(n);
+    }
+
+    @Override
+    public void pickupRock(int n) {
+        state.pickupRock(n);
+        record(Actions.PICKUP_ROCK, n);
+    }
+
+    @Override
+    public boolean isPlaceable(int n) {
+        return state.isPlaceable(n);
+    }
+
+    @Override
+    public void placeRock(int n) {
+        state.placeRock(n);
+        record(Actions.PLACE_ROCK, n);
+    }
+
+    @Override
+    public boolean canBeEnded() {
+        return state.canBeEnded();
+    }
+
+    @Override
+    public void endTurn() {
+        if (state.canBeEnded()) {
+            state.endTurn();
+            record(Actions.END_TURN, 0);
+        }
+    }
+
+    /**
+     * Checks whether there is a recorded action that can be undone. The
+     * actions performed before the recording started cannot be undone.
+     *
+     * @return {@code true} if an action is recorded, {@code false} otherwise
+     */
+    @Override
+    public boolean canUndo() {
+        return actionCount > 0;
+    }
+
+    @Override
+    public void undo() {
+        if (actionCount == 0) {
+            throw new IllegalStateException("There is no action to undo");
+        }
+        state.undo();
+        actionCount--;
+    }
+
+    @Override
+    public boolean canRedo() {
+        return actionCount < redoLimit && state.canRedo();
+    }
+
+    @Override
+    public void redo() {
+        if (!canRedo()) {
+            throw new IllegalStateException("There is no action to redo");
+        }
+        state.redo();
+        actionCount++;
+    }
+
+    @Override
+    public String toString() {
+        return state.toString();
+    }
+
+}
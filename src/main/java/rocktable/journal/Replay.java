@@ -0,0 +1,231 @@
+package rocktable.journal;
+
+import rocktable.state.BitboardRockTableState;
+import rocktable.state.GameState;
+import rocktable.state.Positions;
+
+import java.util.Arrays;
+
+/**
+ * The replay of a recorded game.
+ *
+ * <p>The actions are played once on the packed position when the replay is
+ * created, and the position at the start of every turn is kept. The position
+ * at the start of a turn is then returned in constant time, and the state
+ * after any action is reconstructed by playing only the actions of its own
+ * turn.</p>
+ */
+public class Replay {
+
+    private final long gameId;
+
+    private final long startPosition;
+
+    private final byte[] actions;
+
+    /**
+     * The index of the first action of each turn, and the index following the
+     * last completed turn.
+     */
+    private final int[] turnStarts;
+
+    /**
+     * The position at the start of each turn, and the position after the last
+     * completed turn.
+     */
+    private final long[] positions;
+
+    /**
+     * Creates a {@code Replay} of the specified game.
+     *
+     * @param gameId the id of the result of the game
+     * @param startPosition the position where the game started
+     * @param actions the packed actions of the game, see {@link Actions}
+     * @throws IllegalArgumentException if the actions cannot be played in
+     *                                  the start position
+     */
+    public Replay(long gameId, long startPosition, byte[] actions) {
+        this.gameId = gameId;
+        this.startPosition = startPosition;
+        this.actions = actions.clone();
+        // A turn consists of at least three actions: choosing a row, picking up a rock and ending the turn.
+        int[] starts = new int[actions.length / 3 + 1];
+        long[] reached = new long[actions.length / 3 + 1];
+        reached[0] = startPosition;
+        int turns = 0;
+        int table = Positions.table(startPosition);
+        int mover = Positions.moverRocks(startPosition);
+        int opponent = Positions.opponentRocks(startPosition);
+        int player = Positions.activePlayer(startPosition);
+        int row = -1;
+        // The left-most column where a rock was picked up in the turn, rocks may only be placed to the right of it.
+        int leftMostCol = 4;
+        boolean pickedUp = false;
+        for (int i = 0; i < actions.length; i++) {
+            int argument = Actions.argument(actions[i]);
+            switch (Actions.type(actions[i])) {
+                case Actions.CHOOSE_ROW:
+                    if (row >= 0 || argument > 4) {
+                        throw new IllegalArgumentException("Invalid action " + i + " of game " + gameId);
+                    }
+                    row = argument;
+                    break;
+                case Actions.PICKUP_ROCK:
+                    if (row < 0 || argument > 4 || (table & BitboardRockTableState.bit(row, argument)) == 0) {
+                        throw new IllegalArgumentException("Invalid action " + i + " of game " + gameId);
+                    }
+                    table &= ~BitboardRockTableState.bit(row, argument);
+                    mover++;
+                    leftMostCol = Math.min(leftMostCol, argument);
+                    pickedUp = true;
+                    break;
+                case Actions.PLACE_ROCK:
+                    if (row < 0 || argument > 4 || argument <= leftMostCol || mover == 0
+                            || (table & BitboardRockTableState.bit(row, argument)) != 0) {
+                        throw new IllegalArgumentException("Invalid action " + i + " of game " + gameId);
+                    }
+                    table |= BitboardRockTableState.bit(row, argument);
+                    mover--;
+                    break;
+                default:
+                    if (!pickedUp) {
+                        throw new IllegalArgumentException("Invalid action " + i + " of game " + gameId);
+                    }
+                    int rocks = mover;
+                    mover = opponent;
+                    opponent = rocks;
+                    player ^= 1;
+                    row = -1;
+                    leftMostCol = 4;
+                    pickedUp = false;
+                    turns++;
+                    starts[turns] = i + 1;
+                    reached[turns] = Positions.of(table, mover, opponent, player);
+            }
+        }
+        this.turnStarts = Arrays.copyOf(starts, turns + 1);
+        this.positions = Arrays.copyOf(reached, turns + 1);
+    }
+
+    /**
+     * Returns the id of the result of the game.
+     *
+     * @return the id of the result of the game
+     */
+    public long getGameId() {
+        return gameId;
+    }
+
+    /**
+     * Returns the position where the game started.
+     *
+     * @return the packed position
+     */
+    public long getStartPosition() {
+        return startPosition;
+    }
+
+    /**
+     * Returns the number of actions of the game.
+     *
+     * @return the number of actions
+     */
+    public int getActionCount() {
+        return actions.length;
+    }
+
+    /**
+     * Returns the specified action of the game.
+     *
+     * @param index the index of the action
+     * @return the packed action
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public byte getAction(int index) {
+        return actions[index];
+    }
+
+    /**
+     * Returns the actions of the game.
+     *
+     * @return a new array of the packed actions
+     */
+    public byte[] getActions() {
+        return actions.clone();
+    }
+
+    /**
+     * Returns the number of turns completed in the game.
+     *
+     * @return the number of completed turns
+     */
+    public int getTurnCount() {
+        return positions.length - 1;
+    }
+
+    /**
+     * Returns the index of the first action of the specified turn.
+     *
+     * @param turn the index of the turn, or the number of completed turns
+     * @return the index of the first action of the turn
+     * @throws IndexOutOfBoundsException if the turn is out of range
+     */
+    public int getTurnStart(int turn) {
+        return turnStarts[turn];
+    }
+
+    /**
+     * Returns the position at the start of the specified turn.
+     *
+     * @param turn the index of the turn, or the number of completed turns for
+     *             the position after the last completed turn
+     * @return the packed position
+     * @throws IndexOutOfBoundsException if the turn is out of range
+     */
+    public long getPosition(int turn) {
+        return positions[turn];
+    }
+
+    /**
+     * Checks whether the game was played until the table became empty.
+     *
+     * @return {@code true} if the game is finished, {@code false} if it was given up
+     */
+    public boolean isFinished() {
+        return Positions.isFinished(positions[positions.length - 1]);
+    }
+
+    /**
+     * Returns the winner of the game. The player to move wins a finished game,
+     * and the opponent of the player to move wins a game that was given up.
+     *
+     * @return {@code 0} if the first player won, {@code 1} otherwise
+     */
+    public int getWinner() {
+        int player = Positions.activePlayer(positions[positions.length - 1]);
+        return isFinished() ? player : player ^ 1;
+    }
+
+    /**
+     * Reconstructs the state of the game after the specified number of actions.
+     *
+     * @param actionCount the number of actions played
+     * @return a new state
+     * @throws IndexOutOfBoundsException if the number of actions is out of range
+     */
+    public GameState getState(int actionCount) {
+        if (actionCount < 0 || actionCount > actions.length) {
+            throw new IndexOutOfBoundsException(actionCount);
+        }
+        int turn = Arrays.binarySearch(turnStarts, actionCount);
+        if (turn < 0) {
+            turn = -turn - 2;
+        }
+        GameState state = Positions.toState(positions[turn]);
+        for (int i = turnStarts[turn]; i < actionCount; i++) {
+            Actions.apply(state, actions[i]);
+        }
+        return state;
+    }
+
+}
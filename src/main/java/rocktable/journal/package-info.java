@@ -0,0 +1,4 @@
+/**
+ * Provides the move journal and the replay of played Rock Table games.
+ */
+package rocktable.journal;
@@ -1,15 +1,35 @@
 package rocktable.results;
 
 import com.google.inject.persist.Transactional;
+import org.hibernate.Session;
+import org.hibernate.annotations.QueryHints;
 import util.jpa.GenericJpaDao;
 
+import javax.persistence.FlushModeType;
+import javax.persistence.TypedQuery;
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
- * DAO class for the {@link GameResult} entity.
+ * DAO class for the {@link GameResult} entity. The results of the queries are
+ * cached, and Hibernate invalidates them when a result is saved.
  */
 public class GameResultDao extends GenericJpaDao<GameResult> {
 
+    private static final String BEST_ORDER = " ORDER BY r.duration ASC, r.created DESC, r.id DESC";
+
+    /**
+     * The results following a key in {@link #BEST_ORDER}. The redundant lower
+     * bound of the duration lets the database seek the index instead of
+     * scanning the table for the disjunction.
+     */
+    private static final String AFTER = " WHERE r.duration >= :duration"
+            + " AND (r.duration > :duration OR (r.duration = :duration AND (r.created < :created"
+            + " OR (r.created = :created AND r.id < :id))))";
+
+    private static final String HIGH_SCORES = "SELECT NEW rocktable.results.HighScore(r.id, r.winner, r.duration, r.created)"
+            + " FROM GameResult r";
+
     @SuppressWarnings("checkstyle:MissingJavadocMethod")
     public GameResultDao() {
         super(GameResult.class);
@@ -25,9 +45,72 @@ public class GameResultDao extends GenericJpaDao<GameResult> {
      */
     @Transactional
     public List<GameResult> findBest(int n) {
-        return entityManager.createQuery("SELECT r FROM GameResult r ORDER BY r.duration ASC, r.created DESC", GameResult.class)
+        return getEntityManager().createQuery("SELECT r FROM GameResult r" + BEST_ORDER, GameResult.class)
                 .setMaxResults(n)
+                .setHint(QueryHints.CACHEABLE, true)
                 .getResultList();
     }
 
+    /**
+     * Returns the {@code n} best high scores with respect to the time spent for
+     * finishing the game. The rows are projected straight into immutable
+     * objects, so no entity instance is created or managed, and the query
+     * runs in a read-only transaction.
+     *
+     * @param n the maximum number of high scores to be returned
+     * @return the list of {@code n} best high scores
+     */
+    @Transactional
+    public List<HighScore> findBestScores(int n) {
+        return readOnly(() -> highScoreQuery(HIGH_SCORES + BEST_ORDER, n)
+                .getResultList());
+    }
+
+    /**
+     * Returns the {@code n} best high scores following the specified high score,
+     * located by their key instead of an offset, so every page costs the same
+     * regardless of how many high scores precede it. The rows are projected
+     * straight into immutable objects, and the query runs in a read-only
+     * transaction.
+     *
+     * @param last the last high score of the previous page
+     * @param n the maximum number of high scores to be returned
+     * @return the list of {@code n} best high scores following {@code last}
+     */
+    @Transactional
+    public List<HighScore> findBestScoresAfter(HighScore last, int n) {
+        return readOnly(() -> highScoreQuery(HIGH_SCORES + AFTER + BEST_ORDER, n)
+                .setParameter("duration", last.getDuration())
+                .setParameter("created", last.getCreated())
+                .setParameter("id", last.getId())
+                .getResultList());
+    }
+
+    /**
+     * Creates a cached query of high scores that does not flush the
+     * persistence context before running.
+     */
+    private TypedQuery<HighScore> highScoreQuery(String query, int n) {
+        return getEntityManager().createQuery(query, HighScore.class)
+                .setFlushMode(FlushModeType.COMMIT)
+                .setMaxResults(n)
+                .setHint(QueryHints.CACHEABLE, true);
+    }
+
+    /**
+     * Runs the specified work with the connection of the current transaction
+     * marked read-only, so the database can treat the transaction as a read.
+     * The pooled connections are read-write, so the connection is marked
+     * read-write again afterwards.
+     */
+    private <R> R readOnly(Supplier<R> work) {
+        Session session = getEntityManager().unwrap(Session.class);
+        session.doWork(connection -> connection.setReadOnly(true));
+        try {
+            return work.get();
+        } finally {
+            session.doWork(connection -> connection.setReadOnly(false));
+        }
+    }
+
 }
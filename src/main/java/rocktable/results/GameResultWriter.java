@@ -0,0 +1,267 @@
+package rocktable.results;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Saves game results in the background.
+ *
+ * <p>The results are put into a bounded queue and returned immediately, so the
+ * calling thread never waits for the database. A single writer thread takes
+ * the results from the queue and saves them in batches with
+ * {@link GameResultDao#persistAll(Iterable)}, each batch in a single
+ * transaction. The results still in the queue are saved when the writer is
+ * closed.</p>
+ */
+@Slf4j
+@Singleton
+public class GameResultWriter implements AutoCloseable {
+
+    /**
+     * The default capacity of the queue.
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    /**
+     * The default largest number of results saved in a single transaction.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 64;
+
+    private static final long CLOSE_TIMEOUT_MILLIS = 10_000;
+
+    private final GameResultDao gameResultDao;
+
+    private final BlockingQueue<Entry> queue;
+
+    private final int batchSize;
+
+    /**
+     * The entry waking up the writer thread when the writer is closed.
+     */
+    private final Entry wakeUp = new Entry(null);
+
+    private final Object lock = new Object();
+
+    private final List<Consumer<List<GameResult>>> listeners = new CopyOnWriteArrayList<>();
+
+    private Thread thread;
+
+    private volatile boolean closed;
+
+    private volatile CompletableFuture<GameResult> last = CompletableFuture.completedFuture(null);
+
+    private long flushes;
+    private long savedResults;
+    private long failedResults;
+    private long lastFlushMicros;
+    private long maxFlushMicros;
+    private long totalFlushMicros;
+
+    /**
+     * Creates a {@code GameResultWriter} with the default capacity and batch size.
+     *
+     * @param gameResultDao the DAO saving the results
+     */
+    @Inject
+    public GameResultWriter(GameResultDao gameResultDao) {
+        this(gameResultDao, DEFAULT_CAPACITY, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Creates a {@code GameResultWriter}.
+     *
+     * @param gameResultDao the DAO saving the results
+     * @param capacity the capacity of the queue
+     * @param batchSize the largest number of results saved in a single transaction
+     * @throws IllegalArgumentException if the capacity or the batch size is not positive
+     */
+    public GameResultWriter(GameResultDao gameResultDao, int capacity, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("The batch size must be positive");
+        }
+        this.gameResultDao = gameResultDao;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Puts the specified result into the queue without waiting.
+     *
+     * @param result the result to be saved
+     * @return a future completed with the result when it is saved, or
+     * completed exceptionally when it cannot be saved
+     */
+    public CompletableFuture<GameResult> submit(GameResult result) {
+        Entry entry = new Entry(result);
+        synchronized (lock) {
+            if (closed) {
+                entry.future.completeExceptionally(new IllegalStateException("The writer is closed"));
+            } else if (!queue.offer(entry)) {
+                log.error("The queue of game results is full, dropping {}", result);
+                entry.future.completeExceptionally(new IllegalStateException("The queue is full"));
+            } else {
+                last = entry.future;
+                if (thread == null) {
+                    thread = new Thread(this::run, "game-result-writer");
+                    thread.setDaemon(true);
+                    thread.start();
+                }
+            }
+        }
+        return entry.future;
+    }
+
+    /**
+     * Adds a listener notified on the writer thread with every batch of results
+     * saved, before the futures of the results are completed.
+     *
+     * @param listener the listener to be added
+     */
+    public void addListener(Consumer<List<GameResult>> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Returns a future completed when every result submitted before the call is
+     * saved or has failed.
+     *
+     * @return a future completed when the submitted results are processed
+     */
+    public CompletableFuture<Void> flushed() {
+        return last.handle((result, throwable) -> null);
+    }
+
+    /**
+     * Returns the number of results waiting in the queue.
+     *
+     * @return the number of results waiting in the queue
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * Returns the statistics of the writer.
+     *
+     * @return the statistics of the writer
+     */
+    public synchronized WriterStatistics getStatistics() {
+        return new WriterStatistics(queue.size(), flushes, savedResults, failedResults,
+                lastFlushMicros, maxFlushMicros, totalFlushMicros);
+    }
+
+    /**
+     * Stops accepting results and waits until the results in the queue are saved.
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        if (thread == null) {
+            return;
+        }
+        log.info("Saving {} queued game results...", queue.size());
+        // The queue is not empty if it is full, so the writer thread is not waiting then.
+        queue.offer(wakeUp);
+        try {
+            thread.join(CLOSE_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (thread.isAlive()) {
+            log.error("The game results could not be saved in {} ms", CLOSE_TIMEOUT_MILLIS);
+        }
+        // The writer thread may have finished before the wake-up entry was put into the queue.
+        queue.remove(wakeUp);
+        log.info("Game result writer closed, {}", getStatistics());
+    }
+
+    private void run() {
+        List<Entry> batch = new ArrayList<>(batchSize);
+        while (!closed || !queue.isEmpty()) {
+            try {
+                Entry first = closed ? queue.poll() : queue.take();
+                if (first != null && first != wakeUp) {
+                    batch.add(first);
+                }
+            } catch (InterruptedException e) {
+                log.error("The game result writer was interrupted", e);
+                return;
+            }
+            queue.drainTo(batch, batchSize - batch.size());
+            batch.remove(wakeUp);
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<Entry> batch) {
+        long start = System.nanoTime();
+        List<GameResult> results = new ArrayList<>(batch.size());
+        for (Entry entry : batch) {
+            results.add(entry.result);
+        }
+        Throwable failure = null;
+        try {
+            gameResultDao.persistAll(results);
+        } catch (RuntimeException e) {
+            log.error("Failed to save {} game results", results.size(), e);
+            failure = e;
+        }
+        long micros = (System.nanoTime() - start) / 1000;
+        synchronized (this) {
+            flushes++;
+            if (failure == null) {
+                savedResults += batch.size();
+            } else {
+                failedResults += batch.size();
+            }
+            lastFlushMicros = micros;
+            maxFlushMicros = Math.max(maxFlushMicros, micros);
+            totalFlushMicros += micros;
+        }
+        log.debug("Saved {} game results in {} us, {} still queued", results.size(), micros, queue.size());
+        if (failure == null) {
+            for (Consumer<List<GameResult>> listener : listeners) {
+                try {
+                    listener.accept(results);
+                } catch (RuntimeException e) {
+                    log.error("A listener of the saved game results failed", e);
+                }
+            }
+        }
+        for (Entry entry : batch) {
+            if (failure == null) {
+                entry.future.complete(entry.result);
+            } else {
+                entry.future.completeExceptionally(failure);
+            }
+        }
+    }
+
+    private static class Entry {
+
+        private final GameResult result;
+        private final CompletableFuture<GameResult> future = new CompletableFuture<>();
+
+        Entry(GameResult result) {
+            this.result = result;
+        }
+    }
+
+}
@@ -0,0 +1,44 @@
+package rocktable.results;
+
+import lombok.Value;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+
+/**
+ * An immutable view of a {@link GameResult} shown on the high score list.
+ */
+@Value
+public class HighScore {
+
+    /**
+     * The id of the result.
+     */
+    Long id;
+
+    /**
+     * The name of the winner.
+     */
+    String winner;
+
+    /**
+     * The duration of the game.
+     */
+    Duration duration;
+
+    /**
+     * The timestamp when the result was saved.
+     */
+    ZonedDateTime created;
+
+    /**
+     * Creates a {@code HighScore} from the specified result.
+     *
+     * @param result a saved result
+     * @return the high score of the result
+     */
+    public static HighScore of(GameResult result) {
+        return new HighScore(result.getId(), result.getWinner(), result.getDuration(), result.getCreated());
+    }
+
+}
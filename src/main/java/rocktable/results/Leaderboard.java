@@ -0,0 +1,149 @@
+package rocktable.results;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * The best game results kept in memory.
+ *
+ * <p>The leaderboard is loaded from the database once, then every result saved
+ * by the {@link GameResultWriter} is merged into it, keeping only the best
+ * {@link #getCapacity() capacity} results. Readers get immutable snapshots
+ * of {@link HighScore} projections, replaced as a whole on every change, so
+ * reading never locks and never queries the database after the initial
+ * load.</p>
+ */
+@Slf4j
+@Singleton
+public class Leaderboard {
+
+    /**
+     * The default number of results kept.
+     */
+    public static final int DEFAULT_CAPACITY = 10;
+
+    /**
+     * The order of the results, the same as of {@link GameResultDao#findBestScores(int)}.
+     */
+    public static final Comparator<HighScore> ORDER = Comparator
+            .comparing(HighScore::getDuration)
+            .thenComparing(HighScore::getCreated, Comparator.reverseOrder())
+            .thenComparing(HighScore::getId, Comparator.nullsLast(Comparator.reverseOrder()));
+
+    private final GameResultDao gameResultDao;
+
+    private final int capacity;
+
+    private volatile List<HighScore> snapshot = List.of();
+
+    private CompletableFuture<List<HighScore>> loaded;
+
+    /**
+     * Creates a {@code Leaderboard} with the default capacity, updated by the
+     * specified writer.
+     *
+     * @param gameResultDao the DAO loading the results
+     * @param gameResultWriter the writer whose saved results are merged
+     */
+    @Inject
+    public Leaderboard(GameResultDao gameResultDao, GameResultWriter gameResultWriter) {
+        this(gameResultDao, DEFAULT_CAPACITY);
+        gameResultWriter.addListener(results -> addAll(results.stream()
+                .map(HighScore::of)
+                .collect(Collectors.toList())));
+    }
+
+    /**
+     * Creates a {@code Leaderboard}.
+     *
+     * @param gameResultDao the DAO loading the results
+     * @param capacity the number of results kept
+     * @throws IllegalArgumentException if the capacity is not positive
+     */
+    public Leaderboard(GameResultDao gameResultDao, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The capacity must be positive");
+        }
+        this.gameResultDao = gameResultDao;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Returns the number of results kept.
+     *
+     * @return the number of results kept
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the current snapshot of the best results, which may be incomplete
+     * until the leaderboard is loaded.
+     *
+     * @return an unmodifiable list of the best high scores in ascending order
+     * of their duration
+     */
+    public List<HighScore> getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Loads the leaderboard from the database in the background, unless it is
+     * already loaded or being loaded.
+     *
+     * @return a future completed with the snapshot when the leaderboard is loaded
+     */
+    public synchronized CompletableFuture<List<HighScore>> load() {
+        if (loaded == null || loaded.isCompletedExceptionally()) {
+            loaded = CompletableFuture.supplyAsync(() -> {
+                long start = System.nanoTime();
+                List<HighScore> best = gameResultDao.findBestScores(capacity);
+                log.debug("Leaderboard loaded in {} us", (System.nanoTime() - start) / 1000);
+                addAll(best);
+                return snapshot;
+            });
+        }
+        return loaded.thenApply(ignored -> snapshot);
+    }
+
+    /**
+     * Merges the specified high scores into the leaderboard.
+     *
+     * @param results the high scores to be merged
+     */
+    public synchronized void addAll(List<HighScore> results) {
+        List<HighScore> current = snapshot;
+        List<HighScore> next = null;
+        for (HighScore result : results) {
+            List<HighScore> list = next == null ? current : next;
+            if (list.size() == capacity && ORDER.compare(result, list.get(capacity - 1)) >= 0) {
+                continue;
+            }
+            if (result.getId() != null && list.stream().anyMatch(r -> Objects.equals(r.getId(), result.getId()))) {
+                continue;
+            }
+            if (next == null) {
+                next = new ArrayList<>(current);
+            }
+            int index = Collections.binarySearch(next, result, ORDER);
+            next.add(index < 0 ? -index - 1 : index, result);
+            if (next.size() > capacity) {
+                next.remove(capacity);
+            }
+        }
+        if (next != null) {
+            snapshot = List.copyOf(next);
+        }
+    }
+
+}
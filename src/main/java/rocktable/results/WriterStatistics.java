@@ -0,0 +1,55 @@
+package rocktable.results;
+
+import lombok.Value;
+
+/**
+ * Statistics of a {@link GameResultWriter}.
+ */
+@Value
+public class WriterStatistics {
+
+    /**
+     * The number of results waiting in the queue.
+     */
+    int queueDepth;
+
+    /**
+     * The number of batches written.
+     */
+    long flushes;
+
+    /**
+     * The number of results saved.
+     */
+    long savedResults;
+
+    /**
+     * The number of results that could not be saved.
+     */
+    long failedResults;
+
+    /**
+     * The time spent on writing the last batch in microseconds.
+     */
+    long lastFlushMicros;
+
+    /**
+     * The longest time spent on writing a batch in microseconds.
+     */
+    long maxFlushMicros;
+
+    /**
+     * The time spent on writing all the batches in microseconds.
+     */
+    long totalFlushMicros;
+
+    /**
+     * Returns the average time spent on writing a batch in microseconds.
+     *
+     * @return the average latency of a flush
+     */
+    public long getAverageFlushMicros() {
+        return flushes == 0 ? 0 : totalFlushMicros / flushes;
+    }
+
+}
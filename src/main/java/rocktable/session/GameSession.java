@@ -0,0 +1,118 @@
+package rocktable.session;
+
+import rocktable.state.GameState;
+
+import java.util.function.Function;
+
+/**
+ * A game hosted by a {@link SessionManager}.
+ *
+ * <p>The state of the game is confined to the session: it is only reached
+ * through {@link #apply(Function)}, which runs the actions of a thread while
+ * holding the lock of the session, so the actions on a session are
+ * serialized while the actions on different sessions never wait for each
+ * other. After every action the session publishes an immutable
+ * {@link GameSnapshot}, so readers never take the lock.</p>
+ */
+public final class GameSession {
+
+    private final long id;
+
+    private final GameState state;
+
+    private long version;
+
+    private boolean closed;
+
+    private volatile GameSnapshot snapshot;
+
+    private volatile long lastAccessNanos;
+
+    GameSession(long id, GameState state) {
+        this.id = id;
+        this.state = state;
+        this.snapshot = GameSnapshot.of(id, 0, state);
+        this.lastAccessNanos = System.nanoTime();
+    }
+
+    /**
+     * Returns the id of the session.
+     *
+     * @return the id of the session
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Returns the snapshot of the state after the last action, without
+     * waiting for an action in progress.
+     *
+     * @return the snapshot of the state
+     */
+    public GameSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Performs actions on the state of the session, while no other thread
+     * performs actions on it. The function must not keep a reference to the
+     * state. The snapshot is replaced even if the function throws an
+     * exception, as the actions performed before it still change the state.
+     *
+     * @param actions the function performing the actions
+     * @param <T> the type of the result of the function
+     * @return the result of the function
+     * @throws IllegalStateException if the session is closed
+     */
+    public <T> T apply(Function<? super GameState, T> actions) {
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("The session " + id + " is closed");
+            }
+            lastAccessNanos = System.nanoTime();
+            try {
+                return actions.apply(state);
+            } finally {
+                snapshot = GameSnapshot.of(id, ++version, state);
+            }
+        }
+    }
+
+    /**
+     * Returns whether the session is closed.
+     *
+     * @return whether the session is closed
+     */
+    public synchronized boolean isClosed() {
+        return closed;
+    }
+
+    long getLastAccessNanos() {
+        return lastAccessNanos;
+    }
+
+    /**
+     * Closes the session if its last action was performed before the
+     * specified time. An action in progress finishes first.
+     *
+     * @param deadlineNanos the time in {@link System#nanoTime()} units
+     * @return whether the session was closed by this call
+     */
+    synchronized boolean closeIfIdleSince(long deadlineNanos) {
+        if (closed || lastAccessNanos - deadlineNanos >= 0) {
+            return false;
+        }
+        closed = true;
+        return true;
+    }
+
+    synchronized boolean close() {
+        if (closed) {
+            return false;
+        }
+        closed = true;
+        return true;
+    }
+
+}
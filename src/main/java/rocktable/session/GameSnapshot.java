@@ -0,0 +1,96 @@
+package rocktable.session;
+
+import lombok.Value;
+import rocktable.state.GameState;
+import rocktable.state.Positions;
+
+/**
+ * An immutable view of the state of a {@link GameSession} after an action.
+ *
+ * <p>The table, the rocks and the player to move are kept packed as in
+ * {@link Positions}, so a snapshot is a few words whatever the implementation
+ * of the state is.</p>
+ */
+@Value
+public class GameSnapshot {
+
+    /**
+     * The id of the session.
+     */
+    long sessionId;
+
+    /**
+     * The number of actions performed on the session before the snapshot.
+     */
+    long version;
+
+    /**
+     * The packed table, the rocks and the player to move.
+     */
+    long position;
+
+    /**
+     * The row chosen in the current turn, or {@code -1}.
+     */
+    int chosenRow;
+
+    /**
+     * Whether a rock was picked up in the current turn.
+     */
+    boolean pickedUp;
+
+    /**
+     * The left-most column a rock can be placed in the current turn.
+     */
+    int leftMostCol;
+
+    /**
+     * Whether the game is over.
+     */
+    boolean finished;
+
+    /**
+     * Creates the snapshot of the specified state.
+     *
+     * @param sessionId the id of the session
+     * @param version the number of actions performed on the session
+     * @param state the state of the session
+     * @return the snapshot of the state
+     */
+    static GameSnapshot of(long sessionId, long version, GameState state) {
+        int player = state.getActivePlayer();
+        int[] rocks = state.getRocks();
+        return new GameSnapshot(sessionId, version,
+                Positions.of(state.getTableBits(), rocks[player], rocks[player ^ 1], player),
+                state.getChosenRow(), state.isPickedUp(), state.getLeftMostCol(), state.isFinished());
+    }
+
+    /**
+     * Returns the packed table.
+     *
+     * @return the bits of the table, see {@link Positions#table(long)}
+     */
+    public int getTable() {
+        return Positions.table(position);
+    }
+
+    /**
+     * Returns the index of the player to move.
+     *
+     * @return the index of the player to move
+     */
+    public int getActivePlayer() {
+        return Positions.activePlayer(position);
+    }
+
+    /**
+     * Returns the amount of rocks the specified player has.
+     *
+     * @param player the index of the player
+     * @return the amount of rocks of the player
+     */
+    public int getRocks(int player) {
+        return player == getActivePlayer() ? Positions.moverRocks(position) : Positions.opponentRocks(position);
+    }
+
+}
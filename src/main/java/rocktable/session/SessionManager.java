@@ -0,0 +1,293 @@
+package rocktable.session;
+
+import lombok.extern.slf4j.Slf4j;
+import rocktable.state.GameFactory;
+import rocktable.state.GameState;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+/**
+ * Hosts any number of concurrent games in the process.
+ *
+ * <p>Every game is a {@link GameSession} with an id of its own, created by a
+ * shared {@link GameFactory}. The sessions are kept in an array of slots, and
+ * the low 32 bits of an id are the slot of the session, so finding a session
+ * is a single array read without hashing or boxing the id. The high 32 bits
+ * are a sequence number, so the id of a removed session is never reused even
+ * though its slot is. Creating and removing sessions is serialized by a lock,
+ * while finding them never locks, and an action only locks the session it is
+ * performed on, so the cost of an action does not depend on the number of
+ * sessions.</p>
+ *
+ * <p>The sessions without actions for the idle timeout are closed and removed
+ * by a background thread, which checks the sessions every half timeout.</p>
+ */
+@Slf4j
+public class SessionManager implements AutoCloseable {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final GameFactory factory;
+
+    private final long idleTimeoutNanos;
+
+    private final Object lock = new Object();
+
+    /**
+     * The sessions by their slots, replaced by a larger copy when every slot
+     * is taken.
+     */
+    private volatile AtomicReferenceArray<GameSession> slots = new AtomicReferenceArray<>(INITIAL_CAPACITY);
+
+    /**
+     * The free slots below {@link #used}, guarded by {@link #lock}.
+     */
+    private int[] freeSlots = new int[INITIAL_CAPACITY];
+
+    private int freeCount;
+
+    /**
+     * The number of slots ever taken, guarded by {@link #lock}.
+     */
+    private int used;
+
+    private volatile int size;
+
+    private long nextSequence = 1;
+
+    private final ScheduledExecutorService evictor;
+
+    /**
+     * Creates a {@code SessionManager}.
+     *
+     * @param factory the factory of the games
+     * @param idleTimeout the time after the last action a session is closed
+     * @throws IllegalArgumentException if the idle timeout is not positive
+     */
+    public SessionManager(GameFactory factory, Duration idleTimeout) {
+        if (idleTimeout.isNegative() || idleTimeout.isZero()) {
+            throw new IllegalArgumentException("The idle timeout must be positive");
+        }
+        this.factory = factory;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1, idleTimeoutNanos / 2);
+        evictor.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Starts a new game.
+     *
+     * @return the session of the game
+     * @throws IllegalStateException if the manager is closed
+     */
+    public GameSession create() {
+        GameState state = factory.newGame();
+        synchronized (lock) {
+            if (evictor.isShutdown()) {
+                throw new IllegalStateException("The session manager is closed");
+            }
+            AtomicReferenceArray<GameSession> current = slots;
+            int slot;
+            if (freeCount > 0) {
+                slot = freeSlots[--freeCount];
+            } else {
+                if (used == current.length()) {
+                    AtomicReferenceArray<GameSession> larger = new AtomicReferenceArray<>(used * 2);
+                    for (int i = 0; i < used; i++) {
+                        larger.set(i, current.get(i));
+                    }
+                    slots = larger;
+                    current = larger;
+                }
+                slot = used++;
+            }
+            GameSession session = new GameSession(nextSequence++ << 32 | slot, state);
+            current.set(slot, session);
+            size++;
+            return session;
+        }
+    }
+
+    private GameSession get(long id) {
+        AtomicReferenceArray<GameSession> current = slots;
+        int slot = (int) id;
+        if (slot < 0 || slot >= current.length()) {
+            return null;
+        }
+        GameSession session = current.get(slot);
+        return session != null && session.getId() == id ? session : null;
+    }
+
+    /**
+     * Frees the slot of the specified session, unless another session took
+     * it meanwhile.
+     */
+    private boolean release(GameSession session) {
+        synchronized (lock) {
+            int slot = (int) session.getId();
+            AtomicReferenceArray<GameSession> current = slots;
+            if (current.get(slot) != session) {
+                return false;
+            }
+            current.set(slot, null);
+            if (freeCount == freeSlots.length) {
+                freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+            }
+            freeSlots[freeCount++] = slot;
+            size--;
+            return true;
+        }
+    }
+
+    /**
+     * Returns the session with the specified id.
+     *
+     * @param id the id of the session
+     * @return an {@link Optional} object wrapping the session, empty if there
+     * is no such session
+     */
+    public Optional<GameSession> find(long id) {
+        return Optional.ofNullable(get(id));
+    }
+
+    /**
+     * Performs actions on the state of the session with the specified id, see
+     * {@link GameSession#apply(Function)}.
+     *
+     * @param id the id of the session
+     * @param actions the function performing the actions
+     * @param <T> the type of the result of the function
+     * @return the result of the function
+     * @throws NoSuchElementException if there is no session with the id
+     * @throws IllegalStateException if the session is closed meanwhile
+     */
+    public <T> T apply(long id, Function<? super GameState, T> actions) {
+        GameSession session = get(id);
+        if (session == null) {
+            throw new NoSuchElementException("There is no session " + id);
+        }
+        return session.apply(actions);
+    }
+
+    /**
+     * Returns the snapshot of the session with the specified id.
+     *
+     * @param id the id of the session
+     * @return an {@link Optional} object wrapping the snapshot of the session,
+     * empty if there is no such session
+     */
+    public Optional<GameSnapshot> getSnapshot(long id) {
+        GameSession session = get(id);
+        return session == null ? Optional.empty() : Optional.of(session.getSnapshot());
+    }
+
+    /**
+     * Returns the snapshots of every session, without waiting for the actions
+     * in progress.
+     *
+     * @return the list of snapshots in no particular order
+     */
+    public List<GameSnapshot> getSnapshots() {
+        AtomicReferenceArray<GameSession> current = slots;
+        List<GameSnapshot> snapshots = new ArrayList<>(size);
+        for (int slot = 0; slot < current.length(); slot++) {
+            GameSession session = current.get(slot);
+            if (session != null) {
+                snapshots.add(session.getSnapshot());
+            }
+        }
+        return snapshots;
+    }
+
+    /**
+     * Returns the number of sessions.
+     *
+     * @return the number of sessions
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Closes and removes the session with the specified id.
+     *
+     * @param id the id of the session
+     * @return whether the session was removed
+     */
+    public boolean remove(long id) {
+        GameSession session = get(id);
+        return session != null && release(session) && session.close();
+    }
+
+    /**
+     * Closes and removes the sessions without actions for the idle timeout.
+     *
+     * @return the number of sessions removed
+     */
+    public int evictIdle() {
+        return evictIdleBefore(System.nanoTime() - idleTimeoutNanos);
+    }
+
+    /**
+     * Closes and removes the sessions whose last action was performed before
+     * the specified time.
+     *
+     * @param deadlineNanos the time in {@link System#nanoTime()} units
+     * @return the number of sessions removed
+     */
+    int evictIdleBefore(long deadlineNanos) {
+        long start = System.nanoTime();
+        int evicted = 0;
+        AtomicReferenceArray<GameSession> current = slots;
+        for (int slot = 0; slot < current.length(); slot++) {
+            GameSession session = current.get(slot);
+            // Only the sessions that look idle are locked.
+            if (session != null && session.getLastAccessNanos() - deadlineNanos < 0
+                    && session.closeIfIdleSince(deadlineNanos)) {
+                release(session);
+                evicted++;
+            }
+        }
+        if (evicted > 0) {
+            log.debug("{} idle sessions evicted in {} us, {} sessions left",
+                    evicted, (System.nanoTime() - start) / 1000, size);
+        }
+        return evicted;
+    }
+
+    /**
+     * Stops the eviction, then closes and removes every session.
+     */
+    @Override
+    public void close() {
+        evictor.shutdownNow();
+        synchronized (lock) {
+            AtomicReferenceArray<GameSession> current = slots;
+            for (int slot = 0; slot < used; slot++) {
+                GameSession session = current.getAndSet(slot, null);
+                if (session != null) {
+                    session.close();
+                }
+            }
+            used = 0;
+            freeCount = 0;
+            size = 0;
+        }
+    }
+
+}
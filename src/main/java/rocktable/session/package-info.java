@@ -0,0 +1,4 @@
+/**
+ * Provides the hosting of many concurrent games in a single process.
+ */
+package rocktable.session;
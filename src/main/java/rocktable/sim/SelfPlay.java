@@ -0,0 +1,188 @@
+package rocktable.sim;
+
+import lombok.extern.slf4j.Slf4j;
+import rocktable.ai.ComputerPlayer;
+import rocktable.state.BitboardRockTableState;
+import rocktable.state.Positions;
+import rocktable.state.Turns;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Plays batches of games between computer players without a user interface.
+ *
+ * <p>The games are split into chunks played by a pool of worker threads. Every
+ * chunk and every game gets its own generator split from a single seeded
+ * {@link SplittableRandom} in a fixed order, so the outcome of a batch with
+ * randomized strategies only depends on the seed, not on the scheduling of
+ * the workers. The games are played on packed positions, bypassing the
+ * per-action logging of {@link rocktable.state.RockTableState}.</p>
+ */
+@Slf4j
+public class SelfPlay {
+
+    private static final int CHUNK_SIZE = 256;
+
+    private final Strategy first;
+    private final Strategy second;
+    private final long budgetMillis;
+
+    /**
+     * Creates a {@code SelfPlay} object.
+     *
+     * @param first the strategy of the first player
+     * @param second the strategy of the second player
+     * @param budgetMillis the time budget of a turn in milliseconds for the
+     *                     strategies that search
+     */
+    public SelfPlay(Strategy first, Strategy second, long budgetMillis) {
+        this.first = first;
+        this.second = second;
+        this.budgetMillis = budgetMillis;
+    }
+
+    /**
+     * Plays the specified number of games starting from the initial position.
+     *
+     * @param games the number of games to be played
+     * @param threads the number of worker threads
+     * @param seed the seed of the random generators
+     * @return the report of the games
+     * @throws InterruptedException if the current thread is interrupted while waiting
+     */
+    public SimulationReport run(long games, int threads, long seed) throws InterruptedException {
+        log.info("Playing {} games of {} against {} on {} threads...", games, first, second, threads);
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Callable<long[]>> chunks = new ArrayList<>();
+        for (long from = 0; from < games; from += CHUNK_SIZE) {
+            int size = (int) Math.min(CHUNK_SIZE, games - from);
+            SplittableRandom chunkRandom = random.split();
+            chunks.add(() -> playChunk(size, chunkRandom));
+        }
+
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "self-play");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long wins = 0;
+        long turns = 0;
+        long shortest = Integer.MAX_VALUE;
+        long longest = 0;
+        try {
+            for (Future<long[]> future : executor.invokeAll(chunks)) {
+                long[] result = future.get();
+                wins += result[0];
+                turns += result[1];
+                shortest = Math.min(shortest, result[2]);
+                longest = Math.max(longest, result[3]);
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A game failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        return new SimulationReport(games, wins, turns,
+                games == 0 ? 0 : (int) shortest, (int) longest, millis);
+    }
+
+    /**
+     * Plays a chunk of games.
+     *
+     * @return the wins of the first player, the total number of turns, and the
+     * length of the shortest and the longest game
+     */
+    private long[] playChunk(int size, SplittableRandom random) {
+        long[] result = {0, 0, Integer.MAX_VALUE, 0};
+        for (int i = 0; i < size; i++) {
+            SplittableRandom gameRandom = random.split();
+            ComputerPlayer[] players = {
+                    first.create(gameRandom.split(), budgetMillis),
+                    second.create(gameRandom.split(), budgetMillis)
+            };
+            long position = Positions.of(BitboardRockTableState.INITIAL_TABLE, 0, 0, 0);
+            int turns = 0;
+            while (!Positions.isFinished(position)) {
+                position = Turns.play(position, players[Positions.activePlayer(position)].selectTurn(position));
+                turns++;
+            }
+            if (Positions.activePlayer(position) == 0) {
+                result[0]++;
+            }
+            result[1] += turns;
+            result[2] = Math.min(result[2], turns);
+            result[3] = Math.max(result[3], turns);
+        }
+        return result;
+    }
+
+    private static void usage() {
+        System.err.println("Usage: SelfPlay [--games N] [--first STRATEGY] [--second STRATEGY]"
+                + " [--threads N] [--seed N] [--budget MILLIS]");
+        System.err.println("Strategies: random, greedy, search");
+        System.exit(2);
+    }
+
+    @SuppressWarnings("checkstyle:MissingJavadocMethod")
+    public static void main(String[] args) throws InterruptedException {
+        long games = 10_000;
+        Strategy first = Strategy.RANDOM;
+        Strategy second = Strategy.RANDOM;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = System.nanoTime();
+        long budget = 10;
+        try {
+            for (int i = 0; i < args.length; i += 2) {
+                if (i + 1 >= args.length) {
+                    usage();
+                }
+                String value = args[i + 1];
+                switch (args[i]) {
+                    case "--games":
+                        games = Long.parseLong(value);
+                        break;
+                    case "--first":
+                        first = Strategy.valueOf(value.toUpperCase(Locale.ROOT));
+                        break;
+                    case "--second":
+                        second = Strategy.valueOf(value.toUpperCase(Locale.ROOT));
+                        break;
+                    case "--threads":
+                        threads = Integer.parseInt(value);
+                        break;
+                    case "--seed":
+                        seed = Long.parseLong(value);
+                        break;
+                    case "--budget":
+                        budget = Long.parseLong(value);
+                        break;
+                    default:
+                        usage();
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            usage();
+        }
+
+        SimulationReport report = new SelfPlay(first, second, budget).run(games, threads, seed);
+        System.out.printf(Locale.ROOT, "Played %d games in %d ms (%.0f games/s), seed %d%n",
+                report.getGames(), report.getMillis(), report.getGamesPerSecond(), seed);
+        System.out.printf(Locale.ROOT, "Average game length: %.2f turns (shortest %d, longest %d)%n",
+                report.getAverageLength(), report.getShortestGame(), report.getLongestGame());
+        System.out.printf(Locale.ROOT, "First player (%s) won %d games (%.1f%%)%n", first,
+                report.getFirstPlayerWins(), 100.0 * report.getFirstPlayerWins() / Math.max(1, report.getGames()));
+        System.out.printf(Locale.ROOT, "Second player (%s) won %d games (%.1f%%)%n", second,
+                report.getSecondPlayerWins(), 100.0 * report.getSecondPlayerWins() / Math.max(1, report.getGames()));
+    }
+
+}
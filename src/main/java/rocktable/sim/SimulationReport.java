@@ -0,0 +1,68 @@
+package rocktable.sim;
+
+import lombok.Value;
+
+/**
+ * The result of a batch of games played by {@link SelfPlay}.
+ */
+@Value
+public class SimulationReport {
+
+    /**
+     * The number of games played.
+     */
+    long games;
+
+    /**
+     * The number of games won by the first player.
+     */
+    long firstPlayerWins;
+
+    /**
+     * The total number of turns of the games.
+     */
+    long turns;
+
+    /**
+     * The number of turns of the shortest game.
+     */
+    int shortestGame;
+
+    /**
+     * The number of turns of the longest game.
+     */
+    int longestGame;
+
+    /**
+     * The time spent on playing the games in milliseconds.
+     */
+    long millis;
+
+    /**
+     * Returns the number of games won by the second player.
+     *
+     * @return the wins of the second player
+     */
+    public long getSecondPlayerWins() {
+        return games - firstPlayerWins;
+    }
+
+    /**
+     * Returns the average number of turns of a game.
+     *
+     * @return the average length of a game
+     */
+    public double getAverageLength() {
+        return games == 0 ? 0 : (double) turns / games;
+    }
+
+    /**
+     * Returns the number of games played per second.
+     *
+     * @return the speed of the simulation
+     */
+    public double getGamesPerSecond() {
+        return millis == 0 ? games * 1000.0 : games * 1000.0 / millis;
+    }
+
+}
@@ -0,0 +1,55 @@
+package rocktable.sim;
+
+import rocktable.ai.AlphaBetaPlayer;
+import rocktable.ai.ComputerPlayer;
+import rocktable.ai.GreedyPlayer;
+import rocktable.ai.RandomPlayer;
+
+import java.util.SplittableRandom;
+
+/**
+ * The strategies available in the self-play simulator.
+ */
+public enum Strategy {
+
+    /**
+     * Plays uniformly random turns, see {@link RandomPlayer}.
+     */
+    RANDOM {
+        @Override
+        public ComputerPlayer create(SplittableRandom random, long budgetMillis) {
+            return new RandomPlayer(random);
+        }
+    },
+
+    /**
+     * Looks a single turn ahead, see {@link GreedyPlayer}.
+     */
+    GREEDY {
+        @Override
+        public ComputerPlayer create(SplittableRandom random, long budgetMillis) {
+            return new GreedyPlayer(random);
+        }
+    },
+
+    /**
+     * Searches with alpha-beta pruning, see {@link AlphaBetaPlayer}.
+     */
+    SEARCH {
+        @Override
+        public ComputerPlayer create(SplittableRandom random, long budgetMillis) {
+            return new AlphaBetaPlayer(budgetMillis, 1 << 16);
+        }
+    };
+
+    /**
+     * Creates a player following the strategy.
+     *
+     * @param random the source of randomness of the player
+     * @param budgetMillis the time budget of a turn in milliseconds for the
+     *                     strategies that search
+     * @return a new player
+     */
+    public abstract ComputerPlayer create(SplittableRandom random, long budgetMillis);
+
+}
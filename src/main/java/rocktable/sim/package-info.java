@@ -0,0 +1,4 @@
+/**
+ * Provides the headless self-play simulator of the Rock Table game.
+ */
+package rocktable.sim;
\ No newline at end of file
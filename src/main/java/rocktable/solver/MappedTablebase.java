@@ -0,0 +1,46 @@
+package rocktable.solver;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
+/**
+ * A {@link Tablebase} read from a memory-mapped file, see {@link TablebaseFile}.
+ * Lookups may be performed from several threads at the same time.
+ */
+public class MappedTablebase implements Tablebase {
+
+    private final TablebaseIndex index;
+
+    private final ByteBuffer data;
+
+    private final int checksum;
+
+    MappedTablebase(TablebaseIndex index, ByteBuffer data, int checksum) {
+        this.index = index;
+        this.data = data;
+        this.checksum = checksum;
+    }
+
+    @Override
+    public TablebaseIndex getIndex() {
+        return index;
+    }
+
+    @Override
+    public int get(long index) {
+        return data.get((int) (index >>> 2)) >>> ((index & 3) << 1) & 3;
+    }
+
+    /**
+     * Verifies the checksum of the data. This reads the whole file.
+     *
+     * @return {@code true} if the data matches the checksum stored in the header,
+     * {@code false} otherwise
+     */
+    public boolean verify() {
+        CRC32 crc = new CRC32();
+        crc.update(data.duplicate().clear());
+        return (int) crc.getValue() == checksum;
+    }
+
+}
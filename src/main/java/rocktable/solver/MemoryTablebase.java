@@ -0,0 +1,84 @@
+package rocktable.solver;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * A {@link Tablebase} held in the heap, storing the outcomes in two bits per
+ * position.
+ */
+public class MemoryTablebase implements Tablebase {
+
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final TablebaseIndex index;
+
+    private final long[] words;
+
+    /**
+     * Creates an empty {@code MemoryTablebase} in which every outcome is
+     * {@link #UNKNOWN}.
+     *
+     * @param index the index of the positions covered by the tablebase
+     */
+    public MemoryTablebase(TablebaseIndex index) {
+        this(index, new long[wordCount(index.size())]);
+    }
+
+    /**
+     * Creates a {@code MemoryTablebase} backed by the specified words.
+     *
+     * @param index the index of the positions covered by the tablebase
+     * @param words the outcomes, 32 positions per word
+     * @throws IllegalArgumentException if the number of words does not match the index
+     */
+    public MemoryTablebase(TablebaseIndex index, long[] words) {
+        if (words.length != wordCount(index.size())) {
+            throw new IllegalArgumentException();
+        }
+        this.index = index;
+        this.words = words;
+    }
+
+    /**
+     * Returns the number of words needed for storing the specified number of
+     * outcomes.
+     *
+     * @param size the number of positions
+     * @return the number of words
+     */
+    public static int wordCount(long size) {
+        return Math.toIntExact((size + 31) >>> 5);
+    }
+
+    @Override
+    public TablebaseIndex getIndex() {
+        return index;
+    }
+
+    @Override
+    public int get(long index) {
+        return (int) (words[(int) (index >>> 5)] >>> ((index & 31) << 1)) & 3;
+    }
+
+    /**
+     * Stores an outcome. Outcomes of different positions may be stored from
+     * different threads at the same time; an outcome can be stored only once.
+     *
+     * @param index the index of the position
+     * @param outcome the outcome of the position
+     */
+    void set(long index, int outcome) {
+        WORDS.getAndBitwiseOr(words, (int) (index >>> 5), (long) outcome << ((index & 31) << 1));
+    }
+
+    /**
+     * Returns the words storing the outcomes, 32 positions per word.
+     *
+     * @return the underlying array
+     */
+    long[] words() {
+        return words;
+    }
+
+}
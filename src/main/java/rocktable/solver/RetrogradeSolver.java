@@ -0,0 +1,215 @@
+package rocktable.solver;
+
+import lombok.extern.slf4j.Slf4j;
+import rocktable.state.BitboardRockTableState;
+import rocktable.state.Positions;
+import rocktable.state.TurnGenerator;
+import rocktable.state.Turns;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Paths;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import static rocktable.state.BitboardRockTableState.ROW_BITS;
+import static rocktable.state.BitboardRockTableState.ROW_MASK;
+
+/**
+ * Solves every position with a given total amount of rocks.
+ *
+ * <p>A turn always lowers the content of the chosen row, read as a binary number,
+ * and leaves the other rows untouched, so the sum of the rows strictly decreases
+ * with every turn. The solver therefore works backwards from the empty table:
+ * the tables are grouped into layers by this sum, and every layer is solved
+ * after the layers below it, using only the outcomes already stored for them.
+ * The tables of a layer are independent of each other and are solved in
+ * parallel with fork-join tasks.</p>
+ *
+ * <p>The player to move in a position with an empty table is the winner, since
+ * the opponent picked up the last rock.</p>
+ */
+@Slf4j
+public class RetrogradeSolver {
+
+    /**
+     * The number of tables solved by a single task without splitting.
+     */
+    private static final int THRESHOLD = 2048;
+
+    /**
+     * The largest sum of the rows of a table.
+     */
+    private static final int MAX_LAYER = 5 * ROW_MASK;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a {@code RetrogradeSolver} running on the common fork-join pool.
+     */
+    public RetrogradeSolver() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a {@code RetrogradeSolver} running on the specified pool.
+     *
+     * @param pool the pool executing the tasks of the solver
+     */
+    public RetrogradeSolver(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Solves every position with the specified total amount of rocks.
+     *
+     * @param totalRocks the total amount of rocks of the positions
+     * @return the report of the solution containing the tablebase
+     * @throws IllegalArgumentException if the amount is not valid
+     */
+    public SolverReport solve(int totalRocks) {
+        TablebaseIndex index = new TablebaseIndex(totalRocks);
+        log.info("Solving {} positions with {} rocks on {} threads...",
+                index.size(), totalRocks, pool.getParallelism());
+        resetPeakUsage();
+        long start = System.nanoTime();
+
+        MemoryTablebase tablebase = new MemoryTablebase(index);
+        int[] layerStart = new int[MAX_LAYER + 2];
+        int[] tables = layers(totalRocks, layerStart);
+        for (int layer = 0; layer <= MAX_LAYER; layer++) {
+            if (layerStart[layer] < layerStart[layer + 1]) {
+                pool.invoke(new LayerTask(tablebase, tables, layerStart[layer], layerStart[layer + 1]));
+            }
+        }
+
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        SolverReport report = new SolverReport(tablebase, tables.length, millis, peakHeapUsage());
+        log.info("Solved {} positions in {} ms, peak heap usage {} MiB",
+                index.size(), millis, report.getPeakHeapBytes() >> 20);
+        return report;
+    }
+
+    /**
+     * Returns the tables with at most {@code totalRocks} rocks ordered by the
+     * sum of their rows.
+     */
+    private static int[] layers(int totalRocks, int[] layerStart) {
+        for (int table = 0; table <= BitboardRockTableState.TABLE_MASK; table++) {
+            if (Integer.bitCount(table) <= totalRocks) {
+                layerStart[layer(table) + 1]++;
+            }
+        }
+        for (int layer = 0; layer <= MAX_LAYER; layer++) {
+            layerStart[layer + 1] += layerStart[layer];
+        }
+        int[] tables = new int[layerStart[MAX_LAYER + 1]];
+        int[] next = layerStart.clone();
+        for (int table = 0; table <= BitboardRockTableState.TABLE_MASK; table++) {
+            if (Integer.bitCount(table) <= totalRocks) {
+                tables[next[layer(table)]++] = table;
+            }
+        }
+        return tables;
+    }
+
+    private static int layer(int table) {
+        int sum = 0;
+        for (int rest = table; rest != 0; rest >>>= ROW_BITS) {
+            sum += rest & ROW_MASK;
+        }
+        return sum;
+    }
+
+    private static void resetPeakUsage() {
+        for (MemoryPoolMXBean bean : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (bean.getType() == MemoryType.HEAP && bean.isValid()) {
+                bean.resetPeakUsage();
+            }
+        }
+    }
+
+    private static long peakHeapUsage() {
+        long peak = 0;
+        for (MemoryPoolMXBean bean : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (bean.getType() == MemoryType.HEAP && bean.isValid()) {
+                peak += bean.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+    /**
+     * Solves a range of the tables of a single layer.
+     */
+    private static class LayerTask extends RecursiveAction {
+
+        private final MemoryTablebase tablebase;
+        private final int[] tables;
+        private final int from;
+        private final int to;
+
+        LayerTask(MemoryTablebase tablebase, int[] tables, int from, int to) {
+            this.tablebase = tablebase;
+            this.tables = tables;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > THRESHOLD) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new LayerTask(tablebase, tables, from, middle),
+                        new LayerTask(tablebase, tables, middle, to));
+                return;
+            }
+            TablebaseIndex index = tablebase.getIndex();
+            int totalRocks = index.getTotalRocks();
+            int[] buffer = new int[TurnGenerator.MAX_TURNS];
+            for (int i = from; i < to; i++) {
+                int table = tables[i];
+                int free = totalRocks - Integer.bitCount(table);
+                for (int mover = 0; mover <= free; mover++) {
+                    long position = Positions.of(table, mover, free - mover, 0);
+                    tablebase.set(index.index(table, mover), solve(index, position, buffer));
+                }
+            }
+        }
+
+        private int solve(TablebaseIndex index, long position, int[] buffer) {
+            int count = TurnGenerator.generate(position, buffer);
+            if (count == 0) {
+                return Tablebase.WIN;
+            }
+            for (int i = 0; i < count; i++) {
+                long next = Turns.play(position, buffer[i]);
+                if (tablebase.get(index.index(Positions.table(next), Positions.moverRocks(next))) == Tablebase.LOSS) {
+                    return Tablebase.WIN;
+                }
+            }
+            return Tablebase.LOSS;
+        }
+    }
+
+    @SuppressWarnings("checkstyle:MissingJavadocMethod")
+    public static void main(String[] args) throws IOException {
+        int totalRocks = args.length > 0
+                ? Integer.parseInt(args[0])
+                : Integer.bitCount(BitboardRockTableState.INITIAL_TABLE);
+        SolverReport report = new RetrogradeSolver().solve(totalRocks);
+        System.out.println(report);
+        long initial = Positions.of(BitboardRockTableState.INITIAL_TABLE, 0, 0, 0);
+        if (report.getTablebase().getIndex().covers(initial)) {
+            System.out.println("The initial position is a "
+                    + (report.getTablebase().outcome(initial) == Tablebase.WIN ? "win" : "loss")
+                    + " for the first player");
+        }
+        if (args.length > 1) {
+            TablebaseFile.write(report.getTablebase(), Paths.get(args[1]));
+        }
+    }
+
+}
@@ -0,0 +1,42 @@
+package rocktable.solver;
+
+import lombok.ToString;
+import lombok.Value;
+
+/**
+ * The result of solving the positions with {@link RetrogradeSolver}.
+ */
+@Value
+public class SolverReport {
+
+    /**
+     * The solved tablebase.
+     */
+    @ToString.Exclude
+    MemoryTablebase tablebase;
+
+    /**
+     * The number of tables solved.
+     */
+    int tables;
+
+    /**
+     * The time spent on solving the positions in milliseconds.
+     */
+    long buildMillis;
+
+    /**
+     * The peak heap usage while solving the positions in bytes.
+     */
+    long peakHeapBytes;
+
+    /**
+     * Returns the number of positions solved.
+     *
+     * @return the number of positions
+     */
+    public long getPositions() {
+        return tablebase.getIndex().size();
+    }
+
+}
@@ -0,0 +1,72 @@
+package rocktable.solver;
+
+import rocktable.state.TurnGenerator;
+import rocktable.state.Turns;
+
+/**
+ * The outcomes of the positions with a fixed total amount of rocks under
+ * perfect play. The outcome is always given for the player to move.
+ */
+public interface Tablebase {
+
+    /**
+     * The outcome of a position that has not been solved.
+     */
+    int UNKNOWN = 0;
+
+    /**
+     * The outcome of a position won by the player to move.
+     */
+    int WIN = 1;
+
+    /**
+     * The outcome of a position lost by the player to move.
+     */
+    int LOSS = 2;
+
+    /**
+     * Returns the index of the positions covered by the tablebase.
+     *
+     * @return the index of the tablebase
+     */
+    TablebaseIndex getIndex();
+
+    /**
+     * Returns the outcome stored at the specified index.
+     *
+     * @param index the index of a position
+     * @return one of {@link #UNKNOWN}, {@link #WIN} and {@link #LOSS}
+     */
+    int get(long index);
+
+    /**
+     * Returns the outcome of the specified position for the player to move.
+     *
+     * @param position the packed position
+     * @return one of {@link #UNKNOWN}, {@link #WIN} and {@link #LOSS}
+     * @throws IllegalArgumentException if the position is not covered by the tablebase
+     */
+    default int outcome(long position) {
+        return get(getIndex().index(position));
+    }
+
+    /**
+     * Returns a turn that wins the specified position.
+     *
+     * @param position the packed position
+     * @param buffer an array of size at least {@link TurnGenerator#MAX_TURNS}
+     *               used for generating the turns
+     * @return a winning turn, or {@code -1} if the player to move cannot win
+     * @throws IllegalArgumentException if the position is not covered by the tablebase
+     */
+    default int winningTurn(long position, int[] buffer) {
+        int count = TurnGenerator.generate(position, buffer);
+        for (int i = 0; i < count; i++) {
+            if (outcome(Turns.play(position, buffer[i])) == LOSS) {
+                return buffer[i];
+            }
+        }
+        return -1;
+    }
+
+}
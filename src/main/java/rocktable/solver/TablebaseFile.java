@@ -0,0 +1,183 @@
+package rocktable.solver;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Reads and writes tablebase files.
+ *
+ * <p>A tablebase file starts with a header of {@value #HEADER_SIZE} bytes,
+ * stored in big-endian byte order:</p>
+ * <ul>
+ *     <li>the magic number {@code RTTB} (4 bytes)</li>
+ *     <li>the format version (2 bytes)</li>
+ *     <li>the number of rows and columns of the table (1 byte each)</li>
+ *     <li>the index scheme (1 byte), see {@link #SCHEME_COLEX}</li>
+ *     <li>the total amount of rocks and the largest amount of rocks a player
+ *     can have (1 byte each)</li>
+ *     <li>a reserved byte</li>
+ *     <li>the number of positions (8 bytes)</li>
+ *     <li>the CRC-32 checksum of the data (4 bytes)</li>
+ * </ul>
+ * <p>The rest of the header is zero. The data follows the header with the
+ * outcome of four positions in every byte, the position with the lowest index
+ * in the lowest two bits.</p>
+ */
+@Slf4j
+public final class TablebaseFile {
+
+    /**
+     * The magic number at the start of every tablebase file.
+     */
+    public static final int MAGIC = 0x52545442;
+
+    /**
+     * The current version of the file format.
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * The size of the header in bytes.
+     */
+    public static final int HEADER_SIZE = 64;
+
+    /**
+     * The index scheme of {@link TablebaseIndex}.
+     */
+    public static final int SCHEME_COLEX = 1;
+
+    private static final int BOARD_SIZE = 5;
+
+    private static final int CHUNK_WORDS = 8192;
+
+    private TablebaseFile() {
+    }
+
+    /**
+     * Writes the tablebase into the specified file. The file is replaced
+     * atomically, so readers never see a partially written tablebase.
+     *
+     * @param tablebase the tablebase to be written
+     * @param path the path of the file
+     * @throws IOException if an I/O error occurs
+     */
+    public static void write(MemoryTablebase tablebase, Path path) throws IOException {
+        TablebaseIndex index = tablebase.getIndex();
+        long[] words = tablebase.words();
+        long dataSize = dataSize(index.size());
+        Path temp = Files.createTempFile(path.toAbsolutePath().getParent(), path.getFileName().toString(), ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            CRC32 crc = new CRC32();
+            ByteBuffer chunk = ByteBuffer.allocate(CHUNK_WORDS * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            channel.position(HEADER_SIZE);
+            long remaining = dataSize;
+            for (int from = 0; from < words.length; from += CHUNK_WORDS) {
+                chunk.clear();
+                chunk.asLongBuffer().put(words, from, Math.min(CHUNK_WORDS, words.length - from));
+                chunk.limit((int) Math.min(remaining, (long) CHUNK_WORDS * Long.BYTES));
+                remaining -= chunk.limit();
+                crc.update(chunk.duplicate());
+                while (chunk.hasRemaining()) {
+                    channel.write(chunk);
+                }
+            }
+            ByteBuffer header = header(index, crc.getValue());
+            while (header.hasRemaining()) {
+                channel.write(header, HEADER_SIZE - header.remaining());
+            }
+            channel.force(true);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.info("Tablebase with {} positions written to {}", index.size(), path);
+    }
+
+    /**
+     * Opens the tablebase stored in the specified file. The file is mapped into
+     * memory, so only the pages touched by the lookups are read and the pages
+     * are shared with the other processes reading the same file. The checksum
+     * of the data is not verified, see {@link MappedTablebase#verify()}.
+     *
+     * @param path the path of the file
+     * @return the tablebase stored in the file
+     * @throws IOException if an I/O error occurs or the file is not a valid tablebase file
+     */
+    public static MappedTablebase open(Path path) throws IOException {
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining()) {
+                if (channel.read(header, header.position()) < 0) {
+                    throw new IOException("Truncated tablebase header: " + path);
+                }
+            }
+            header.flip();
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Not a tablebase file: " + path);
+            }
+            int version = header.getShort();
+            if (version != VERSION) {
+                throw new IOException("Unsupported tablebase version " + version + ": " + path);
+            }
+            int rows = header.get();
+            int cols = header.get();
+            int scheme = header.get();
+            if (rows != BOARD_SIZE || cols != BOARD_SIZE || scheme != SCHEME_COLEX) {
+                throw new IOException("Unsupported tablebase layout " + rows + "x" + cols
+                        + ", scheme " + scheme + ": " + path);
+            }
+            int totalRocks = header.get();
+            int maxRocks = header.get();
+            header.get();
+            long positions = header.getLong();
+            int checksum = header.getInt();
+            TablebaseIndex index = new TablebaseIndex(totalRocks);
+            if (maxRocks != totalRocks || positions != index.size()) {
+                throw new IOException("Inconsistent tablebase header: " + path);
+            }
+            long dataSize = dataSize(positions);
+            if (channel.size() != HEADER_SIZE + dataSize) {
+                throw new IOException("Tablebase size mismatch: " + path);
+            }
+            if (dataSize > Integer.MAX_VALUE) {
+                throw new IOException("Tablebase too large to be mapped: " + path);
+            }
+            MappedTablebase tablebase = new MappedTablebase(index,
+                    channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, dataSize), checksum);
+            log.debug("Tablebase {} opened in {} us", path, (System.nanoTime() - start) / 1000);
+            return tablebase;
+        }
+    }
+
+    private static ByteBuffer header(TablebaseIndex index, long checksum) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC)
+                .putShort((short) VERSION)
+                .put((byte) BOARD_SIZE)
+                .put((byte) BOARD_SIZE)
+                .put((byte) SCHEME_COLEX)
+                .put((byte) index.getTotalRocks())
+                .put((byte) index.getTotalRocks())
+                .put((byte) 0)
+                .putLong(index.size())
+                .putInt((int) checksum);
+        header.clear();
+        return header;
+    }
+
+    private static long dataSize(long positions) {
+        return (positions + 3) >>> 2;
+    }
+
+}
@@ -0,0 +1,134 @@
+package rocktable.solver;
+
+import rocktable.state.Positions;
+
+/**
+ * Maps the positions with a fixed total amount of rocks to consecutive indexes.
+ *
+ * <p>No turn changes the total amount of rocks (the rocks on the table plus
+ * the rocks of both players), so a tablebase only has to cover the positions
+ * with the same total. The index of a position is made of the number of rocks
+ * on the table, the colexicographic rank of the occupied cells among the tables
+ * with the same number of rocks, and the rocks of the player to move; the
+ * rocks of the opponent follow from the total. The player to move does not
+ * take part in the index, since the rules are the same for both players.</p>
+ */
+public final class TablebaseIndex {
+
+    /**
+     * The number of cells of the table.
+     */
+    public static final int CELLS = 25;
+
+    private static final long[][] BINOMIAL = new long[CELLS + 1][CELLS + 2];
+
+    static {
+        for (int n = 0; n <= CELLS; n++) {
+            BINOMIAL[n][0] = 1;
+            for (int k = 1; k <= n; k++) {
+                BINOMIAL[n][k] = BINOMIAL[n - 1][k - 1] + (k <= n - 1 ? BINOMIAL[n - 1][k] : 0);
+            }
+        }
+    }
+
+    private final int totalRocks;
+
+    /**
+     * The index of the first position with {@code k} rocks on the table.
+     */
+    private final long[] base;
+
+    /**
+     * Creates a {@code TablebaseIndex} for the positions with the specified
+     * total amount of rocks.
+     *
+     * @param totalRocks the total amount of rocks of the positions
+     * @throws IllegalArgumentException if the amount is negative or larger than
+     *                                  {@link Positions#MAX_ROCKS}
+     */
+    public TablebaseIndex(int totalRocks) {
+        if (totalRocks < 0 || totalRocks > Positions.MAX_ROCKS) {
+            throw new IllegalArgumentException("Invalid total amount of rocks: " + totalRocks);
+        }
+        this.totalRocks = totalRocks;
+        int maxOnTable = Math.min(totalRocks, CELLS);
+        base = new long[maxOnTable + 2];
+        for (int k = 0; k <= maxOnTable; k++) {
+            base[k + 1] = base[k] + BINOMIAL[CELLS][k] * (totalRocks - k + 1);
+        }
+    }
+
+    /**
+     * Returns the total amount of rocks of the positions covered by the index.
+     *
+     * @return the total amount of rocks
+     */
+    public int getTotalRocks() {
+        return totalRocks;
+    }
+
+    /**
+     * Returns the number of positions covered by the index.
+     *
+     * @return the number of positions
+     */
+    public long size() {
+        return base[base.length - 1];
+    }
+
+    /**
+     * Checks whether the position is covered by the index.
+     *
+     * @param position the packed position
+     * @return {@code true} if the total amount of rocks of the position matches
+     * the index, {@code false} otherwise
+     */
+    public boolean covers(long position) {
+        return Positions.totalRocks(position) == totalRocks;
+    }
+
+    /**
+     * Returns the index of the specified position.
+     *
+     * @param position the packed position
+     * @return the index of the position
+     * @throws IllegalArgumentException if the position is not covered by the index
+     */
+    public long index(long position) {
+        if (!covers(position)) {
+            throw new IllegalArgumentException("The position has "
+                    + Positions.totalRocks(position) + " rocks instead of " + totalRocks);
+        }
+        return index(Positions.table(position), Positions.moverRocks(position));
+    }
+
+    /**
+     * Returns the index of the position with the specified table and rocks of
+     * the player to move. The arguments are not validated.
+     *
+     * @param table the packed table
+     * @param moverRocks the rocks of the player to move
+     * @return the index of the position
+     */
+    public long index(int table, int moverRocks) {
+        int onTable = Integer.bitCount(table);
+        return base[onTable] + rank(table) * (totalRocks - onTable + 1) + moverRocks;
+    }
+
+    /**
+     * Returns the colexicographic rank of the table among the tables with the
+     * same number of rocks.
+     *
+     * @param table the packed table
+     * @return the rank of the table
+     */
+    public static long rank(int table) {
+        long rank = 0;
+        int k = 1;
+        for (int rest = table; rest != 0; rest &= rest - 1) {
+            rank += BINOMIAL[Integer.numberOfTrailingZeros(rest)][k++];
+        }
+        return rank;
+    }
+
+}
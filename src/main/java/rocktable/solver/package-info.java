@@ -0,0 +1,4 @@
+/**
+ * Provides the exhaustive solver and the tablebases of the Rock Table game.
+ */
+package rocktable.solver;
\ No newline at end of file
@@ -0,0 +1,392 @@
+package rocktable.state;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A {@link GameState} that packs the table of the Rock Table game into a single
+ * {@code int}.
+ *
+ * <p>Row {@code r} of the table occupies the bits {@code 5r..5r+4}, and the rock
+ * in column {@code c} of a row is stored in bit {@code 4-c} of that row, so the
+ * left-most column is the most significant bit of the row. The rocks of the
+ * players and the flags of the current turn are kept in primitive fields, hence
+ * the checks and the moves do not allocate. Every action is pushed to a
+ * {@link MoveStack}, so a search can explore the game on a single instance by
+ * undoing the actions it tried.</p>
+ */
+@Slf4j
+public class BitboardRockTableState implements GameState {
+
+    /**
+     * The number of bits used by a row of the table.
+     */
+    public static final int ROW_BITS = 5;
+
+    /**
+     * The mask of a single row of the table.
+     */
+    public static final int ROW_MASK = (1 << ROW_BITS) - 1;
+
+    /**
+     * The mask of the whole table.
+     */
+    public static final int TABLE_MASK = (1 << 5 * ROW_BITS) - 1;
+
+    /**
+     * The packed form of {@link RockTableState#initialTable()}.
+     */
+    public static final int INITIAL_TABLE = 0b10000
+            | 0b11100 << ROW_BITS
+            | 0b00100 << 2 * ROW_BITS
+            | 0b01011 << 3 * ROW_BITS
+            | 0b11000 << 4 * ROW_BITS;
+
+    /**
+     * Indicates that which is the active player.
+     */
+    @Getter
+    private int activePlayer;
+
+    /**
+     * The amount of rocks the first player have.
+     */
+    private int rocks0;
+
+    /**
+     * The amount of rocks the second player have.
+     */
+    private int rocks1;
+
+    /**
+     * The number of the chosen row.
+     */
+    @Getter
+    private int chosenRow = -1;
+
+    /**
+     * Indicates that if the active player chose row in this turn or not.
+     */
+    @Getter
+    private boolean rowChosen;
+
+    /**
+     * Indicates that if the active player picked up at
+     * least a rock in this turn or not.
+     */
+    @Getter
+    private boolean pickedUp;
+
+    /**
+     * The left-most column where the active player picked up rock from.
+     */
+    @Getter
+    private int leftMostCol = 4;
+
+    /**
+     * The packed representation of the table.
+     */
+    private int table;
+
+    /**
+     * The actions performed, to be undone and redone.
+     */
+    private final MoveStack moves = new MoveStack();
+
+    /**
+     * Creates a {@code BitboardRockTableState} object representing the (original)
+     * initial state of the game.
+     */
+    public BitboardRockTableState() {
+        this.table = INITIAL_TABLE;
+    }
+
+    /**
+     * Creates a {@code BitboardRockTableState} object that is initialized it with
+     * the specified array.
+     *
+     * @param a an array of size 5&#xd7;5 representing the initial configuration
+     *          of the table
+     * @throws IllegalArgumentException if the array does not represent a valid
+     *                                  configuration of the table
+     */
+    public BitboardRockTableState(int[][] a) {
+        this(pack(a));
+    }
+
+    /**
+     * Creates a {@code BitboardRockTableState} object that is initialized it with
+     * the specified packed table.
+     *
+     * @param table the packed representation of the initial configuration of the table
+     * @throws IllegalArgumentException if the value does not represent a valid
+     *                                  configuration of the table
+     */
+    public BitboardRockTableState(int table) {
+        if (table == 0 || (table & ~TABLE_MASK) != 0) {
+            throw new IllegalArgumentException();
+        }
+        this.table = table;
+    }
+
+    /**
+     * Creates a {@code BitboardRockTableState} object at the start of a turn
+     * with the specified packed table and rocks.
+     *
+     * @param table the packed representation of the table
+     * @param rocks0 the amount of rocks the first player have
+     * @param rocks1 the amount of rocks the second player have
+     * @param activePlayer the index of the active player
+     * @throws IllegalArgumentException if the values do not represent a valid state
+     */
+    public BitboardRockTableState(int table, int rocks0, int rocks1, int activePlayer) {
+        if ((table & ~TABLE_MASK) != 0 || rocks0 < 0 || rocks1 < 0 || (activePlayer & ~1) != 0) {
+            throw new IllegalArgumentException();
+        }
+        this.table = table;
+        this.rocks0 = rocks0;
+        this.rocks1 = rocks1;
+        this.activePlayer = activePlayer;
+    }
+
+    /**
+     * Packs the specified array into the bit representation of the table.
+     *
+     * @param a an array of size 5&#xd7;5 representing a configuration of the table
+     * @return the packed representation of the table
+     * @throws IllegalArgumentException if the array does not represent a valid
+     *                                  configuration of the table
+     */
+    public static int pack(int[][] a) {
+        if (a == null || a.length != 5) {
+            throw new IllegalArgumentException();
+        }
+        int bits = 0;
+        for (int i = 0; i < a.length; i++) {
+            for (int j = 0; j < a.length; j++) {
+                if (a[i][j] == 1) {
+                    bits |= bit(i, j);
+                } else if (a[i][j] != 0) {
+                    throw new IllegalArgumentException();
+                }
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * Unpacks the specified bit representation of the table into an array.
+     *
+     * @param table the packed representation of the table
+     * @return a new array of size 5&#xd7;5 representing the table
+     */
+    public static int[][] unpack(int table) {
+        int[][] a = new int[5][5];
+        for (int i = 0; i < 5; i++) {
+            for (int j = 0; j < 5; j++) {
+                a[i][j] = (table & bit(i, j)) != 0 ? 1 : 0;
+            }
+        }
+        return a;
+    }
+
+    /**
+     * Returns the bit of the table that stores the specified position.
+     *
+     * @param row the row of the position
+     * @param col the column of the position
+     * @return the bit belonging to the position
+     */
+    public static int bit(int row, int col) {
+        return 1 << (row * ROW_BITS + 4 - col);
+    }
+
+    @Override
+    public int getTableBits() {
+        return table;
+    }
+
+    /**
+     * Returns the amount of rocks the specified player have.
+     *
+     * @param player the index of the player
+     * @return the amount of rocks of the player
+     */
+    public int getRocks(int player) {
+        return player == 0 ? rocks0 : rocks1;
+    }
+
+    @Override
+    public int[] getRocks() {
+        return new int[]{rocks0, rocks1};
+    }
+
+    @Override
+    public int[][] getTable() {
+        return unpack(table);
+    }
+
+    @Override
+    public boolean isOccupied(int row, int col) {
+        return (table & bit(row, col)) != 0;
+    }
+
+    @Override
+    public boolean isFinished() {
+        return table == 0;
+    }
+
+    @Override
+    public void setChosenRow(int n) {
+        if (!isChoosableRow(n)) {
+            throw new IllegalArgumentException();
+        }
+        moves.push(MoveStack.of(MoveStack.CHOOSE_ROW, n, chosenRow, leftMostCol, pickedUp));
+        chosenRow = n;
+        rowChosen = true;
+    }
+
+    @Override
+    public boolean isChoosableRow(int n) {
+        if (table == 0 || rowChosen || n > 4 || n < 0) {
+            return false;
+        }
+        return (table >>> n * ROW_BITS & ROW_MASK) != 0;
+    }
+
+    @Override
+    public boolean isPickupable(int n) {
+        if (table == 0 || !rowChosen || n > 4 || n < 0) {
+            return false;
+        }
+        return (table & bit(chosenRow, n)) != 0;
+    }
+
+    @Override
+    public void pickupRock(int n) {
+        if (!isPickupable(n)) {
+            throw new IllegalArgumentException();
+        }
+        moves.push(MoveStack.of(MoveStack.PICKUP_ROCK, n, chosenRow, leftMostCol, pickedUp));
+        table &= ~bit(chosenRow, n);
+        if (activePlayer == 0) {
+            rocks0++;
+        } else {
+            rocks1++;
+        }
+        if (n < leftMostCol) {
+            leftMostCol = n;
+        }
+        pickedUp = true;
+    }
+
+    @Override
+    public boolean isPlaceable(int n) {
+        if (table == 0 || getRocks(activePlayer) == 0 || n > 4 || n < 0 || n <= leftMostCol) {
+            return false;
+        }
+        return (table & bit(chosenRow, n)) == 0;
+    }
+
+    @Override
+    public void placeRock(int n) {
+        if (!isPlaceable(n)) {
+            throw new IllegalArgumentException();
+        }
+        moves.push(MoveStack.of(MoveStack.PLACE_ROCK, n, chosenRow, leftMostCol, pickedUp));
+        table |= bit(chosenRow, n);
+        if (activePlayer == 0) {
+            rocks0--;
+        } else {
+            rocks1--;
+        }
+    }
+
+    @Override
+    public boolean canBeEnded() {
+        return pickedUp;
+    }
+
+    @Override
+    public void endTurn() {
+        if (!pickedUp) {
+            log.debug("The turn cannot be ended!");
+            return;
+        }
+        moves.push(MoveStack.of(MoveStack.END_TURN, 0, chosenRow, leftMostCol, pickedUp));
+        activePlayer ^= 1;
+        pickedUp = false;
+        rowChosen = false;
+        leftMostCol = 4;
+        chosenRow = -1;
+    }
+
+    @Override
+    public boolean canUndo() {
+        return moves.canUndo();
+    }
+
+    @Override
+    public void undo() {
+        int move = moves.pop();
+        switch (MoveStack.type(move)) {
+            case MoveStack.CHOOSE_ROW:
+                break;
+            case MoveStack.PICKUP_ROCK:
+                table |= bit(chosenRow, MoveStack.argument(move));
+                addRocks(-1);
+                break;
+            case MoveStack.PLACE_ROCK:
+                table &= ~bit(chosenRow, MoveStack.argument(move));
+                addRocks(1);
+                break;
+            default:
+                activePlayer ^= 1;
+                break;
+        }
+        chosenRow = MoveStack.chosenRow(move);
+        rowChosen = chosenRow >= 0;
+        leftMostCol = MoveStack.leftMostCol(move);
+        pickedUp = MoveStack.pickedUp(move);
+    }
+
+    private void addRocks(int delta) {
+        if (activePlayer == 0) {
+            rocks0 += delta;
+        } else {
+            rocks1 += delta;
+        }
+    }
+
+    @Override
+    public boolean canRedo() {
+        return moves.canRedo();
+    }
+
+    @Override
+    public void redo() {
+        moves.redo(this);
+    }
+
+    /**
+     * Create a {@code String} representation of the current game.
+     *
+     * @return the {@code String} representation of the current state of the game
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Current state:\n");
+        for (int i = 0; i < 5; i++) {
+            for (int j = 0; j < 5; j++) {
+                sb.append(isOccupied(i, j) ? 1 : 0).append(' ');
+            }
+            sb.append('\n');
+        }
+        sb.append("Active player: ").append(activePlayer + 1).append('\n');
+        sb.append("Chosen row: ").append(chosenRow).append('\n');
+        sb.append("Rocks: ").append(getRocks(activePlayer)).append('\n');
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,100 @@
+package rocktable.state;
+
+/**
+ * Creates independent games starting from the same position.
+ *
+ * <p>The starting position is kept packed into a {@code long}, see
+ * {@link Positions}, so a factory is immutable and can be shared by any number
+ * of threads and sessions, while every game it creates owns a table of its
+ * own.</p>
+ */
+public final class GameFactory {
+
+    private final StateEngine engine;
+
+    private final long startPosition;
+
+    /**
+     * Creates a {@code GameFactory} object creating states of the specified
+     * implementation at the specified position.
+     *
+     * @param engine the implementation of the states
+     * @param startPosition the packed position where the games start
+     * @throws IllegalArgumentException if the position is not a valid position
+     *                                  of an unfinished game
+     */
+    public GameFactory(StateEngine engine, long startPosition) {
+        if (engine == null || Positions.table(startPosition) == 0
+                || Positions.of(Positions.table(startPosition), Positions.moverRocks(startPosition),
+                Positions.opponentRocks(startPosition), Positions.activePlayer(startPosition)) != startPosition) {
+            throw new IllegalArgumentException();
+        }
+        this.engine = engine;
+        this.startPosition = startPosition;
+    }
+
+    /**
+     * Returns a factory of games starting from the (original) initial state
+     * of the game.
+     *
+     * @param engine the implementation of the states
+     * @return the factory
+     */
+    public static GameFactory initial(StateEngine engine) {
+        return new GameFactory(engine, Positions.of(BitboardRockTableState.INITIAL_TABLE, 0, 0, 0));
+    }
+
+    /**
+     * Returns a factory of games starting from the specified table, with the
+     * first player to move.
+     *
+     * @param engine the implementation of the states
+     * @param a an array of size 5&#xd7;5 representing the initial configuration
+     *          of the table
+     * @return the factory
+     * @throws IllegalArgumentException if the array does not represent a valid
+     *                                  configuration of the table
+     */
+    public static GameFactory of(StateEngine engine, int[][] a) {
+        return new GameFactory(engine, Positions.of(BitboardRockTableState.pack(a), 0, 0, 0));
+    }
+
+    /**
+     * Returns a factory of games starting from the (original) initial state of
+     * the game, creating states of the implementation selected by the
+     * {@value StateEngine#PROPERTY} system property.
+     *
+     * @return the factory
+     */
+    public static GameFactory fromSystemProperties() {
+        return initial(StateEngine.fromSystemProperties());
+    }
+
+    /**
+     * Returns the implementation of the states created.
+     *
+     * @return the implementation of the states
+     */
+    public StateEngine getEngine() {
+        return engine;
+    }
+
+    /**
+     * Returns the position where the games start.
+     *
+     * @return the packed position
+     */
+    public long getStartPosition() {
+        return startPosition;
+    }
+
+    /**
+     * Creates a new game at the starting position.
+     *
+     * @return a new state, independent of every other state
+     */
+    public GameState newGame() {
+        return engine.newState(startPosition);
+    }
+
+}
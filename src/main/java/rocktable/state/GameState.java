@@ -0,0 +1,185 @@
+package rocktable.state;
+
+/**
+ * The operations of a Rock Table game state, independently of how the table
+ * is stored.
+ */
+public interface GameState {
+
+    /**
+     * Returns the index of the active player.
+     *
+     * @return {@code 0} if the first player is active, {@code 1} otherwise
+     */
+    int getActivePlayer();
+
+    /**
+     * Returns the amount of rocks each player have.
+     *
+     * @return an array of size 2 with the rocks of the first and the second player
+     */
+    int[] getRocks();
+
+    /**
+     * Returns the number of the chosen row.
+     *
+     * @return the chosen row, or {@code -1} if no row is chosen in this turn
+     */
+    int getChosenRow();
+
+    /**
+     * Checks whether the active player chose a row in this turn or not.
+     *
+     * @return {@code true} if a row is chosen, {@code false} otherwise
+     */
+    boolean isRowChosen();
+
+    /**
+     * Checks whether the active player picked up at least a rock in this turn or not.
+     *
+     * @return {@code true} if a rock is picked up, {@code false} otherwise
+     */
+    boolean isPickedUp();
+
+    /**
+     * Returns the left-most column where the active player picked up rock from.
+     *
+     * @return the left-most column of this turn
+     */
+    int getLeftMostCol();
+
+    /**
+     * Returns the current state of the table.
+     *
+     * @return an array of size 5&#xd7;5 representing the table
+     */
+    int[][] getTable();
+
+    /**
+     * Returns the packed representation of the table, see
+     * {@link BitboardRockTableState}.
+     *
+     * @return the bits of the table
+     */
+    int getTableBits();
+
+    /**
+     * Checks whether there is a rock at the specified position of the table.
+     *
+     * @param row the row of the position
+     * @param col the column of the position
+     * @return {@code true} if there is a rock at the position, {@code false} otherwise
+     */
+    boolean isOccupied(int row, int col);
+
+    /**
+     * Checks whether the game is finished.
+     *
+     * @return {@code true} if the game is finished,
+     * {@code false} otherwise
+     */
+    boolean isFinished();
+
+    /**
+     * Sets the {@code chosenRow} to the specified {@code n} value.
+     *
+     * @param n the row that the active player wants to chose
+     * @throws IllegalArgumentException if the active player try to choose a row that
+     * is not valid
+     */
+    void setChosenRow(int n);
+
+    /**
+     * Checks whether the active player can choose a row or not.
+     *
+     * @param n the row that the active player want to check
+     * @return {@code true} if the active player can choose the {@code n} row,
+     * {@code false} otherwise
+     */
+    boolean isChoosableRow(int n);
+
+    /**
+     * Checks whether the active player can pick up rock from the {@code n}
+     * position in the {@code chosenRow} or not.
+     *
+     * @param n the position(column) that the active player wants to check
+     * @return {@code true} if the active player can pick up the rock int the {@code n} position,
+     * {@code false} otherwise
+     */
+    boolean isPickupable(int n);
+
+    /**
+     * Picks up the rock in the {@code chosenRow}
+     * at the specified {@code n} position.
+     *
+     * @param n the position(column) of the rock that the active player wants to pick up
+     * @throws IllegalArgumentException if the active player tries to choose a position that
+     * is not valid(can't pick up a rock)
+     */
+    void pickupRock(int n);
+
+    /**
+     * Checks whether the active player can place a rock to the {@code n}
+     * position in the {@code chosenRow} or not.
+     *
+     * @param n the position(column) that the active player wants to check
+     * @return {@code true} if the active player can place a rock int the {@code n} position,
+     * {@code false} otherwise
+     */
+    boolean isPlaceable(int n);
+
+    /**
+     * Places a rock in the {@code chosenRow}
+     * at the specified {@code n} position.
+     *
+     * @param n the position(column) where the active player wants to place a rock
+     * @throws IllegalArgumentException if the active player tries to choose a position that
+     * is not valid(can't place a rock)
+     */
+    void placeRock(int n);
+
+    /**
+     * Checks whether the active player can end the turn or not.
+     *
+     * @return {@code true} if the active player can end the turn,
+     * {@code false} otherwise
+     */
+    boolean canBeEnded();
+
+    /**
+     * The active player ends the turn.
+     */
+    void endTurn();
+
+    /**
+     * Checks whether there is an action that can be undone.
+     *
+     * @return {@code true} if an action was performed on the state,
+     * {@code false} otherwise
+     */
+    boolean canUndo();
+
+    /**
+     * Reverts the last action performed on the state, including the end of a
+     * turn, in constant time and without allocation.
+     *
+     * @throws IllegalStateException if there is no action to undo
+     */
+    void undo();
+
+    /**
+     * Checks whether there is an undone action that can be redone.
+     *
+     * @return {@code true} if an action was undone and no other action was
+     * performed since, {@code false} otherwise
+     */
+    boolean canRedo();
+
+    /**
+     * Performs the last action undone again.
+     *
+     * @throws IllegalStateException if there is no action to redo
+     */
+    void redo();
+
+}
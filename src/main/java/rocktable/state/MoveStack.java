@@ -0,0 +1,142 @@
+package rocktable.state;
+
+import java.util.Arrays;
+
+/**
+ * The actions performed on a {@link GameState}, stored as packed deltas on a
+ * primitive stack, so any action can be undone and redone in constant time.
+ *
+ * <p>Bits {@code 0..2} of a move hold the argument of the action and bits
+ * {@code 3..4} its type. The rest of the move stores the flags of the turn
+ * before the action: the chosen row plus one in bits {@code 5..7}, the
+ * left-most column in bits {@code 8..10} and whether a rock was picked up in
+ * bit {@code 11}. The moves undone are kept above the top of the stack until
+ * a different action is performed, so they can be redone.</p>
+ */
+final class MoveStack {
+
+    static final int CHOOSE_ROW = 0;
+
+    static final int PICKUP_ROCK = 1;
+
+    static final int PLACE_ROCK = 2;
+
+    static final int END_TURN = 3;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private int[] moves = new int[INITIAL_CAPACITY];
+
+    /**
+     * The number of moves performed.
+     */
+    private int size;
+
+    /**
+     * The number of moves performed and the moves that can be redone.
+     */
+    private int limit;
+
+    /**
+     * Packs an action and the flags of the turn before the action into a move.
+     *
+     * @param type the type of the action
+     * @param argument the row or the column of the action
+     * @param chosenRow the chosen row before the action, or {@code -1}
+     * @param leftMostCol the left-most column before the action
+     * @param pickedUp whether a rock was picked up before the action
+     * @return the packed move
+     */
+    static int of(int type, int argument, int chosenRow, int leftMostCol, boolean pickedUp) {
+        return argument | type << 3 | chosenRow + 1 << 5 | leftMostCol << 8 | (pickedUp ? 1 << 11 : 0);
+    }
+
+    static int type(int move) {
+        return move >>> 3 & 0x3;
+    }
+
+    static int argument(int move) {
+        return move & 0x7;
+    }
+
+    static int chosenRow(int move) {
+        return (move >>> 5 & 0x7) - 1;
+    }
+
+    static int leftMostCol(int move) {
+        return move >>> 8 & 0x7;
+    }
+
+    static boolean pickedUp(int move) {
+        return (move & 1 << 11) != 0;
+    }
+
+    /**
+     * Pushes a move performed. The moves undone are discarded, unless the move
+     * is the next one of them.
+     *
+     * @param move the packed move
+     */
+    void push(int move) {
+        if (size < limit && moves[size] == move) {
+            size++;
+            return;
+        }
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, size * 2);
+        }
+        moves[size++] = move;
+        limit = size;
+    }
+
+    boolean canUndo() {
+        return size > 0;
+    }
+
+    /**
+     * Removes the last move performed, keeping it to be redone.
+     *
+     * @return the packed move
+     * @throws IllegalStateException if there is no move to undo
+     */
+    int pop() {
+        if (size == 0) {
+            throw new IllegalStateException("There is no action to undo");
+        }
+        return moves[--size];
+    }
+
+    boolean canRedo() {
+        return size < limit;
+    }
+
+    /**
+     * Performs the next move undone on the specified state, which pushes it
+     * back to the stack.
+     *
+     * @param state the state owning the stack
+     * @throws IllegalStateException if there is no move to redo
+     */
+    void redo(GameState state) {
+        if (size == limit) {
+            throw new IllegalStateException("There is no action to redo");
+        }
+        int move = moves[size];
+        int argument = argument(move);
+        switch (type(move)) {
+            case CHOOSE_ROW:
+                state.setChosenRow(argument);
+                break;
+            case PICKUP_ROCK:
+                state.pickupRock(argument);
+                break;
+            case PLACE_ROCK:
+                state.placeRock(argument);
+                break;
+            default:
+                state.endTurn();
+                break;
+        }
+    }
+
+}
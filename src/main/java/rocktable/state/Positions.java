@@ -0,0 +1,138 @@
+package rocktable.state;
+
+import static rocktable.state.BitboardRockTableState.TABLE_MASK;
+
+/**
+ * Helper methods for positions packed into a {@code long}.
+ *
+ * <p>A position is the state of the game at the start of a turn: bits
+ * {@code 0..24} hold the table as in {@link BitboardRockTableState}, bits
+ * {@code 25..29} the rocks of the player to move, bits {@code 30..34} the
+ * rocks of the opponent and bit {@code 35} the index of the player to move.</p>
+ */
+public final class Positions {
+
+    private static final int MOVER_SHIFT = 25;
+    private static final int OPPONENT_SHIFT = 30;
+    private static final int PLAYER_SHIFT = 35;
+    private static final int ROCKS_MASK = 0x1F;
+
+    /**
+     * The largest amount of rocks a player can have.
+     */
+    public static final int MAX_ROCKS = 25;
+
+    private Positions() {
+    }
+
+    /**
+     * Packs the specified values into a position.
+     *
+     * @param table the packed representation of the table
+     * @param moverRocks the amount of rocks the player to move have
+     * @param opponentRocks the amount of rocks the opponent have
+     * @param activePlayer the index of the player to move
+     * @return the packed position
+     */
+    public static long of(int table, int moverRocks, int opponentRocks, int activePlayer) {
+        return (long) table
+                | (long) moverRocks << MOVER_SHIFT
+                | (long) opponentRocks << OPPONENT_SHIFT
+                | (long) activePlayer << PLAYER_SHIFT;
+    }
+
+    /**
+     * Returns the position of the specified state.
+     *
+     * @param state a state at the start of a turn
+     * @return the packed position
+     * @throws IllegalStateException if the active player already chose a row in this turn
+     */
+    public static long of(GameState state) {
+        if (state.isRowChosen()) {
+            throw new IllegalStateException("The turn is already in progress");
+        }
+        int player = state.getActivePlayer();
+        int[] rocks = state.getRocks();
+        return of(state.getTableBits(), rocks[player], rocks[player ^ 1], player);
+    }
+
+    /**
+     * Creates a state at the start of the turn of the specified position.
+     *
+     * @param position the packed position
+     * @return a new state representing the position
+     */
+    public static BitboardRockTableState toState(long position) {
+        int player = activePlayer(position);
+        int mover = moverRocks(position);
+        int opponent = opponentRocks(position);
+        return new BitboardRockTableState(table(position),
+                player == 0 ? mover : opponent,
+                player == 0 ? opponent : mover,
+                player);
+    }
+
+    /**
+     * Returns the packed table of the position.
+     *
+     * @param position the packed position
+     * @return the bits of the table
+     */
+    public static int table(long position) {
+        return (int) position & TABLE_MASK;
+    }
+
+    /**
+     * Returns the amount of rocks the player to move have.
+     *
+     * @param position the packed position
+     * @return the rocks of the player to move
+     */
+    public static int moverRocks(long position) {
+        return (int) (position >>> MOVER_SHIFT) & ROCKS_MASK;
+    }
+
+    /**
+     * Returns the amount of rocks the opponent of the player to move have.
+     *
+     * @param position the packed position
+     * @return the rocks of the opponent
+     */
+    public static int opponentRocks(long position) {
+        return (int) (position >>> OPPONENT_SHIFT) & ROCKS_MASK;
+    }
+
+    /**
+     * Returns the index of the player to move.
+     *
+     * @param position the packed position
+     * @return {@code 0} if the first player is to move, {@code 1} otherwise
+     */
+    public static int activePlayer(long position) {
+        return (int) (position >>> PLAYER_SHIFT) & 1;
+    }
+
+    /**
+     * Checks whether the game is finished in the position. The player to move
+     * in a finished position is the winner of the game.
+     *
+     * @param position the packed position
+     * @return {@code true} if the table is empty, {@code false} otherwise
+     */
+    public static boolean isFinished(long position) {
+        return table(position) == 0;
+    }
+
+    /**
+     * Returns the total amount of rocks in the position, that is the rocks on
+     * the table and the rocks of both players. No turn changes this value.
+     *
+     * @param position the packed position
+     * @return the total amount of rocks
+     */
+    public static int totalRocks(long position) {
+        return Integer.bitCount(table(position)) + moverRocks(position) + opponentRocks(position);
+    }
+
+}
@@ -2,6 +2,8 @@ package rocktable.state;
 
 import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
@@ -9,15 +11,19 @@ import java.util.Arrays;
 
 /**
  * The class that represents the state of the Rock Table game.
+ *
+ * <p>Every state owns a copy of its table, so any number of games can be
+ * played in the same JVM, and {@link #getTable()} returns a copy as well.</p>
  */
 @Data
 @Slf4j
-public class RockTableState {
+public class RockTableState implements GameState {
 
     /**
-     * The array representing the initial state of the table.
+     * The array representing the initial state of the table. The states copy
+     * it and never modify it.
      */
-    public static final int[][] INITIAL = {
+    private static final int[][] INITIAL = {
             {1, 0, 0, 0, 0},
             {1, 1, 1, 0, 0},
             {0, 0, 1, 0, 0},
@@ -65,15 +71,24 @@ public class RockTableState {
     /**
      * The array represents the current state of the table.
      */
+    @Getter(AccessLevel.NONE)
     @Setter(AccessLevel.NONE)
     private int[][] table;
 
+    /**
+     * The actions performed, to be undone and redone.
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    private final MoveStack moves = new MoveStack();
+
     /**
      * Creates a {@code RockTableState} object representing the (original)
      * initial state of the game.
      */
     public RockTableState(){
-        this.table=INITIAL;
+        this.table=copyOf(INITIAL);
     }
 
 
@@ -87,18 +102,59 @@ public class RockTableState {
      *                                  configuration of the table
      */
     public RockTableState(int[][] a){
-        if (!isValidTable(a)){
+        if (!isValidTable(a) || sumOfTable(a) == 0){
+            throw new IllegalArgumentException();
+        }
+
+        this.table = copyOf(a);
+    }
+
+    /**
+     * Creates a {@code RockTableState} object at the start of a turn
+     * with the specified table and rocks.
+     *
+     * @param a an array of size 5&#xd7;5 representing the table
+     * @param rocks0 the amount of rocks the first player have
+     * @param rocks1 the amount of rocks the second player have
+     * @param activePlayer the index of the active player
+     * @throws IllegalArgumentException if the values do not represent a valid state
+     */
+    public RockTableState(int[][] a, int rocks0, int rocks1, int activePlayer){
+        if (!isValidTable(a) || rocks0 < 0 || rocks1 < 0 || (activePlayer & ~1) != 0){
             throw new IllegalArgumentException();
         }
+        this.table = copyOf(a);
+        this.rocks[0] = rocks0;
+        this.rocks[1] = rocks1;
+        this.activePlayer = activePlayer;
+    }
 
-        this.table = a;
+    /**
+     * Returns the initial state of the table.
+     *
+     * @return a new array of size 5&#xd7;5 representing the initial
+     * configuration of the table
+     */
+    public static int[][] initialTable() {
+        return copyOf(INITIAL);
+    }
+
+    private static int[][] copyOf(int[][] a){
+        int[][] copy = new int[a.length][];
+        for (int i = 0; i < a.length; i++) {
+            copy[i] = a[i].clone();
+        }
+        return copy;
     }
 
     private boolean isValidTable(int[][] a){
-        if (a == null || a.length != 5 || sumOfTable(a) == 0) {
+        if (a == null || a.length != 5) {
             return false;
         }
         for (int[] ints : a) {
+            if (ints == null || ints.length != 5) {
+                return false;
+            }
             for (int j = 0; j < a.length; j++) {
                 if (ints[j] != 0 && ints[j] != 1) {
                     return false;
@@ -118,6 +174,44 @@ public class RockTableState {
         return sum;
     }
 
+    /**
+     * Returns a copy of the current state of the table.
+     *
+     * @return a new array of size 5&#xd7;5 representing the table
+     */
+    public int[][] getTable(){
+        return copyOf(table);
+    }
+
+    /**
+     * Returns the packed representation of the table, see
+     * {@link BitboardRockTableState}.
+     *
+     * @return the bits of the table
+     */
+    public int getTableBits(){
+        int bits = 0;
+        for (int i = 0; i < table.length; i++) {
+            for (int j = 0; j < table.length; j++) {
+                if (table[i][j] == 1){
+                    bits |= BitboardRockTableState.bit(i,j);
+                }
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * Checks whether there is a rock at the specified position of the table.
+     *
+     * @param row the row of the position
+     * @param col the column of the position
+     * @return {@code true} if there is a rock at the position, {@code false} otherwise
+     */
+    public boolean isOccupied(int row, int col){
+        return table[row][col] == 1;
+    }
+
     /**
      * Checks whether the game is finished.
      *
@@ -141,6 +235,7 @@ public class RockTableState {
             throw new IllegalArgumentException();
         }
         else{
+            moves.push(MoveStack.of(MoveStack.CHOOSE_ROW,n,chosenRow,leftMostCol,isPickedUp));
             chosenRow=n;
             isRowChosen=true;
             log.info("Player{} chose row {}.",activePlayer+1,chosenRow);
@@ -206,6 +301,7 @@ public class RockTableState {
      */
     public void pickupRock(int n){
         if (isPickupable(n)){
+            moves.push(MoveStack.of(MoveStack.PICKUP_ROCK,n,chosenRow,leftMostCol,isPickedUp));
             rocks[activePlayer]++;
             table[chosenRow][n]=0;
             if (n<leftMostCol){
@@ -256,6 +352,7 @@ public class RockTableState {
      */
     public void placeRock(int n){
         if (isPlaceable(n)){
+            moves.push(MoveStack.of(MoveStack.PLACE_ROCK,n,chosenRow,leftMostCol,isPickedUp));
             table[chosenRow][n]=1;
             rocks[activePlayer]--;
             log.info("Player{} placing down to ({};{}), rocks: {}",activePlayer+1,chosenRow,n,rocks[activePlayer]);
@@ -280,6 +377,7 @@ public class RockTableState {
      */
     public void endTurn(){
         if (canBeEnded()){
+            moves.push(MoveStack.of(MoveStack.END_TURN,0,chosenRow,leftMostCol,isPickedUp));
             switch (activePlayer){
                 case 0:
                     activePlayer=1;
@@ -303,6 +401,64 @@ public class RockTableState {
 
     }
 
+    /**
+     * Checks whether there is an action that can be undone.
+     *
+     * @return {@code true} if an action was performed on the state,
+     * {@code false} otherwise
+     */
+    public boolean canUndo(){
+        return moves.canUndo();
+    }
+
+    /**
+     * Reverts the last action performed on the state.
+     *
+     * @throws IllegalStateException if there is no action to undo
+     */
+    public void undo(){
+        int move = moves.pop();
+        switch (MoveStack.type(move)){
+            case MoveStack.CHOOSE_ROW:
+                break;
+            case MoveStack.PICKUP_ROCK:
+                table[chosenRow][MoveStack.argument(move)]=1;
+                rocks[activePlayer]--;
+                break;
+            case MoveStack.PLACE_ROCK:
+                table[chosenRow][MoveStack.argument(move)]=0;
+                rocks[activePlayer]++;
+                break;
+            default:
+                activePlayer=1-activePlayer;
+                break;
+        }
+        chosenRow=MoveStack.chosenRow(move);
+        isRowChosen=chosenRow>=0;
+        leftMostCol=MoveStack.leftMostCol(move);
+        isPickedUp=MoveStack.pickedUp(move);
+        log.info("Player{} undid an action.",activePlayer+1);
+    }
+
+    /**
+     * Checks whether there is an undone action that can be redone.
+     *
+     * @return {@code true} if an action was undone and no other action was
+     * performed since, {@code false} otherwise
+     */
+    public boolean canRedo(){
+        return moves.canRedo();
+    }
+
+    /**
+     * Performs the last action undone again.
+     *
+     * @throws IllegalStateException if there is no action to redo
+     */
+    public void redo(){
+        moves.redo(this);
+    }
+
     /**
      * Create a {@code String} representation of the current game.
      *
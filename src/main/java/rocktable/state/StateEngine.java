@@ -0,0 +1,100 @@
+package rocktable.state;
+
+import java.util.Locale;
+
+/**
+ * The available implementations of {@link GameState}.
+ *
+ * <p>The implementation used by the application can be selected with the
+ * {@value #PROPERTY} system property, e.g. {@code -Drocktable.state.engine=bitboard}.</p>
+ */
+public enum StateEngine {
+
+    /**
+     * The state backed by a two-dimensional array, see {@link RockTableState}.
+     */
+    ARRAY {
+        @Override
+        public GameState newState() {
+            return new RockTableState();
+        }
+
+        @Override
+        public GameState newState(int[][] a) {
+            return new RockTableState(a);
+        }
+
+        @Override
+        public GameState newState(long position) {
+            int player = Positions.activePlayer(position);
+            int mover = Positions.moverRocks(position);
+            int opponent = Positions.opponentRocks(position);
+            return new RockTableState(BitboardRockTableState.unpack(Positions.table(position)),
+                    player == 0 ? mover : opponent,
+                    player == 0 ? opponent : mover,
+                    player);
+        }
+    },
+
+    /**
+     * The state backed by a packed table, see {@link BitboardRockTableState}.
+     */
+    BITBOARD {
+        @Override
+        public GameState newState() {
+            return new BitboardRockTableState();
+        }
+
+        @Override
+        public GameState newState(int[][] a) {
+            return new BitboardRockTableState(a);
+        }
+
+        @Override
+        public GameState newState(long position) {
+            return Positions.toState(position);
+        }
+    };
+
+    /**
+     * The name of the system property selecting the implementation.
+     */
+    public static final String PROPERTY = "rocktable.state.engine";
+
+    /**
+     * Creates a state representing the (original) initial state of the game.
+     *
+     * @return a new state
+     */
+    public abstract GameState newState();
+
+    /**
+     * Creates a state that is initialized with the specified array.
+     *
+     * @param a an array of size 5&#xd7;5 representing the initial configuration
+     *          of the table
+     * @return a new state
+     * @throws IllegalArgumentException if the array does not represent a valid
+     *                                  configuration of the table
+     */
+    public abstract GameState newState(int[][] a);
+
+    /**
+     * Creates a state at the start of the turn of the specified position.
+     *
+     * @param position the packed position, see {@link Positions}
+     * @return a new state representing the position
+     */
+    public abstract GameState newState(long position);
+
+    /**
+     * Returns the implementation selected by the {@value #PROPERTY} system property,
+     * or {@link #ARRAY} if the property is not set.
+     *
+     * @return the selected implementation
+     */
+    public static StateEngine fromSystemProperties() {
+        return valueOf(System.getProperty(PROPERTY, ARRAY.name()).toUpperCase(Locale.ROOT));
+    }
+
+}
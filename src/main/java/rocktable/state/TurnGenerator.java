@@ -0,0 +1,106 @@
+package rocktable.state;
+
+import java.util.Arrays;
+
+import static rocktable.state.BitboardRockTableState.ROW_BITS;
+import static rocktable.state.BitboardRockTableState.ROW_MASK;
+
+/**
+ * Generates the legal complete turns of a position.
+ *
+ * <p>In a turn the player picks up the rock at the left-most column {@code l}
+ * of the turn, may freely change the columns to the right of {@code l} and
+ * must leave the columns to the left of {@code l} untouched. The successors
+ * of every row content are computed once, and the turns are written into a
+ * buffer supplied by the caller, so generating the turns does not allocate.
+ * Every generated turn leads to a different position.</p>
+ */
+public final class TurnGenerator {
+
+    /**
+     * The maximum number of turns a position can have, which is also the
+     * size of a buffer large enough for {@link #generate(long, int[])}.
+     */
+    public static final int MAX_TURNS = 5 * 31;
+
+    /**
+     * The possible contents of a row after a turn, indexed by the content of
+     * the row before the turn.
+     */
+    private static final int[][] SUCCESSORS = new int[ROW_MASK + 1][];
+
+    static {
+        for (int row = 0; row <= ROW_MASK; row++) {
+            int count = 0;
+            int[] successors = new int[31];
+            for (int rest = row; rest != 0; rest &= rest - 1) {
+                int first = Integer.lowestOneBit(rest);
+                int kept = row & ~(first | first - 1);
+                for (int right = 0; right < first; right++) {
+                    successors[count++] = kept | right;
+                }
+            }
+            SUCCESSORS[row] = Arrays.copyOf(successors, count);
+        }
+    }
+
+    private TurnGenerator() {
+    }
+
+    /**
+     * Writes the legal turns of the position into the buffer.
+     *
+     * @param position the packed position
+     * @param buffer the array receiving the turns, of size at least {@link #MAX_TURNS}
+     * @return the number of turns written into the buffer
+     */
+    public static int generate(long position, int[] buffer) {
+        int table = Positions.table(position);
+        if (table == 0) {
+            return 0;
+        }
+        if ((table & table - 1) == 0) {
+            // picking up the only rock empties the table, so nothing can be placed
+            int row = Integer.numberOfTrailingZeros(table) / ROW_BITS;
+            buffer[0] = Turns.of(row, table >>> row * ROW_BITS, 0);
+            return 1;
+        }
+        int rocks = Positions.moverRocks(position);
+        int count = 0;
+        for (int row = 0; row < 5; row++) {
+            int before = table >>> row * ROW_BITS & ROW_MASK;
+            if (before == 0) {
+                continue;
+            }
+            int available = rocks + Integer.bitCount(before);
+            for (int after : SUCCESSORS[before]) {
+                if (Integer.bitCount(after) <= available) {
+                    buffer[count++] = Turns.of(row, before, after);
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the possible contents of a row after a turn, ignoring the rocks
+     * available to the player.
+     *
+     * @param row the content of the row before the turn
+     * @return a new array containing the contents of the row after the turn
+     */
+    public static int[] rowSuccessors(int row) {
+        return SUCCESSORS[row].clone();
+    }
+
+    /**
+     * Counts the legal turns of the position.
+     *
+     * @param position the packed position
+     * @return the number of legal turns
+     */
+    public static int count(long position) {
+        return generate(position, new int[MAX_TURNS]);
+    }
+
+}
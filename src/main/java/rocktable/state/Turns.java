@@ -0,0 +1,193 @@
+package rocktable.state;
+
+import static rocktable.state.BitboardRockTableState.ROW_BITS;
+import static rocktable.state.BitboardRockTableState.ROW_MASK;
+
+/**
+ * Helper methods for complete turns packed into an {@code int}.
+ *
+ * <p>A turn is identified by the chosen row and the content of that row before
+ * and after the turn: bits {@code 0..2} hold the row, bits {@code 3..7} the row
+ * before and bits {@code 8..12} the row after the turn, using the same bit
+ * order as {@link BitboardRockTableState}. The rocks picked up and placed are
+ * derived from the difference of the two rows, so two sequences of actions that
+ * lead to the same position are the same turn.</p>
+ */
+public final class Turns {
+
+    private static final int BEFORE_SHIFT = 3;
+    private static final int AFTER_SHIFT = 8;
+
+    private Turns() {
+    }
+
+    /**
+     * Packs the specified values into a turn.
+     *
+     * @param row the chosen row
+     * @param before the content of the row before the turn
+     * @param after the content of the row after the turn
+     * @return the packed turn
+     */
+    public static int of(int row, int before, int after) {
+        return row | before << BEFORE_SHIFT | after << AFTER_SHIFT;
+    }
+
+    /**
+     * Returns the chosen row of the turn.
+     *
+     * @param turn the packed turn
+     * @return the chosen row
+     */
+    public static int row(int turn) {
+        return turn & 0x7;
+    }
+
+    /**
+     * Returns the content of the chosen row before the turn.
+     *
+     * @param turn the packed turn
+     * @return the bits of the row before the turn
+     */
+    public static int before(int turn) {
+        return turn >>> BEFORE_SHIFT & ROW_MASK;
+    }
+
+    /**
+     * Returns the content of the chosen row after the turn.
+     *
+     * @param turn the packed turn
+     * @return the bits of the row after the turn
+     */
+    public static int after(int turn) {
+        return turn >>> AFTER_SHIFT & ROW_MASK;
+    }
+
+    /**
+     * Returns the positions of the chosen row where a rock is picked up.
+     *
+     * @param turn the packed turn
+     * @return the bits of the row where a rock is picked up
+     */
+    public static int pickedUp(int turn) {
+        return before(turn) & ~after(turn);
+    }
+
+    /**
+     * Returns the positions of the chosen row where a rock is placed.
+     *
+     * @param turn the packed turn
+     * @return the bits of the row where a rock is placed
+     */
+    public static int placed(int turn) {
+        return after(turn) & ~before(turn);
+    }
+
+    /**
+     * Returns the left-most column where a rock is picked up in the turn.
+     *
+     * @param turn the packed turn
+     * @return the left-most column of the turn
+     */
+    public static int leftMostCol(int turn) {
+        return column(Integer.highestOneBit(pickedUp(turn)));
+    }
+
+    /**
+     * Returns the column stored in the specified bit of a row.
+     *
+     * @param rowBit a single bit of a row
+     * @return the column of the bit
+     */
+    public static int column(int rowBit) {
+        return 4 - Integer.numberOfTrailingZeros(rowBit);
+    }
+
+    /**
+     * Returns the position reached by playing the specified turn.
+     *
+     * @param position the packed position
+     * @param turn a legal turn in the position
+     * @return the packed position after the turn
+     */
+    public static long play(long position, int turn) {
+        int shift = row(turn) * ROW_BITS;
+        int table = Positions.table(position) & ~(ROW_MASK << shift) | after(turn) << shift;
+        int mover = Positions.moverRocks(position)
+                + Integer.bitCount(before(turn)) - Integer.bitCount(after(turn));
+        return Positions.of(table, Positions.opponentRocks(position), mover,
+                Positions.activePlayer(position) ^ 1);
+    }
+
+    /**
+     * Plays the specified turn on the state with the actions of the game and
+     * ends the turn. The rocks are picked up and placed in an order that is
+     * legal whenever the turn itself is legal.
+     *
+     * @param state a state at the start of a turn
+     * @param turn a legal turn in the state
+     * @throws IllegalArgumentException if the turn is not legal in the state
+     */
+    public static void apply(GameState state, int turn) {
+        int picked = pickedUp(turn);
+        int placed = placed(turn);
+        int first = Integer.highestOneBit(picked);
+        if (first == 0) {
+            throw new IllegalArgumentException();
+        }
+        state.setChosenRow(row(turn));
+        state.pickupRock(column(first));
+        picked &= ~first;
+        int rocks = state.getRocks()[state.getActivePlayer()];
+        while (placed != 0 || picked != 0) {
+            if (placed != 0 && rocks > 0) {
+                int next = Integer.lowestOneBit(placed);
+                state.placeRock(column(next));
+                placed &= ~next;
+                rocks--;
+            } else if (picked != 0) {
+                int next = Integer.lowestOneBit(picked);
+                state.pickupRock(column(next));
+                picked &= ~next;
+                rocks++;
+            } else {
+                throw new IllegalArgumentException();
+            }
+        }
+        state.endTurn();
+    }
+
+    /**
+     * Undoes the actions of the current turn of the state, or of the previous
+     * turn if no row is chosen in the current one, so the state is at the
+     * start of a turn again.
+     *
+     * @param state a state
+     * @throws IllegalStateException if there is no action to undo
+     */
+    public static void undo(GameState state) {
+        do {
+            state.undo();
+        } while (state.isRowChosen());
+    }
+
+    /**
+     * Creates a {@code String} representation of the turn.
+     *
+     * @param turn the packed turn
+     * @return the {@code String} representation of the turn
+     */
+    public static String toString(int turn) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("row ").append(row(turn)).append(": ");
+        for (int col = 0; col < 5; col++) {
+            sb.append((before(turn) >>> 4 - col & 1) == 1 ? '1' : '0');
+        }
+        sb.append(" -> ");
+        for (int col = 0; col < 5; col++) {
+            sb.append((after(turn) >>> 4 - col & 1) == 1 ? '1' : '0');
+        }
+        return sb.toString();
+    }
+
+}
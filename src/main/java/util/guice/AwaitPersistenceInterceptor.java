@@ -0,0 +1,23 @@
+package util.guice;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import javax.inject.Inject;
+
+/**
+ * Makes the methods of the DAOs wait until the persistence is ready, so they
+ * can be called while the persistence service is still starting.
+ */
+class AwaitPersistenceInterceptor implements MethodInterceptor {
+
+    @Inject
+    private JpaInitializer jpaInitializer;
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        jpaInitializer.awaitReady();
+        return invocation.proceed();
+    }
+
+}
@@ -1,18 +1,109 @@
 package util.guice;
 
 import com.google.inject.persist.PersistService;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import util.jpa.SchemaUpdater;
 
 import javax.inject.Inject;
+import javax.inject.Provider;
 import javax.inject.Singleton;
+import javax.persistence.EntityManagerFactory;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
-@SuppressWarnings("checkstyle:MissingJavadocType")
+/**
+ * Starts the persistence service on a background thread, so creating the
+ * injector does not wait for the connection pool, Hibernate and the caches.
+ *
+ * <p>Once the service is started, the schema of the database is brought up to
+ * the version set by the {@value #SCHEMA_VERSION_PROPERTY} property of the
+ * persistence unit with the scripts at {@value #SCHEMA_LOCATION_PROPERTY},
+ * see {@link SchemaUpdater}. The DAOs installed by {@link PersistenceModule}
+ * wait until the persistence is {@link #ready() ready}.</p>
+ */
+@Slf4j
 @Singleton
 public class JpaInitializer {
 
+    /**
+     * The name of the property of the persistence unit setting the version of the schema.
+     */
+    public static final String SCHEMA_VERSION_PROPERTY = "util.jpa.schema.version";
+
+    /**
+     * The name of the property of the persistence unit setting the prefix of the schema scripts.
+     */
+    public static final String SCHEMA_LOCATION_PROPERTY = "util.jpa.schema.location";
+
+    private final CompletableFuture<Void> ready = new CompletableFuture<>();
+
     @SuppressWarnings("checkstyle:MissingJavadocMethod")
     @Inject
-    public JpaInitializer (PersistService persistService) {
-        persistService.start();
+    public JpaInitializer(PersistService persistService, Provider<EntityManagerFactory> entityManagerFactoryProvider) {
+        Thread thread = new Thread(() -> {
+            try {
+                long start = System.nanoTime();
+                persistService.start();
+                long started = System.nanoTime();
+                int scripts = updateSchema(entityManagerFactoryProvider.get());
+                log.info("Persistence started in {} ms, {} schema scripts run in {} ms",
+                        (started - start) / 1_000_000, scripts, (System.nanoTime() - started) / 1_000_000);
+                ready.complete(null);
+            } catch (RuntimeException e) {
+                log.error("Persistence failed to start", e);
+                ready.completeExceptionally(e);
+            }
+        }, "persistence-bootstrap");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private static int updateSchema(EntityManagerFactory entityManagerFactory) {
+        Map<String, Object> properties = entityManagerFactory.getProperties();
+        Object version = properties.get(SCHEMA_VERSION_PROPERTY);
+        if (version == null) {
+            return 0;
+        }
+        Object location = properties.getOrDefault(SCHEMA_LOCATION_PROPERTY, "/META-INF/schema/");
+        SchemaUpdater schemaUpdater = new SchemaUpdater(location.toString().trim(), Integer.parseInt(version.toString().trim()));
+        try (Session session = entityManagerFactory.unwrap(SessionFactory.class).openSession()) {
+            return session.doReturningWork(schemaUpdater::update);
+        }
+    }
+
+    /**
+     * Returns a future completed when the persistence service is started and
+     * the schema is current.
+     *
+     * @return a future completed when the persistence is ready
+     */
+    public CompletableFuture<Void> ready() {
+        return ready;
+    }
+
+    /**
+     * Returns whether the persistence service is started and the schema is current.
+     *
+     * @return whether the persistence is ready
+     */
+    public boolean isReady() {
+        return ready.isDone() && !ready.isCompletedExceptionally();
+    }
+
+    /**
+     * Waits until the persistence service is started and the schema is current.
+     *
+     * @throws IllegalStateException if the persistence service failed to start
+     */
+    public void awaitReady() {
+        try {
+            ready.join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("Persistence failed to start", e.getCause());
+        }
     }
 
 }
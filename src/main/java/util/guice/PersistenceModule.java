@@ -1,21 +1,76 @@
 package util.guice;
 
 import com.google.inject.AbstractModule;
+import com.google.inject.matcher.AbstractMatcher;
+import com.google.inject.matcher.Matchers;
 import com.google.inject.persist.jpa.JpaPersistModule;
+import util.jpa.GenericJpaDao;
 
-@SuppressWarnings("checkstyle:MissingJavadocType")
+import java.lang.reflect.Method;
+import java.util.Properties;
+
+/**
+ * Installs JPA persistence for a persistence unit. The properties of the
+ * persistence unit can be overridden with the {@code javax.persistence.*} and
+ * {@code hibernate.*} system properties, e.g.
+ * {@code -Dhibernate.hikari.maximumPoolSize=8} sets the size of the connection
+ * pool and {@code -Djavax.persistence.jdbc.url=jdbc:h2:tcp://localhost/~/.h2/rocktable}
+ * connects to a standalone H2 server.
+ *
+ * <p>The persistence service is started in the background by the
+ * {@link JpaInitializer}, and the methods of the {@link GenericJpaDao}
+ * subclasses wait until it is ready.</p>
+ */
 public class PersistenceModule extends AbstractModule {
 
     private String jpaUnit;
 
-    @SuppressWarnings("checkstyle:MissingJavadocMethod")
+    private Properties properties;
+
+    /**
+     * Creates a {@code PersistenceModule} overriding the properties of the
+     * persistence unit with the system properties.
+     *
+     * @param jpaUnit the name of the persistence unit
+     */
     public PersistenceModule(String jpaUnit) {
+        this(jpaUnit, overrides(System.getProperties()));
+    }
+
+    /**
+     * Creates a {@code PersistenceModule} overriding the properties of the
+     * persistence unit with the specified properties.
+     *
+     * @param jpaUnit the name of the persistence unit
+     * @param properties the properties overriding the ones of the persistence unit
+     */
+    public PersistenceModule(String jpaUnit, Properties properties) {
         this.jpaUnit = jpaUnit;
+        this.properties = properties;
+    }
+
+    private static Properties overrides(Properties systemProperties) {
+        Properties overrides = new Properties();
+        for (String name : systemProperties.stringPropertyNames()) {
+            if (name.startsWith("javax.persistence.") || name.startsWith("hibernate.")) {
+                overrides.setProperty(name, systemProperties.getProperty(name));
+            }
+        }
+        return overrides;
     }
 
     @Override
     protected void configure() {
-        install(new JpaPersistModule(jpaUnit));
+        AwaitPersistenceInterceptor awaitPersistenceInterceptor = new AwaitPersistenceInterceptor();
+        requestInjection(awaitPersistenceInterceptor);
+        // Bound before the transaction interceptor, so no unit of work is begun before the service is started.
+        bindInterceptor(Matchers.subclassesOf(GenericJpaDao.class), new AbstractMatcher<Method>() {
+            @Override
+            public boolean matches(Method method) {
+                return method.getDeclaringClass() != Object.class;
+            }
+        }, awaitPersistenceInterceptor);
+        install(new JpaPersistModule(jpaUnit).properties(properties));
         bind(JpaInitializer.class).asEagerSingleton();
     }
 
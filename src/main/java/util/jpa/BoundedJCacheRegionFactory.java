@@ -0,0 +1,69 @@
+package util.jpa;
+
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+
+import javax.cache.Cache;
+import javax.cache.configuration.MutableConfiguration;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * A JCache region factory creating Ehcache caches with a bounded number of
+ * entries and a time to live, both set by properties of the persistence unit:
+ * {@value #MAX_ENTRIES_PROPERTY} and {@value #TIME_TO_LIVE_PROPERTY} (in
+ * seconds).
+ *
+ * <p>The region of the update timestamps of the tables is neither bounded nor
+ * expired, since a query result is only known to be stale while the timestamps
+ * of its tables are cached.</p>
+ */
+public class BoundedJCacheRegionFactory extends JCacheRegionFactory {
+
+    /**
+     * The name of the property setting the maximum number of entries of a region.
+     */
+    public static final String MAX_ENTRIES_PROPERTY = "hibernate.cache.region.max_entries";
+
+    /**
+     * The name of the property setting the time to live of the entries in seconds.
+     */
+    public static final String TIME_TO_LIVE_PROPERTY = "hibernate.cache.region.time_to_live_seconds";
+
+    private static final long DEFAULT_MAX_ENTRIES = 10_000;
+
+    private static final long DEFAULT_TIME_TO_LIVE_SECONDS = 300;
+
+    private long maxEntries = DEFAULT_MAX_ENTRIES;
+
+    private Duration timeToLive = Duration.ofSeconds(DEFAULT_TIME_TO_LIVE_SECONDS);
+
+    @Override
+    protected void prepareForUse(SessionFactoryOptions settings, @SuppressWarnings("rawtypes") Map configValues) {
+        maxEntries = longProperty(configValues, MAX_ENTRIES_PROPERTY, DEFAULT_MAX_ENTRIES);
+        timeToLive = Duration.ofSeconds(longProperty(configValues, TIME_TO_LIVE_PROPERTY, DEFAULT_TIME_TO_LIVE_SECONDS));
+        super.prepareForUse(settings, configValues);
+    }
+
+    @Override
+    protected Cache<Object, Object> createCache(String regionName) {
+        if (regionName.endsWith(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME)) {
+            return getCacheManager().createCache(regionName, new MutableConfiguration<>());
+        }
+        return getCacheManager().createCache(regionName, Eh107Configuration.fromEhcacheCacheConfiguration(
+                CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class,
+                        ResourcePoolsBuilder.heap(maxEntries))
+                        .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(timeToLive))));
+    }
+
+    private static long longProperty(Map<?, ?> configValues, String name, long defaultValue) {
+        Object value = configValues.get(name);
+        return value == null ? defaultValue : Long.parseLong(value.toString().trim());
+    }
+
+}
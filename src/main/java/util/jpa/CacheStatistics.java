@@ -0,0 +1,56 @@
+package util.jpa;
+
+import lombok.Value;
+
+/**
+ * Statistics of the second-level cache and the query cache of a persistence unit.
+ */
+@Value
+public class CacheStatistics {
+
+    /**
+     * The number of entity instances found in the second-level cache.
+     */
+    long secondLevelCacheHits;
+
+    /**
+     * The number of entity instances looked up in the second-level cache but not found.
+     */
+    long secondLevelCacheMisses;
+
+    /**
+     * The number of entity instances put into the second-level cache.
+     */
+    long secondLevelCachePuts;
+
+    /**
+     * The number of query results found in the query cache.
+     */
+    long queryCacheHits;
+
+    /**
+     * The number of query results looked up in the query cache but not found.
+     */
+    long queryCacheMisses;
+
+    /**
+     * The number of query results put into the query cache.
+     */
+    long queryCachePuts;
+
+    /**
+     * The number of queries executed in the database.
+     */
+    long queryExecutions;
+
+    /**
+     * Returns the ratio of the query results found in the query cache.
+     *
+     * @return the hit ratio of the query cache, or {@code 0} if the cache was not used
+     */
+    public double getQueryCacheHitRatio() {
+        long lookups = queryCacheHits + queryCacheMisses;
+        return lookups == 0 ? 0 : (double) queryCacheHits / lookups;
+    }
+
+}
@@ -1,23 +1,60 @@
 package util.jpa;
 
 import com.google.inject.persist.Transactional;
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 
 import javax.inject.Inject;
+import javax.inject.Provider;
 import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
 import javax.persistence.TypedQuery;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Generic JPA DAO class that provides JPA support for the entity class
  * specified.
  *
+ * <p>The {@link EntityManager} is obtained from a provider on every call, so
+ * a DAO instance can be shared between threads: each thread works with the
+ * entity manager of its own unit of work.</p>
+ *
  * @param <T> the type of the entity class
  */
 public abstract class GenericJpaDao<T> {
 
+    /**
+     * The name of the property of the persistence unit setting the JDBC batch size.
+     */
+    public static final String BATCH_SIZE_PROPERTY = "hibernate.jdbc.batch_size";
+
+    /**
+     * The batch size used when the {@value #BATCH_SIZE_PROPERTY} property is not set.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 50;
+
+    /**
+     * The number of rows fetched from the database at once by {@link #streamAll()}.
+     */
+    public static final int DEFAULT_FETCH_SIZE = 500;
+
     protected Class<T> entityClass;
-    protected EntityManager entityManager;
+
+    protected Provider<EntityManager> entityManagerProvider;
+    protected Provider<EntityManagerFactory> entityManagerFactoryProvider;
+
+    private final String findAllQuery;
 
     /**
      * Constructs a {@code GenericJpaDao} object.
@@ -27,25 +64,67 @@ public abstract class GenericJpaDao<T> {
      */
     public GenericJpaDao(Class<T> entityClass) {
         this.entityClass = entityClass;
+        this.findAllQuery = "FROM " + entityClass.getSimpleName();
     }
 
     /**
-     * Returns the underlying {@link EntityManager} instance.
+     * Returns the {@link EntityManager} instance of the current thread.
      *
-     * @return the underlying {@link EntityManager} instance
+     * @return the {@link EntityManager} instance of the current thread
      */
     public EntityManager getEntityManager() {
-        return entityManager;
+        return entityManagerProvider.get();
     }
 
     /**
-     * Sets the underlying {@link EntityManager} instance.
+     * Sets the provider of the underlying {@link EntityManager} instances.
      *
-     * @param entityManager the underlying {@link EntityManager} instance
+     * @param entityManagerProvider the provider of the underlying
+     *                              {@link EntityManager} instances
      */
     @Inject
-    public void setEntityManager(EntityManager entityManager) {
-        this.entityManager = entityManager;
+    public void setEntityManagerProvider(Provider<EntityManager> entityManagerProvider) {
+        this.entityManagerProvider = entityManagerProvider;
+    }
+
+    /**
+     * Returns the underlying {@link EntityManagerFactory} instance. Unlike
+     * {@link #getEntityManager()}, this does not start a unit of work.
+     *
+     * @return the underlying {@link EntityManagerFactory} instance
+     */
+    public EntityManagerFactory getEntityManagerFactory() {
+        return entityManagerFactoryProvider.get();
+    }
+
+    /**
+     * Sets the provider of the underlying {@link EntityManagerFactory} instance.
+     *
+     * @param entityManagerFactoryProvider the provider of the underlying
+     *                                     {@link EntityManagerFactory} instance
+     */
+    @Inject
+    public void setEntityManagerFactoryProvider(Provider<EntityManagerFactory> entityManagerFactoryProvider) {
+        this.entityManagerFactoryProvider = entityManagerFactoryProvider;
+    }
+
+    /**
+     * Returns the statistics of the second-level cache and the query cache.
+     * The statistics are only collected when the {@code hibernate.generate_statistics}
+     * property of the persistence unit is {@code true}.
+     *
+     * @return the statistics of the caches
+     */
+    public CacheStatistics getCacheStatistics() {
+        Statistics statistics = getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        return new CacheStatistics(
+                statistics.getSecondLevelCacheHitCount(),
+                statistics.getSecondLevelCacheMissCount(),
+                statistics.getSecondLevelCachePutCount(),
+                statistics.getQueryCacheHitCount(),
+                statistics.getQueryCacheMissCount(),
+                statistics.getQueryCachePutCount(),
+                statistics.getQueryExecutionCount());
     }
 
     /**
@@ -55,7 +134,76 @@ public abstract class GenericJpaDao<T> {
      */
     @Transactional
     public void persist(T entity) {
-        entityManager.persist(entity);
+        getEntityManager().persist(entity);
+    }
+
+    /**
+     * Persists the specified entity instances in the database in a single
+     * transaction, using the JDBC batch size of the persistence unit.
+     *
+     * @param entities the entity instances to be persisted in the database
+     * @return the number of entity instances persisted
+     * @see #persistAll(Iterator, int)
+     */
+    @Transactional
+    public long persistAll(Iterable<? extends T> entities) {
+        return persistAll(entities.iterator(), getBatchSize());
+    }
+
+    /**
+     * Persists the entity instances of the specified stream in the database in
+     * a single transaction, using the JDBC batch size of the persistence unit.
+     *
+     * @param entities the entity instances to be persisted in the database
+     * @return the number of entity instances persisted
+     * @see #persistAll(Iterator, int)
+     */
+    @Transactional
+    public long persistAll(Stream<? extends T> entities) {
+        return persistAll(entities.iterator(), getBatchSize());
+    }
+
+    /**
+     * Persists the specified entity instances in the database in a single
+     * transaction. After every {@code batchSize} instances the persistence
+     * context is flushed, sending the inserts to the database in JDBC batches,
+     * and cleared, so the memory used does not grow with the number of
+     * instances. Clearing detaches every entity instance managed by the
+     * current persistence context, including the ones persisted here.
+     *
+     * @param entities the entity instances to be persisted in the database
+     * @param batchSize the number of instances persisted between two flushes
+     * @return the number of entity instances persisted
+     * @throws IllegalArgumentException if the batch size is not positive
+     */
+    @Transactional
+    public long persistAll(Iterator<? extends T> entities, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("The batch size must be positive");
+        }
+        EntityManager entityManager = getEntityManager();
+        long count = 0;
+        while (entities.hasNext()) {
+            entityManager.persist(entities.next());
+            if (++count % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return count;
+    }
+
+    /**
+     * Returns the JDBC batch size of the persistence unit.
+     *
+     * @return the value of the {@value #BATCH_SIZE_PROPERTY} property, or
+     * {@value #DEFAULT_BATCH_SIZE} if it is not set
+     */
+    public int getBatchSize() {
+        Object batchSize = getEntityManagerFactory().getProperties().get(BATCH_SIZE_PROPERTY);
+        return batchSize == null ? DEFAULT_BATCH_SIZE : Integer.parseInt(batchSize.toString().trim());
     }
 
     /**
@@ -69,20 +217,97 @@ public abstract class GenericJpaDao<T> {
      */
     @Transactional
     public Optional<T> find(Object primaryKey) {
-        return Optional.ofNullable(entityManager.find(entityClass, primaryKey));
+        return Optional.ofNullable(getEntityManager().find(entityClass, primaryKey));
     }
 
     /**
      * Returns the list of all instances of the entity class from the database.
+     * Every instance is loaded into memory at once, see {@link #streamAll()}
+     * for large tables.
      *
      * @return the list of all instances of the entity class from the database
      */
     @Transactional
     public List<T> findAll() {
-        TypedQuery<T> typedQuery = entityManager.createQuery("FROM " + entityClass.getSimpleName(), entityClass);
+        TypedQuery<T> typedQuery = getEntityManager().createQuery(findAllQuery, entityClass);
         return typedQuery.getResultList();
     }
 
+    /**
+     * Returns a stream of all instances of the entity class from the database,
+     * fetching {@value #DEFAULT_FETCH_SIZE} rows at once.
+     *
+     * @return a stream of all instances of the entity class from the database
+     * @see #streamAll(int)
+     */
+    public Stream<T> streamAll() {
+        return streamAll(DEFAULT_FETCH_SIZE);
+    }
+
+    /**
+     * Returns a stream of all instances of the entity class from the database.
+     * The rows are read through a forward-only cursor of a separate read-only
+     * {@link EntityManager}, and every instance is detached as soon as it is
+     * read, so the memory used does not grow with the number of rows. The
+     * stream must be closed, preferably with a try-with-resources statement,
+     * to release the cursor and the {@link EntityManager}. It is also closed
+     * when its last element is read.
+     *
+     * @param fetchSize the number of rows fetched from the database at once
+     * @return a stream of all instances of the entity class from the database
+     * @throws IllegalArgumentException if the fetch size is not positive
+     */
+    public Stream<T> streamAll(int fetchSize) {
+        if (fetchSize <= 0) {
+            throw new IllegalArgumentException("The fetch size must be positive");
+        }
+        EntityManager entityManager = getEntityManagerFactory().createEntityManager();
+        try {
+            Session session = entityManager.unwrap(Session.class);
+            session.setDefaultReadOnly(true);
+            ScrollableResults results = session.createQuery(findAllQuery, entityClass)
+                    .setFetchSize(fetchSize)
+                    .setReadOnly(true)
+                    .setCacheMode(CacheMode.IGNORE)
+                    .scroll(ScrollMode.FORWARD_ONLY);
+            Runnable close = () -> {
+                try {
+                    results.close();
+                } finally {
+                    entityManager.close();
+                }
+            };
+            Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE,
+                    Spliterator.ORDERED | Spliterator.NONNULL) {
+                private boolean open = true;
+
+                @Override
+                public boolean tryAdvance(Consumer<? super T> action) {
+                    if (!open) {
+                        return false;
+                    }
+                    if (!results.next()) {
+                        open = false;
+                        close.run();
+                        return false;
+                    }
+                    T entity = entityClass.cast(results.get(0));
+                    session.detach(entity);
+                    action.accept(entity);
+                    return true;
+                }
+            };
+            return StreamSupport.stream(spliterator, false).onClose(() -> {
+                if (entityManager.isOpen()) {
+                    close.run();
+                }
+            });
+        } catch (RuntimeException e) {
+            entityManager.close();
+            throw e;
+        }
+    }
+
     /**
      * Removes the specified entity instance from the database.
      *
@@ -90,7 +315,7 @@ public abstract class GenericJpaDao<T> {
      */
     @Transactional
     public void remove(T entity) {
-        entityManager.remove(entity);
+        getEntityManager().remove(entity);
     }
 
     /**
@@ -100,7 +325,7 @@ public abstract class GenericJpaDao<T> {
      */
     @Transactional
     public void update(T entity) {
-        entityManager.merge(entity);
+        getEntityManager().merge(entity);
     }
 
 }
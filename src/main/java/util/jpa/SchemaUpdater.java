@@ -0,0 +1,129 @@
+package util.jpa;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Brings the schema of a database up to a version with SQL scripts.
+ *
+ * <p>The version of the schema is stored in the {@value #VERSION_TABLE}
+ * table. The script {@code <location><n>.sql} upgrades the schema from
+ * version {@code n-1} to version {@code n}, and the scripts above the stored
+ * version are run in order in a transaction that also stores the new
+ * version. Databases like H2 commit every DDL statement, so a failed upgrade
+ * is not rolled back, and several processes may upgrade the same database
+ * at the same time. The scripts must therefore be idempotent, e.g. with
+ * {@code IF NOT EXISTS}, so they can be run again. When the schema is
+ * current, updating only reads the stored version, so it costs a single
+ * query instead of generating the schema from the entity classes.</p>
+ */
+@Slf4j
+public class SchemaUpdater {
+
+    /**
+     * The name of the table storing the version of the schema.
+     */
+    public static final String VERSION_TABLE = "schema_version";
+
+    private final String location;
+
+    private final int version;
+
+    /**
+     * Creates a {@code SchemaUpdater}.
+     *
+     * @param location the prefix of the class path resources of the scripts
+     * @param version the current version of the schema
+     * @throws IllegalArgumentException if the version is not positive
+     */
+    public SchemaUpdater(String location, int version) {
+        if (version <= 0) {
+            throw new IllegalArgumentException("The version must be positive");
+        }
+        this.location = location;
+        this.version = version;
+    }
+
+    /**
+     * Returns the current version of the schema.
+     *
+     * @return the current version of the schema
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Upgrades the schema of the specified database to the current version,
+     * unless it is already current.
+     *
+     * @param connection the connection to the database
+     * @return the number of scripts run
+     * @throws SQLException if a database access error occurs, the version
+     *                      stored is newer than the current one, or a script
+     *                      is missing
+     */
+    public int update(Connection connection) throws SQLException {
+        int stored;
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS " + VERSION_TABLE + " (version INT NOT NULL)");
+            stored = storedVersion(statement);
+        }
+        if (stored == version) {
+            log.debug("Schema version {} is current", version);
+            return 0;
+        }
+        if (stored > version) {
+            throw new SQLException("The schema version " + stored + " is newer than " + version);
+        }
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            for (int next = stored + 1; next <= version; next++) {
+                for (String sql : script(next).split(";")) {
+                    if (!sql.isBlank()) {
+                        statement.execute(sql);
+                    }
+                }
+                log.info("Schema upgraded to version {}", next);
+            }
+            statement.executeUpdate("DELETE FROM " + VERSION_TABLE);
+            statement.executeUpdate("INSERT INTO " + VERSION_TABLE + " (version) VALUES (" + version + ")");
+            connection.commit();
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+        return version - stored;
+    }
+
+    private static int storedVersion(Statement statement) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery("SELECT MAX(version) FROM " + VERSION_TABLE)) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+
+    private String script(int version) throws SQLException {
+        String name = location + version + ".sql";
+        try (InputStream in = SchemaUpdater.class.getResourceAsStream(name)) {
+            if (in == null) {
+                throw new SQLException("The schema script " + name + " is not found");
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
@@ -0,0 +1,18 @@
+-- The schema created by the schema generation of Hibernate before the schema
+-- was versioned, so the existing databases are upgraded keeping their rows.
+-- Every statement can be run again, as H2 commits every DDL statement.
+CREATE SEQUENCE IF NOT EXISTS hibernate_sequence START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE IF NOT EXISTS GameResult (
+    id BIGINT NOT NULL,
+    created TIMESTAMP NOT NULL,
+    duration BIGINT NOT NULL,
+    winner VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+-- The index generated before lacked the id, so it is replaced. Another process
+-- may be running this script at the same time, so the index may exist again.
+DROP INDEX IF EXISTS idx_game_result_best;
+
+CREATE INDEX IF NOT EXISTS idx_game_result_best ON GameResult (duration ASC, created DESC, id DESC);
@@ -0,0 +1,54 @@
+package rocktable.ai;
+
+import org.junit.jupiter.api.Test;
+import rocktable.solver.RetrogradeSolver;
+import rocktable.solver.Tablebase;
+import rocktable.state.BitboardRockTableState;
+import rocktable.state.Positions;
+import rocktable.state.TurnGenerator;
+import rocktable.state.Turns;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AlphaBetaPlayerTest {
+
+    @Test
+    void testZobristUpdate() {
+        long position = Positions.of(new BitboardRockTableState());
+        long hash = Zobrist.hash(position);
+        int[] buffer = new int[TurnGenerator.MAX_TURNS];
+        int count = TurnGenerator.generate(position, buffer);
+        for (int i = 0; i < count; i++) {
+            long next = Turns.play(position, buffer[i]);
+            assertEquals(Zobrist.hash(next), Zobrist.next(hash, position, buffer[i]));
+        }
+    }
+
+    @Test
+    void testFindsWinningTurns() {
+        Tablebase tablebase = new RetrogradeSolver().solve(5).getTablebase();
+        AlphaBetaPlayer player = new AlphaBetaPlayer(2000, 1 << 16);
+        Random random = new Random(3);
+        int tested = 0;
+        while (tested < 20) {
+            int table = 0;
+            while (Integer.bitCount(table) < 4) {
+                table |= 1 << random.nextInt(25);
+            }
+            long position = Positions.of(table, 1, 0, 0);
+            if (tablebase.outcome(position) == Tablebase.WIN) {
+                int turn = player.selectTurn(position);
+                assertEquals(Tablebase.LOSS, tablebase.outcome(Turns.play(position, turn)), Turns.toString(turn));
+                assertTrue(player.getLastStatistics().getScore() > 0);
+                tested++;
+            }
+        }
+    }
+
+    @Test
+    void testFinishedPosition() {
+        assertThrows(IllegalArgumentException.class, () -> new AlphaBetaPlayer(10).selectTurn(Positions.of(0, 3, 2, 0)));
+    }
+}
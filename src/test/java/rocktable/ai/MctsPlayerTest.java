@@ -0,0 +1,73 @@
+package rocktable.ai;
+
+import org.junit.jupiter.api.Test;
+import rocktable.solver.RetrogradeSolver;
+import rocktable.solver.Tablebase;
+import rocktable.state.BitboardRockTableState;
+import rocktable.state.Positions;
+import rocktable.state.TurnGenerator;
+import rocktable.state.Turns;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MctsPlayerTest {
+
+    @Test
+    void testFindsWinningTurn() {
+        Tablebase tablebase = new RetrogradeSolver().solve(4).getTablebase();
+        long position = winningPosition(tablebase, new Random(5));
+
+        MctsPlayer player = new MctsPlayer(10_000, 20_000, 2, new SplittableRandom(1));
+        int turn = player.selectTurn(position);
+        assertEquals(Tablebase.LOSS, tablebase.outcome(Turns.play(position, turn)), Turns.toString(turn));
+        assertEquals(40_000, player.getLastStatistics().getPlayouts());
+        assertEquals(2, player.getLastStatistics().getWorkers());
+    }
+
+    private static long winningPosition(Tablebase tablebase, Random random) {
+        int[] buffer = new int[TurnGenerator.MAX_TURNS];
+        while (true) {
+            int table = 0;
+            while (Integer.bitCount(table) < 4) {
+                table |= 1 << random.nextInt(25);
+            }
+            long position = Positions.of(table, 0, 0, 1);
+            int count = TurnGenerator.generate(position, buffer);
+            int winning = 0;
+            for (int i = 0; i < count; i++) {
+                if (tablebase.outcome(Turns.play(position, buffer[i])) == Tablebase.LOSS) {
+                    winning++;
+                }
+            }
+            if (winning > 0 && winning * 4 < count) {
+                return position;
+            }
+        }
+    }
+
+    @Test
+    void testPlayersSharePool() {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            long position = Positions.of(BitboardRockTableState.INITIAL_TABLE, 0, 0, 0);
+            for (int i = 0; i < 20; i++) {
+                MctsPlayer player = new MctsPlayer(10_000, 100, 3, new SplittableRandom(i), pool);
+                player.selectTurn(position);
+                assertEquals(300, player.getLastStatistics().getPlayouts());
+            }
+            assertTrue(pool.getPoolSize() <= 2);
+        } finally {
+            pool.shutdown();
+        }
+        assertThrows(IllegalArgumentException.class, () -> new MctsPlayer(10, 10, 0, new SplittableRandom()));
+    }
+
+    @Test
+    void testFinishedPosition() {
+        assertThrows(IllegalArgumentException.class, () -> new MctsPlayer(10).selectTurn(Positions.of(0, 1, 0, 0)));
+    }
+}
@@ -0,0 +1,115 @@
+package rocktable.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournalFileTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testRoundTrip() throws IOException {
+        Path path = dir.resolve("moves.rtmj");
+        Random random = new Random(3);
+        RecordingGameState[] games = new RecordingGameState[10];
+        try (JournalFile journal = JournalFile.open(path)) {
+            for (int i = 0; i < games.length; i++) {
+                games[i] = ReplayTest.playRandomGame(random);
+                journal.append(100 + i, games[i].getStartPosition(), games[i].getActions());
+            }
+            assertArrayEquals(games[3].getActions(), journal.read(103).orElseThrow().getActions());
+        }
+        try (JournalFile journal = JournalFile.open(path)) {
+            assertEquals(games.length, journal.size());
+            for (int i = 0; i < games.length; i++) {
+                Replay replay = journal.read(100 + i).orElseThrow();
+                assertEquals(games[i].getStartPosition(), replay.getStartPosition());
+                assertArrayEquals(games[i].getActions(), replay.getActions());
+            }
+            assertTrue(journal.read(99).isEmpty());
+        }
+    }
+
+    @Test
+    void testIncompleteRecordIsTruncated() throws IOException {
+        Path path = dir.resolve("moves.rtmj");
+        RecordingGameState game = ReplayTest.playRandomGame(new Random(5));
+        try (JournalFile journal = JournalFile.open(path)) {
+            journal.append(1, game.getStartPosition(), game.getActions());
+            journal.append(2, game.getStartPosition(), game.getActions());
+        }
+        long size = Files.size(path);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(size - 3);
+        }
+        try (JournalFile journal = JournalFile.open(path)) {
+            assertEquals(1, journal.size());
+            assertTrue(journal.read(2).isEmpty());
+            journal.append(3, game.getStartPosition(), game.getActions());
+        }
+        try (JournalFile journal = JournalFile.open(path)) {
+            assertEquals(2, journal.size());
+            assertArrayEquals(game.getActions(), journal.read(3).orElseThrow().getActions());
+        }
+    }
+
+    @Test
+    void testTwoFilesAppendToSamePath() throws IOException {
+        Path path = dir.resolve("moves.rtmj");
+        Random random = new Random(11);
+        RecordingGameState[] games = new RecordingGameState[6];
+        for (int i = 0; i < games.length; i++) {
+            games[i] = ReplayTest.playRandomGame(random);
+        }
+        try (JournalFile first = JournalFile.open(path); JournalFile second = JournalFile.open(path)) {
+            for (int i = 0; i < games.length; i++) {
+                JournalFile journal = i % 2 == 0 ? first : second;
+                journal.append(i, games[i].getStartPosition(), games[i].getActions());
+            }
+            assertEquals(games.length - 1, first.size());
+            assertEquals(games.length, second.size());
+            assertArrayEquals(games[4].getActions(), second.read(4).orElseThrow().getActions());
+            assertEquals(Files.size(path), second.getEnd());
+        }
+        try (JournalFile journal = JournalFile.open(path)) {
+            assertEquals(games.length, journal.size());
+            for (int i = 0; i < games.length; i++) {
+                Replay replay = journal.read(i).orElseThrow();
+                assertEquals(games[i].getStartPosition(), replay.getStartPosition());
+                assertArrayEquals(games[i].getActions(), replay.getActions());
+            }
+        }
+    }
+
+    @Test
+    void testCorruptedRecord() throws IOException {
+        Path path = dir.resolve("moves.rtmj");
+        RecordingGameState game = ReplayTest.playRandomGame(new Random(7));
+        try (JournalFile journal = JournalFile.open(path)) {
+            journal.append(1, game.getStartPosition(), game.getActions());
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.wrap(new byte[]{(byte) 0xFF}), JournalFile.HEADER_SIZE + 20);
+            }
+            assertThrows(IOException.class, () -> journal.read(1));
+        }
+    }
+
+    @Test
+    void testInvalidFile() throws IOException {
+        Path path = dir.resolve("invalid.rtmj");
+        Files.write(path, new byte[JournalFile.HEADER_SIZE]);
+        assertThrows(IOException.class, () -> JournalFile.open(path));
+    }
+
+}
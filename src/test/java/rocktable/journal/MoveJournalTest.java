@@ -0,0 +1,34 @@
+package rocktable.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoveJournalTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testCloseDoesNotIndex() throws IOException {
+        Path path = dir.resolve("moves.rtmj");
+        Path indexDirectory = dir.resolve("moves.rtmj.index");
+        RecordingGameState game = ReplayTest.playRandomGame(new Random(7));
+        try (MoveJournal journal = new MoveJournal(path)) {
+            journal.save(1, game.getStartPosition(), game.getActions());
+        }
+        assertFalse(Files.exists(indexDirectory));
+        try (MoveJournal journal = new MoveJournal(path)) {
+            long turns = journal.find(1).orElseThrow().getTurnCount();
+            assertEquals(turns + 1, journal.getPositionIndex().size());
+        }
+        assertTrue(Files.isDirectory(indexDirectory));
+    }
+
+}
@@ -0,0 +1,142 @@
+package rocktable.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import rocktable.state.Positions;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PositionIndexTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testIncrementalUpdates() throws IOException {
+        Random random = new Random(11);
+        Map<Long, List<Occurrence>> expected = new HashMap<>();
+        long gameId = 1;
+        try (JournalFile journal = JournalFile.open(dir.resolve("moves.rtmj"));
+             PositionIndex index = PositionIndex.open(dir.resolve("index"))) {
+            for (int update = 0; update < PositionIndex.MAX_RUNS + 2; update++) {
+                for (int i = 0; i < 30; i++, gameId++) {
+                    RecordingGameState game = ReplayTest.playRandomGame(random);
+                    journal.append(gameId, game.getStartPosition(), game.getActions());
+                    Replay replay = new Replay(gameId, game.getStartPosition(), game.getActions());
+                    for (int ply = 0; ply <= replay.getTurnCount(); ply++) {
+                        expected.computeIfAbsent(replay.getPosition(ply), position -> new ArrayList<>())
+                                .add(new Occurrence(gameId, ply, replay.getWinner()));
+                    }
+                }
+                assertEquals(30, index.update(journal));
+                assertEquals(0, index.update(journal));
+                assertEquals(journal.getEnd(), index.getJournalEnd());
+            }
+            assertTrue(runFiles(dir.resolve("index")).size() <= PositionIndex.MAX_RUNS);
+            assertIndexed(expected, index);
+        }
+        try (PositionIndex index = PositionIndex.open(dir.resolve("index"))) {
+            assertIndexed(expected, index);
+            assertTrue(index.find(Positions.of(1, 0, 24, 0)).isEmpty());
+        }
+    }
+
+    private static List<Path> runFiles(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".rtpi")).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static void assertIndexed(Map<Long, List<Occurrence>> expected, PositionIndex index) throws IOException {
+        assertEquals(expected.values().stream().mapToLong(List::size).sum(), index.size());
+        for (Map.Entry<Long, List<Occurrence>> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), index.find(entry.getKey()));
+            PositionStatistics statistics = index.getStatistics(entry.getKey());
+            List<Occurrence> games = entry.getValue().stream()
+                    .collect(Collectors.groupingBy(Occurrence::getGameId))
+                    .values().stream().map(list -> list.get(0)).collect(Collectors.toList());
+            assertEquals(entry.getValue().size(), statistics.getOccurrences());
+            assertEquals(games.size(), statistics.getGames());
+            assertEquals(games.stream().filter(o -> o.getWinner() == Positions.activePlayer(entry.getKey())).count(),
+                    statistics.getWins());
+        }
+    }
+
+    @Test
+    void testSizeTieredMerge() throws IOException {
+        Random random = new Random(17);
+        Map<Long, List<Occurrence>> expected = new HashMap<>();
+        long gameId = 1;
+        try (JournalFile journal = JournalFile.open(dir.resolve("moves.rtmj"));
+             PositionIndex index = PositionIndex.open(dir.resolve("index"))) {
+            Path large = null;
+            for (int update = 0; update < 3 * PositionIndex.MAX_RUNS; update++) {
+                // The first update is much larger than the ones following it.
+                for (int i = 0; i < (update == 0 ? 200 : 1); i++, gameId++) {
+                    RecordingGameState game = ReplayTest.playRandomGame(random);
+                    journal.append(gameId, game.getStartPosition(), game.getActions());
+                    Replay replay = new Replay(gameId, game.getStartPosition(), game.getActions());
+                    for (int ply = 0; ply <= replay.getTurnCount(); ply++) {
+                        expected.computeIfAbsent(replay.getPosition(ply), position -> new ArrayList<>())
+                                .add(new Occurrence(gameId, ply, replay.getWinner()));
+                    }
+                }
+                index.update(journal);
+                List<Path> runs = runFiles(dir.resolve("index"));
+                if (large == null) {
+                    large = runs.get(0);
+                }
+                // The small runs are merged without rewriting the large one.
+                assertTrue(Files.exists(large));
+                assertTrue(runs.size() <= PositionIndex.MAX_RUNS);
+                List<Integer> tiers = new ArrayList<>();
+                for (Path run : runs) {
+                    try (IndexRun indexRun = IndexRun.open(run)) {
+                        tiers.add(PositionIndex.tier(indexRun.getEntries()));
+                    }
+                }
+                for (int from = 0; from + PositionIndex.MERGE_FACTOR <= tiers.size(); from++) {
+                    assertTrue(tiers.subList(from, from + PositionIndex.MERGE_FACTOR).stream().distinct().count() > 1);
+                }
+            }
+            assertIndexed(expected, index);
+        }
+        try (PositionIndex index = PositionIndex.open(dir.resolve("index"))) {
+            assertIndexed(expected, index);
+        }
+    }
+
+    @Test
+    void testLockedDirectory() throws IOException {
+        try (PositionIndex index = PositionIndex.open(dir.resolve("index"))) {
+            assertThrows(IOException.class, () -> PositionIndex.open(dir.resolve("index")));
+        }
+        PositionIndex.open(dir.resolve("index")).close();
+    }
+
+    @Test
+    void testIndexAheadOfJournal() throws IOException {
+        RecordingGameState game = ReplayTest.playRandomGame(new Random(13));
+        try (JournalFile journal = JournalFile.open(dir.resolve("moves.rtmj"));
+             PositionIndex index = PositionIndex.open(dir.resolve("index"))) {
+            journal.append(1, game.getStartPosition(), game.getActions());
+            index.update(journal);
+        }
+        try (JournalFile journal = JournalFile.open(dir.resolve("other.rtmj"));
+             PositionIndex index = PositionIndex.open(dir.resolve("index"))) {
+            assertThrows(IOException.class, () -> index.update(journal));
+        }
+    }
+
+}
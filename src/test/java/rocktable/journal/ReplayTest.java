@@ -0,0 +1,109 @@
+package rocktable.journal;
+
+import org.junit.jupiter.api.Test;
+import rocktable.state.BitboardRockTableState;
+import rocktable.state.GameState;
+import rocktable.state.Positions;
+import rocktable.state.RockTableState;
+import rocktable.state.TurnGenerator;
+import rocktable.state.Turns;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplayTest {
+
+    static RecordingGameState playRandomGame(Random random) {
+        RecordingGameState state = new RecordingGameState(new BitboardRockTableState());
+        int[] turns = new int[TurnGenerator.MAX_TURNS];
+        while (!state.isFinished()) {
+            int count = TurnGenerator.generate(Positions.of(state), turns);
+            Turns.apply(state, turns[random.nextInt(count)]);
+        }
+        return state;
+    }
+
+    @Test
+    void testReplayReachesEveryState() {
+        Random random = new Random(17);
+        for (int game = 0; game < 20; game++) {
+            RecordingGameState recorded = playRandomGame(random);
+            Replay replay = new Replay(game, recorded.getStartPosition(), recorded.getActions());
+            assertTrue(replay.isFinished());
+            assertEquals(Positions.of(recorded), replay.getPosition(replay.getTurnCount()));
+
+            GameState expected = new RockTableState();
+            List<Long> positions = new ArrayList<>();
+            positions.add(Positions.of(expected));
+            for (int i = 0; i < replay.getActionCount(); i++) {
+                Actions.apply(expected, replay.getAction(i));
+                GameState actual = replay.getState(i + 1);
+                assertArrayEquals(expected.getTable(), actual.getTable());
+                assertArrayEquals(expected.getRocks(), actual.getRocks());
+                assertEquals(expected.getActivePlayer(), actual.getActivePlayer());
+                assertEquals(expected.getChosenRow(), actual.getChosenRow());
+                assertEquals(expected.getLeftMostCol(), actual.getLeftMostCol());
+                if (Actions.type(replay.getAction(i)) == Actions.END_TURN) {
+                    positions.add(Positions.of(expected));
+                }
+            }
+            assertEquals(positions.size() - 1, replay.getTurnCount());
+            for (int turn = 0; turn < positions.size(); turn++) {
+                assertEquals(positions.get(turn), replay.getPosition(turn));
+            }
+        }
+    }
+
+    @Test
+    void testUnfinishedTurn() {
+        RecordingGameState recorded = new RecordingGameState(new BitboardRockTableState());
+        recorded.setChosenRow(4);
+        recorded.endTurn();
+        recorded.pickupRock(0);
+        Replay replay = new Replay(1, recorded.getStartPosition(), recorded.getActions());
+        assertEquals(2, replay.getActionCount());
+        assertEquals(0, replay.getTurnCount());
+        assertFalse(replay.isFinished());
+        assertTrue(replay.getState(2).canBeEnded());
+        assertThrows(IndexOutOfBoundsException.class, () -> replay.getState(3));
+    }
+
+    @Test
+    void testUndoneActionsAreNotRecorded() {
+        RecordingGameState recorded = new RecordingGameState(new BitboardRockTableState());
+        recorded.setChosenRow(1);
+        recorded.pickupRock(0);
+        recorded.endTurn();
+        recorded.undo();
+        recorded.undo();
+        assertEquals(1, recorded.getActionCount());
+        recorded.redo();
+        assertArrayEquals(new byte[]{Actions.of(Actions.CHOOSE_ROW, 1), Actions.of(Actions.PICKUP_ROCK, 0)},
+                recorded.getActions());
+        recorded.pickupRock(1);
+        assertFalse(recorded.canRedo());
+        recorded.undo();
+        recorded.undo();
+        recorded.undo();
+        assertFalse(recorded.canUndo());
+        assertThrows(IllegalStateException.class, recorded::undo);
+        assertEquals(0, recorded.getActions().length);
+    }
+
+    @Test
+    void testInvalidActions() {
+        long start = Positions.of(new BitboardRockTableState());
+        assertThrows(IllegalArgumentException.class, () -> new Replay(1, start,
+                new byte[]{Actions.of(Actions.PICKUP_ROCK, 0)}));
+        assertThrows(IllegalArgumentException.class, () -> new Replay(1, start,
+                new byte[]{Actions.of(Actions.CHOOSE_ROW, 4), Actions.of(Actions.END_TURN, 0)}));
+        // A rock may only be placed to the right of the left-most rock picked up in the turn.
+        assertThrows(IllegalArgumentException.class, () -> new Replay(1, start,
+                new byte[]{Actions.of(Actions.CHOOSE_ROW, 0), Actions.of(Actions.PICKUP_ROCK, 2),
+                        Actions.of(Actions.PICKUP_ROCK, 3), Actions.of(Actions.PLACE_ROCK, 2)}));
+    }
+
+}
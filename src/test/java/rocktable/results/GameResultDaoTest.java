@@ -0,0 +1,121 @@
+package rocktable.results;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.persist.PersistService;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import util.guice.JpaInitializer;
+import util.guice.PersistenceModule;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameResultDaoTest {
+
+    private static final String URL = "jdbc:h2:mem:game-result-dao-test;DB_CLOSE_DELAY=-1";
+
+    private static Injector injector;
+
+    private static GameResultDao gameResultDao;
+
+    @BeforeAll
+    static void setUpPersistence() {
+        Properties properties = new Properties();
+        properties.setProperty("javax.persistence.jdbc.url", URL);
+        injector = Guice.createInjector(new AbstractModule() {
+            @Override
+            protected void configure() {
+                install(new PersistenceModule("rock-table", properties));
+            }
+        });
+        injector.getInstance(JpaInitializer.class).awaitReady();
+        gameResultDao = injector.getInstance(GameResultDao.class);
+    }
+
+    @AfterAll
+    static void tearDownPersistence() {
+        injector.getInstance(PersistService.class).stop();
+    }
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("DELETE FROM GameResult");
+        }
+        evictCaches();
+    }
+
+    /**
+     * Evicts the results and the queries from the caches, as the rows are
+     * changed behind Hibernate.
+     */
+    private static void evictCaches() {
+        SessionFactory sessionFactory = gameResultDao.getEntityManagerFactory().unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+    }
+
+    @Test
+    void testKeysetPaging() throws SQLException {
+        // Only 4 durations and 3 timestamps, so most keys tie on both.
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        try (Connection connection = DriverManager.getConnection(URL, "sa", "");
+             PreparedStatement statement = connection.prepareStatement("INSERT INTO GameResult (id, created, duration, winner)"
+                     + " VALUES (NEXT VALUE FOR hibernate_sequence, ?, ?, ?)")) {
+            for (int i = 0; i < 100; i++) {
+                statement.setTimestamp(1, Timestamp.valueOf(now.minusSeconds(i % 3)));
+                statement.setLong(2, Duration.ofSeconds(i % 4).toNanos());
+                statement.setString(3, "Player " + i);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+        evictCaches();
+
+        List<HighScore> expected = gameResultDao.findBestScores(1000);
+        assertEquals(100, expected.size());
+        List<HighScore> paged = new ArrayList<>(gameResultDao.findBestScores(7));
+        List<HighScore> page = paged;
+        // A page repeating rows would never end, so the number of pages is bounded.
+        for (int pages = 1; !page.isEmpty() && pages <= expected.size(); pages++) {
+            page = gameResultDao.findBestScoresAfter(paged.get(paged.size() - 1), 7);
+            assertTrue(page.size() <= 7);
+            paged.addAll(page);
+        }
+        assertEquals(expected, paged);
+    }
+
+    @Test
+    void testQueryCache() {
+        gameResultDao.persist(GameResult.builder().winner("Slow").duration(Duration.ofSeconds(30)).build());
+        List<HighScore> best = gameResultDao.findBestScores(5);
+        long hits = gameResultDao.getCacheStatistics().getQueryCacheHits();
+        long misses = gameResultDao.getCacheStatistics().getQueryCacheMisses();
+        assertEquals(best, gameResultDao.findBestScores(5));
+        assertEquals(hits + 1, gameResultDao.getCacheStatistics().getQueryCacheHits());
+        assertEquals(misses, gameResultDao.getCacheStatistics().getQueryCacheMisses());
+
+        gameResultDao.persist(GameResult.builder().winner("Fast").duration(Duration.ofSeconds(10)).build());
+        List<HighScore> updated = gameResultDao.findBestScores(5);
+        assertEquals(misses + 1, gameResultDao.getCacheStatistics().getQueryCacheMisses());
+        assertEquals(2, updated.size());
+        assertEquals("Fast", updated.get(0).getWinner());
+    }
+
+}
@@ -0,0 +1,130 @@
+package rocktable.results;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameResultWriterTest {
+
+    private static GameResult result(int seconds) {
+        return GameResult.builder()
+                .winner("Player" + seconds)
+                .duration(Duration.ofSeconds(seconds))
+                .build();
+    }
+
+    @Test
+    void testSubmitSavesResults() throws Exception {
+        RecordingDao dao = new RecordingDao(null);
+        try (GameResultWriter writer = new GameResultWriter(dao, 16, 4)) {
+            List<CompletableFuture<GameResult>> futures = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                futures.add(writer.submit(result(i)));
+            }
+            writer.flushed().get(5, TimeUnit.SECONDS);
+            for (int i = 0; i < 10; i++) {
+                assertEquals(Duration.ofSeconds(i), futures.get(i).get().getDuration());
+            }
+            assertEquals(10, dao.saved.size());
+            WriterStatistics statistics = writer.getStatistics();
+            assertEquals(10, statistics.getSavedResults());
+            assertEquals(0, statistics.getQueueDepth());
+            assertTrue(statistics.getFlushes() >= 3);
+        }
+    }
+
+    @Test
+    void testCloseDrainsQueue() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        RecordingDao dao = new RecordingDao(latch);
+        GameResultWriter writer = new GameResultWriter(dao, 16, 2);
+        for (int i = 0; i < 8; i++) {
+            writer.submit(result(i));
+        }
+        assertTrue(writer.getQueueDepth() > 0);
+        latch.countDown();
+        writer.close();
+        assertEquals(8, dao.saved.size());
+        assertEquals(0, writer.getQueueDepth());
+        assertThrows(ExecutionException.class, () -> writer.submit(result(8)).get());
+    }
+
+    @Test
+    void testCloseLeavesEmptyQueue() {
+        // Closing right after a submit lets the writer thread finish before close() offers the wake-up entry.
+        for (int i = 0; i < 100; i++) {
+            GameResultWriter writer = new GameResultWriter(new RecordingDao(null), 4, 4);
+            writer.submit(result(i));
+            writer.close();
+            assertEquals(0, writer.getQueueDepth(), "close " + i);
+        }
+    }
+
+    @Test
+    void testFullQueueDoesNotBlock() {
+        CountDownLatch latch = new CountDownLatch(1);
+        RecordingDao dao = new RecordingDao(latch);
+        try (GameResultWriter writer = new GameResultWriter(dao, 2, 1)) {
+            List<CompletableFuture<GameResult>> futures = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                futures.add(writer.submit(result(i)));
+            }
+            assertTrue(futures.stream().anyMatch(CompletableFuture::isCompletedExceptionally));
+            latch.countDown();
+        }
+    }
+
+    @Test
+    void testFailedBatch() throws Exception {
+        GameResultDao dao = new GameResultDao() {
+            @Override
+            public long persistAll(Iterable<? extends GameResult> entities) {
+                throw new IllegalStateException("Database is down");
+            }
+        };
+        try (GameResultWriter writer = new GameResultWriter(dao, 4, 4)) {
+            CompletableFuture<GameResult> future = writer.submit(result(1));
+            writer.flushed().get(5, TimeUnit.SECONDS);
+            assertTrue(future.isCompletedExceptionally());
+            assertEquals(1, writer.getStatistics().getFailedResults());
+        }
+    }
+
+    private static class RecordingDao extends GameResultDao {
+
+        private final List<GameResult> saved = Collections.synchronizedList(new ArrayList<>());
+
+        private final CountDownLatch latch;
+
+        RecordingDao(CountDownLatch latch) {
+            this.latch = latch;
+        }
+
+        @Override
+        public long persistAll(Iterable<? extends GameResult> entities) {
+            try {
+                if (latch != null) {
+                    latch.await();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            long count = 0;
+            for (GameResult entity : entities) {
+                saved.add(entity);
+                count++;
+            }
+            return count;
+        }
+    }
+
+}
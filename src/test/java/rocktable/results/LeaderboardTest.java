@@ -0,0 +1,103 @@
+package rocktable.results;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeaderboardTest {
+
+    private static final ZonedDateTime NOW = ZonedDateTime.now();
+
+    private long nextId = 1;
+
+    private HighScore result(int seconds) {
+        long id = nextId++;
+        return new HighScore(id, "Player" + id, Duration.ofSeconds(seconds), NOW.plusSeconds(id));
+    }
+
+    private static GameResultDao dao(List<HighScore> stored) {
+        return new GameResultDao() {
+            @Override
+            public List<HighScore> findBestScores(int n) {
+                return stored.stream().sorted(Leaderboard.ORDER).limit(n).collect(Collectors.toList());
+            }
+        };
+    }
+
+    @Test
+    void testLoad() throws Exception {
+        List<HighScore> stored = new ArrayList<>();
+        for (int i = 20; i > 0; i--) {
+            stored.add(result(i));
+        }
+        Leaderboard leaderboard = new Leaderboard(dao(stored), 5);
+        assertTrue(leaderboard.getSnapshot().isEmpty());
+        List<HighScore> snapshot = leaderboard.load().get(5, TimeUnit.SECONDS);
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), snapshot.stream()
+                .map(r -> r.getDuration().getSeconds()).collect(Collectors.toList()));
+        assertSame(snapshot, leaderboard.getSnapshot());
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.add(result(1)));
+    }
+
+    @Test
+    void testAddAllKeepsBestResults() {
+        List<HighScore> all = new ArrayList<>();
+        Leaderboard leaderboard = new Leaderboard(dao(List.of()), 10);
+        Random random = new Random(5);
+        for (int i = 0; i < 200; i++) {
+            HighScore result = result(random.nextInt(50));
+            all.add(result);
+            leaderboard.addAll(List.of(result));
+        }
+        all.sort(Leaderboard.ORDER);
+        assertEquals(all.subList(0, 10), leaderboard.getSnapshot());
+    }
+
+    @Test
+    void testAddAllReplacesSnapshot() {
+        Leaderboard leaderboard = new Leaderboard(dao(List.of()), 2);
+        leaderboard.addAll(List.of(result(5), result(3)));
+        List<HighScore> snapshot = leaderboard.getSnapshot();
+        leaderboard.addAll(List.of(result(9)));
+        assertSame(snapshot, leaderboard.getSnapshot());
+        leaderboard.addAll(List.of(result(1)));
+        assertNotSame(snapshot, leaderboard.getSnapshot());
+        assertEquals(2, snapshot.size());
+        assertEquals(Duration.ofSeconds(3), snapshot.get(0).getDuration());
+        assertEquals(Duration.ofSeconds(1), leaderboard.getSnapshot().get(0).getDuration());
+    }
+
+    @Test
+    void testLoadIgnoresDuplicates() throws Exception {
+        HighScore saved = result(1);
+        List<HighScore> stored = List.of(saved, result(2));
+        Leaderboard leaderboard = new Leaderboard(dao(stored), 5);
+        leaderboard.addAll(List.of(saved));
+        assertEquals(2, leaderboard.load().get(5, TimeUnit.SECONDS).size());
+    }
+
+    @Test
+    void testSavedResultsAreAdded() throws Exception {
+        GameResultDao dao = new GameResultDao() {
+            @Override
+            public long persistAll(Iterable<? extends GameResult> entities) {
+                return 0;
+            }
+        };
+        try (GameResultWriter writer = new GameResultWriter(dao)) {
+            Leaderboard leaderboard = new Leaderboard(dao, writer);
+            GameResult saved = new GameResult(7L, "Winner", Duration.ofSeconds(42), NOW);
+            writer.submit(saved).get(5, TimeUnit.SECONDS);
+            assertEquals(List.of(HighScore.of(saved)), leaderboard.getSnapshot());
+        }
+    }
+
+}
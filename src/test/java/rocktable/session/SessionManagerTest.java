@@ -0,0 +1,147 @@
+package rocktable.session;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import rocktable.state.GameFactory;
+import rocktable.state.StateEngine;
+import rocktable.state.Turns;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionManagerTest {
+
+    private static final int TURN = Turns.of(1, 0b11100, 0b00011);
+
+    private final GameFactory factory = GameFactory.initial(StateEngine.BITBOARD);
+
+    private SessionManager manager;
+
+    @BeforeEach
+    void setUp() {
+        manager = new SessionManager(factory, Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        manager.close();
+    }
+
+    @Test
+    void testSessions() {
+        GameSession first = manager.create();
+        GameSession second = manager.create();
+        assertNotEquals(first.getId(), second.getId());
+        assertEquals(2, manager.size());
+        manager.apply(first.getId(), state -> {
+            Turns.apply(state, TURN);
+            return null;
+        });
+        GameSnapshot snapshot = manager.getSnapshot(first.getId()).orElseThrow();
+        assertEquals(1, snapshot.getVersion());
+        assertEquals(Turns.play(factory.getStartPosition(), TURN), snapshot.getPosition());
+        assertEquals(1, snapshot.getActivePlayer());
+        assertEquals(1, snapshot.getRocks(0));
+        assertEquals(-1, snapshot.getChosenRow());
+        assertEquals(factory.getStartPosition(), second.getSnapshot().getPosition());
+        assertEquals(2, manager.getSnapshots().size());
+    }
+
+    @Test
+    void testSnapshotAfterFailedAction() {
+        GameSession session = manager.create();
+        assertThrows(IllegalArgumentException.class, () -> session.apply(state -> {
+            state.setChosenRow(1);
+            throw new IllegalArgumentException();
+        }));
+        assertEquals(1, session.getSnapshot().getVersion());
+        assertEquals(1, session.getSnapshot().getChosenRow());
+    }
+
+    @Test
+    void testConcurrentActionsAreSerialized() throws Exception {
+        GameSession session = manager.create();
+        int threads = 8;
+        int iterations = 2000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < iterations; j++) {
+                        manager.apply(session.getId(), state -> {
+                            Turns.apply(state, TURN);
+                            Turns.undo(state);
+                            return null;
+                        });
+                        assertEquals(factory.getStartPosition(), session.getSnapshot().getPosition());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals((long) threads * iterations, session.getSnapshot().getVersion());
+    }
+
+    @Test
+    void testEvictIdle() throws InterruptedException {
+        GameSession idle = manager.create();
+        GameSession active = manager.create();
+        Thread.sleep(2);
+        long deadline = System.nanoTime();
+        active.apply(state -> {
+            state.setChosenRow(1);
+            return null;
+        });
+        assertEquals(1, manager.evictIdleBefore(deadline));
+        assertTrue(idle.isClosed());
+        assertFalse(active.isClosed());
+        assertTrue(manager.find(idle.getId()).isEmpty());
+        assertTrue(manager.getSnapshot(idle.getId()).isEmpty());
+        assertThrows(NoSuchElementException.class, () -> manager.apply(idle.getId(), state -> null));
+        assertThrows(IllegalStateException.class, () -> idle.apply(state -> null));
+        assertEquals(1, manager.size());
+    }
+
+    @Test
+    void testEvictionThread() throws InterruptedException {
+        try (SessionManager shortLived = new SessionManager(factory, Duration.ofMillis(20))) {
+            GameSession session = shortLived.create();
+            long deadline = System.nanoTime() + 5_000_000_000L;
+            // The evictor closes the session before releasing its slot, so wait for the release.
+            while (shortLived.size() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals(0, shortLived.size());
+            assertTrue(shortLived.find(session.getId()).isEmpty());
+            assertTrue(session.isClosed());
+        }
+    }
+
+    @Test
+    void testRemoveAndClose() {
+        GameSession session = manager.create();
+        assertTrue(manager.remove(session.getId()));
+        assertFalse(manager.remove(session.getId()));
+        assertTrue(session.isClosed());
+        GameSession other = manager.create();
+        manager.close();
+        assertTrue(other.isClosed());
+        assertEquals(0, manager.size());
+        assertThrows(IllegalStateException.class, () -> manager.create());
+        assertThrows(IllegalArgumentException.class, () -> new SessionManager(factory, Duration.ZERO));
+    }
+
+}
@@ -0,0 +1,28 @@
+package rocktable.sim;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SelfPlayTest {
+
+    @Test
+    void testRunIsReproducible() throws InterruptedException {
+        SimulationReport single = new SelfPlay(Strategy.RANDOM, Strategy.GREEDY, 0).run(1000, 1, 42);
+        SimulationReport parallel = new SelfPlay(Strategy.RANDOM, Strategy.GREEDY, 0).run(1000, 4, 42);
+        assertEquals(1000, single.getGames());
+        assertEquals(single.getFirstPlayerWins(), parallel.getFirstPlayerWins());
+        assertEquals(single.getTurns(), parallel.getTurns());
+        assertEquals(single.getShortestGame(), parallel.getShortestGame());
+        assertEquals(single.getLongestGame(), parallel.getLongestGame());
+        assertTrue(single.getShortestGame() > 0);
+        assertTrue(single.getShortestGame() <= single.getLongestGame());
+    }
+
+    @Test
+    void testGreedyBeatsRandom() throws InterruptedException {
+        SimulationReport report = new SelfPlay(Strategy.GREEDY, Strategy.RANDOM, 0).run(2000, 2, 7);
+        assertTrue(report.getFirstPlayerWins() > report.getSecondPlayerWins());
+    }
+
+}
@@ -0,0 +1,82 @@
+package rocktable.solver;
+
+import org.junit.jupiter.api.Test;
+import rocktable.state.BitboardRockTableState;
+import rocktable.state.Positions;
+import rocktable.state.TurnGenerator;
+import rocktable.state.Turns;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetrogradeSolverTest {
+
+    @Test
+    void testIndexIsBijective() {
+        TablebaseIndex index = new TablebaseIndex(2);
+        Set<Long> seen = new HashSet<>();
+        for (int table = 0; table <= BitboardRockTableState.TABLE_MASK; table++) {
+            int free = 2 - Integer.bitCount(table);
+            for (int mover = 0; mover <= free; mover++) {
+                long i = index.index(Positions.of(table, mover, free - mover, 1));
+                assertTrue(i >= 0 && i < index.size());
+                assertTrue(seen.add(i));
+            }
+        }
+        assertEquals(index.size(), seen.size());
+        assertThrows(IllegalArgumentException.class, () -> index.index(Positions.of(7, 0, 0, 0)));
+    }
+
+    @Test
+    void testSolve() {
+        Tablebase tablebase = new RetrogradeSolver().solve(4).getTablebase();
+        Map<Long, Boolean> memo = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 2000; i++) {
+            int table = 0;
+            int onTable = random.nextInt(5);
+            while (Integer.bitCount(table) < onTable) {
+                table |= 1 << random.nextInt(25);
+            }
+            int mover = random.nextInt(4 - onTable + 1);
+            long position = Positions.of(table, mover, 4 - onTable - mover, 0);
+            int expected = isWin(position, memo) ? Tablebase.WIN : Tablebase.LOSS;
+            assertEquals(expected, tablebase.outcome(position), Long.toHexString(position));
+        }
+    }
+
+    @Test
+    void testWinningTurn() {
+        Tablebase tablebase = new RetrogradeSolver().solve(3).getTablebase();
+        int[] buffer = new int[TurnGenerator.MAX_TURNS];
+        long win = Positions.of(BitboardRockTableState.bit(0, 0) | BitboardRockTableState.bit(1, 0), 1, 0, 0);
+        assertEquals(Tablebase.WIN, tablebase.outcome(win));
+        int turn = tablebase.winningTurn(win, buffer);
+        assertEquals(Tablebase.LOSS, tablebase.outcome(Turns.play(win, turn)));
+
+        long loss = Positions.of(BitboardRockTableState.bit(4, 2), 2, 0, 1);
+        assertEquals(Tablebase.LOSS, tablebase.outcome(loss));
+        assertEquals(-1, tablebase.winningTurn(loss, buffer));
+    }
+
+    private static boolean isWin(long position, Map<Long, Boolean> memo) {
+        long key = position & ~(1L << 35);
+        Boolean known = memo.get(key);
+        if (known != null) {
+            return known;
+        }
+        boolean win = Positions.isFinished(position);
+        int[] buffer = new int[TurnGenerator.MAX_TURNS];
+        int count = TurnGenerator.generate(position, buffer);
+        for (int i = 0; i < count && !win; i++) {
+            win = !isWin(Turns.play(position, buffer[i]), memo);
+        }
+        memo.put(key, win);
+        return win;
+    }
+}
@@ -0,0 +1,50 @@
+package rocktable.solver;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TablebaseFileTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testRoundTrip() throws IOException {
+        MemoryTablebase tablebase = new RetrogradeSolver().solve(3).getTablebase();
+        Path path = dir.resolve("rocks3.rttb");
+        TablebaseFile.write(tablebase, path);
+
+        MappedTablebase mapped = TablebaseFile.open(path);
+        assertEquals(3, mapped.getIndex().getTotalRocks());
+        assertTrue(mapped.verify());
+        for (long i = 0; i < tablebase.getIndex().size(); i++) {
+            assertEquals(tablebase.get(i), mapped.get(i));
+        }
+    }
+
+    @Test
+    void testCorruptedData() throws IOException {
+        Path path = dir.resolve("rocks2.rttb");
+        TablebaseFile.write(new RetrogradeSolver().solve(2).getTablebase(), path);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) 0xFF}), TablebaseFile.HEADER_SIZE + 5);
+        }
+        assertFalse(TablebaseFile.open(path).verify());
+    }
+
+    @Test
+    void testInvalidFile() throws IOException {
+        Path path = dir.resolve("invalid.rttb");
+        Files.write(path, new byte[TablebaseFile.HEADER_SIZE]);
+        assertThrows(IOException.class, () -> TablebaseFile.open(path));
+    }
+}
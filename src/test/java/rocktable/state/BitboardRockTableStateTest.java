@@ -0,0 +1,31 @@
+package rocktable.state;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BitboardRockTableStateTest extends RockTableStateTest {
+
+    @Override
+    GameState createState() {
+        return new BitboardRockTableState();
+    }
+
+    @Override
+    GameState createState(int[][] a) {
+        return new BitboardRockTableState(a);
+    }
+
+    @Test
+    void testInitialTable() {
+        assertArrayEquals(RockTableState.initialTable(), new BitboardRockTableState().getTable());
+        assertEquals(BitboardRockTableState.INITIAL_TABLE, BitboardRockTableState.pack(RockTableState.initialTable()));
+    }
+
+    @Test
+    void testInvalidTable() {
+        assertThrows(IllegalArgumentException.class, () -> new BitboardRockTableState(new int[5][5]));//empty
+        assertThrows(IllegalArgumentException.class, () -> new BitboardRockTableState(new int[4][5]));//wrong size
+        assertThrows(IllegalArgumentException.class, () -> new BitboardRockTableState(1 << 25));//outside of the table
+    }
+}
@@ -0,0 +1,46 @@
+package rocktable.state;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameFactoryTest {
+
+    @Test
+    void testNewGame() {
+        for (StateEngine engine : StateEngine.values()) {
+            GameFactory factory = GameFactory.initial(engine);
+            GameState first = factory.newGame();
+            GameState second = factory.newGame();
+            assertArrayEquals(RockTableState.initialTable(), first.getTable());
+            assertEquals(0, first.getActivePlayer());
+            first.setChosenRow(1);
+            first.pickupRock(0);
+            first.endTurn();
+            assertArrayEquals(RockTableState.initialTable(), second.getTable());
+            assertArrayEquals(RockTableState.initialTable(), factory.newGame().getTable());
+            assertEquals(factory.getStartPosition(), Positions.of(second));
+        }
+    }
+
+    @Test
+    void testStartPosition() {
+        long position = Turns.play(Positions.of(BitboardRockTableState.INITIAL_TABLE, 0, 0, 0),
+                Turns.of(1, 0b11100, 0b00011));
+        for (StateEngine engine : StateEngine.values()) {
+            GameState state = new GameFactory(engine, position).newGame();
+            assertEquals(position, Positions.of(state));
+            assertEquals(1, state.getActivePlayer());
+            assertArrayEquals(new int[]{1, 0}, state.getRocks());
+        }
+    }
+
+    @Test
+    void testInvalidStartPosition() {
+        assertThrows(IllegalArgumentException.class, () -> new GameFactory(StateEngine.ARRAY, 0));//finished
+        assertThrows(IllegalArgumentException.class, () -> new GameFactory(StateEngine.ARRAY, -1));//not a position
+        assertThrows(IllegalArgumentException.class, () -> new GameFactory(null, 1));
+        assertThrows(IllegalArgumentException.class, () -> GameFactory.of(StateEngine.BITBOARD, new int[5][5]));
+    }
+
+}
@@ -2,10 +2,23 @@ package rocktable.state;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class RockTableStateTest {
 
+    GameState createState() {
+        return new RockTableState();
+    }
+
+    GameState createState(int[][] a) {
+        return new RockTableState(a);
+    }
+
     @Test
     void testIsFinished() {
         int[][] a = {{0,0,0,0,1},
@@ -13,12 +26,12 @@ class RockTableStateTest {
                     {0,0,0,0,0},
                     {0,0,0,0,0},
                     {0,0,0,0,0}};
-        RockTableState test = new RockTableState(a);
+        GameState test = createState(a);
 
         test.setChosenRow(0);
         test.pickupRock(4);
 
-        assertFalse(new RockTableState().isFinished());
+        assertFalse(createState().isFinished());
         assertTrue(test.isFinished());
 
     }
@@ -30,7 +43,7 @@ class RockTableStateTest {
                 {0,0,0,0,0},
                 {0,0,1,0,0},
                 {0,0,0,0,0}};
-        RockTableState test = new RockTableState(a);
+        GameState test = createState(a);
 
         assertEquals(-1,test.getChosenRow());
         assertThrows(IllegalArgumentException.class, () -> test.setChosenRow(6));//row does not exists
@@ -52,7 +65,7 @@ class RockTableStateTest {
                 {0,0,0,0,0},
                 {0,0,1,0,0},
                 {0,0,0,0,0}};
-        RockTableState test = new RockTableState(a);
+        GameState test = createState(a);
 
         assertTrue(test.isChoosableRow(0));//not empty
         assertTrue(test.isChoosableRow(3));//not empty
@@ -75,7 +88,7 @@ class RockTableStateTest {
                 {0,0,0,0,0},
                 {0,0,1,0,0},
                 {0,0,0,0,0}};
-        RockTableState test = new RockTableState(a);
+        GameState test = createState(a);
 
         assertFalse(test.isPickupable(4));//no chosen row
 
@@ -97,7 +110,7 @@ class RockTableStateTest {
                 {0,0,0,0,0},
                 {0,0,1,0,0},
                 {0,0,0,0,0}};
-        RockTableState test = new RockTableState(a);
+        GameState test = createState(a);
 
         assertThrows(IllegalArgumentException.class, () -> test.pickupRock(4));//choose row first
         test.setChosenRow(0);
@@ -137,7 +150,7 @@ class RockTableStateTest {
                 {0,0,0,0,0},
                 {0,0,1,0,0},
                 {0,0,0,0,0}};
-        RockTableState test = new RockTableState(a);
+        GameState test = createState(a);
 
         assertFalse(test.isPlaceable(3));//choose row and pick up a rock at least
         test.setChosenRow(0);
@@ -165,7 +178,7 @@ class RockTableStateTest {
                 {0,0,0,0,0},
                 {0,0,1,0,0},
                 {0,0,0,0,0}};
-        RockTableState test = new RockTableState(a);
+        GameState test = createState(a);
 
         assertThrows(IllegalArgumentException.class, () -> test.placeRock(4));//choose row and pick up a rock at least
         test.setChosenRow(0);
@@ -196,7 +209,7 @@ class RockTableStateTest {
                 {0,0,0,0,0},
                 {0,0,1,0,0},
                 {0,0,0,0,0}};
-        RockTableState test = new RockTableState(a);
+        GameState test = createState(a);
         //cant be ended until at least a rock is picked up
         assertFalse(test.canBeEnded());
         test.setChosenRow(0);
@@ -220,7 +233,7 @@ class RockTableStateTest {
                 {0,0,0,0,0},
                 {0,0,1,0,0},
                 {0,0,0,0,0}};
-        RockTableState test = new RockTableState(a);
+        GameState test = createState(a);
 
         test.setChosenRow(0);
         test.pickupRock(1);
@@ -243,6 +256,127 @@ class RockTableStateTest {
 
     }
 
+    @Test
+    void testTableBits() {
+        int[][] a = {{0,1,1,0,1},
+                {0,0,0,0,0},
+                {0,0,0,0,0},
+                {0,0,1,0,0},
+                {1,0,0,0,0}};
+        GameState test = createState(a);
+        assertEquals(BitboardRockTableState.pack(a), test.getTableBits());
+        test.setChosenRow(0);
+        test.pickupRock(1);
+        test.placeRock(3);
+        assertEquals(BitboardRockTableState.pack(test.getTable()), test.getTableBits());
+        assertEquals(BitboardRockTableState.INITIAL_TABLE, createState().getTableBits());
+    }
+
+    @Test
+    void testIndependentTables() {
+        int[][] a = {{0,1,1,0,0},
+                {0,0,0,0,0},
+                {0,0,0,0,0},
+                {0,0,1,0,0},
+                {0,0,0,0,0}};
+        GameState test = createState(a);
+        GameState other = createState(a);
+        test.setChosenRow(0);
+        test.pickupRock(1);
+        assertEquals(1, a[0][1]);//the array is copied
+        assertTrue(other.isOccupied(0, 1));
+        test.getTable()[0][2] = 0;//the table returned is a copy
+        assertTrue(test.isOccupied(0, 2));
+
+        GameState first = createState();
+        first.setChosenRow(0);
+        first.pickupRock(0);
+        assertTrue(createState().isOccupied(0, 0));
+        RockTableState.initialTable()[0][0] = 0;//the initial table returned is a copy
+        assertArrayEquals(new int[]{1, 0, 0, 0, 0}, RockTableState.initialTable()[0]);
+        assertTrue(new RockTableState().isOccupied(0, 0));
+    }
+
+    private static String snapshot(GameState state) {
+        return Arrays.deepToString(state.getTable()) + Arrays.toString(state.getRocks())
+                + " " + state.getActivePlayer() + " " + state.getChosenRow() + " " + state.isRowChosen()
+                + " " + state.getLeftMostCol() + " " + state.isPickedUp();
+    }
+
+    @Test
+    void testUndoRedo() {
+        int[][] a = {{0,1,1,0,0},
+                {0,0,0,0,0},
+                {0,0,0,0,0},
+                {0,0,1,0,0},
+                {0,0,0,0,0}};
+        GameState test = createState(a);
+        assertFalse(test.canUndo());
+        assertFalse(test.canRedo());
+        assertThrows(IllegalStateException.class, test::undo);
+        assertThrows(IllegalStateException.class, test::redo);
+
+        List<String> snapshots = new ArrayList<>();
+        snapshots.add(snapshot(test));
+        test.setChosenRow(0);
+        snapshots.add(snapshot(test));
+        test.pickupRock(2);
+        snapshots.add(snapshot(test));
+        test.pickupRock(1);
+        snapshots.add(snapshot(test));
+        test.placeRock(4);
+        snapshots.add(snapshot(test));
+        test.endTurn();
+        snapshots.add(snapshot(test));
+        test.endTurn();//cannot be ended, nothing to undo
+        test.setChosenRow(3);
+        snapshots.add(snapshot(test));
+
+        for (int i = snapshots.size() - 2; i >= 0; i--) {
+            assertTrue(test.canUndo());
+            test.undo();
+            assertEquals(snapshots.get(i), snapshot(test));
+        }
+        assertFalse(test.canUndo());
+        for (int i = 1; i < snapshots.size(); i++) {
+            assertTrue(test.canRedo());
+            test.redo();
+            assertEquals(snapshots.get(i), snapshot(test));
+        }
+        assertFalse(test.canRedo());
+
+        test.undo();
+        test.undo();
+        test.undo();
+        assertEquals(snapshots.get(3), snapshot(test));
+        test.placeRock(4);//the same action keeps the actions undone
+        assertTrue(test.canRedo());
+        test.redo();
+        assertEquals(snapshots.get(5), snapshot(test));
+        test.undo();
+        test.undo();
+        test.placeRock(3);//another action discards the actions undone
+        assertFalse(test.canRedo());
+    }
+
+    @Test
+    void testUndoTurns() {
+        GameState test = createState();
+        Random random = new Random(3);
+        int[] turns = new int[TurnGenerator.MAX_TURNS];
+        List<String> snapshots = new ArrayList<>();
+        while (!test.isFinished()) {
+            snapshots.add(snapshot(test));
+            int count = TurnGenerator.generate(Positions.of(test), turns);
+            Turns.apply(test, turns[random.nextInt(count)]);
+        }
+        for (int i = snapshots.size() - 1; i >= 0; i--) {
+            Turns.undo(test);
+            assertEquals(snapshots.get(i), snapshot(test));
+        }
+        assertFalse(test.canUndo());
+    }
+
     @Test
     void testToString() {
         int[][] a = {{0,1,1,0,0},
@@ -250,7 +384,7 @@ class RockTableStateTest {
                 {0,0,0,0,0},
                 {0,0,1,0,0},
                 {0,0,0,0,0}};
-        RockTableState test = new RockTableState(a);
+        GameState test = createState(a);
 
         assertEquals("Current state:\n0 1 1 0 0 \n0 0 0 0 0 \n0 0 0 0 0 \n0 0 1 0 0 \n0 0 0 0 0 \n" +
                 "Active player: "+(test.getActivePlayer()+1)+"\n" +
@@ -0,0 +1,121 @@
+package rocktable.state;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TurnGeneratorTest {
+
+    @Test
+    void testInitialPosition() {
+        long position = Positions.of(new BitboardRockTableState());
+        assertEquals(explore(position), successors(position));
+    }
+
+    @Test
+    void testRandomPositions() {
+        Random random = new Random(42);
+        for (int i = 0; i < 500; i++) {
+            int table = random.nextInt(BitboardRockTableState.TABLE_MASK + 1) & random.nextInt();
+            if (table == 0) {
+                continue;
+            }
+            long position = Positions.of(table, random.nextInt(4), random.nextInt(4), random.nextInt(2));
+            assertEquals(explore(position), successors(position), Long.toHexString(position));
+        }
+    }
+
+    @Test
+    void testRowSuccessors() {
+        int[] buffer = new int[TurnGenerator.MAX_TURNS];
+        for (int row = 1; row <= BitboardRockTableState.ROW_MASK; row++) {
+            // Another row keeps the table from holding a single rock, and the rocks never run out.
+            long position = Positions.of(row | 1 << 4 * BitboardRockTableState.ROW_BITS, 31, 0, 0);
+            Set<Integer> expected = new HashSet<>();
+            int count = TurnGenerator.generate(position, buffer);
+            for (int i = 0; i < count; i++) {
+                if (Turns.row(buffer[i]) == 0) {
+                    expected.add(Turns.after(buffer[i]));
+                }
+            }
+            Set<Integer> successors = new HashSet<>();
+            for (int next : TurnGenerator.rowSuccessors(row)) {
+                assertTrue(successors.add(next));
+            }
+            assertEquals(expected, successors, Integer.toBinaryString(row));
+        }
+    }
+
+    @Test
+    void testSingleRock() {
+        long position = Positions.of(BitboardRockTableState.bit(2, 1), 3, 0, 0);
+        int[] buffer = new int[TurnGenerator.MAX_TURNS];
+        assertEquals(1, TurnGenerator.generate(position, buffer));
+        long next = Turns.play(position, buffer[0]);
+        assertTrue(Positions.isFinished(next));
+        assertEquals(4, Positions.opponentRocks(next));
+        assertEquals(1, Positions.activePlayer(next));
+    }
+
+    @Test
+    void testApply() {
+        long position = Positions.of(new BitboardRockTableState());
+        int[] buffer = new int[TurnGenerator.MAX_TURNS];
+        int count = TurnGenerator.generate(position, buffer);
+        for (int i = 0; i < count; i++) {
+            GameState state = new RockTableState(Positions.toState(position).getTable());
+            Turns.apply(state, buffer[i]);
+            assertEquals(Turns.play(position, buffer[i]), Positions.of(state), Turns.toString(buffer[i]));
+        }
+    }
+
+    private static Set<Long> successors(long position) {
+        int[] buffer = new int[TurnGenerator.MAX_TURNS];
+        int count = TurnGenerator.generate(position, buffer);
+        Set<Long> result = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            assertTrue(result.add(Turns.play(position, buffer[i])), "duplicate turn");
+        }
+        return result;
+    }
+
+    /**
+     * Collects the positions reachable by every sequence of actions of a turn.
+     */
+    private static Set<Long> explore(long position) {
+        Set<Long> result = new HashSet<>();
+        int table = Positions.table(position);
+        for (int row = 0; row < 5; row++) {
+            if ((table >>> row * 5 & 31) != 0) {
+                explore(position, row, table, Positions.moverRocks(position), 4, false, new HashSet<>(), result);
+            }
+        }
+        return result;
+    }
+
+    private static void explore(long position, int row, int table, int rocks, int leftMostCol, boolean pickedUp,
+                                Set<String> visited, Set<Long> result) {
+        if (!visited.add(table + "/" + rocks + "/" + leftMostCol + "/" + pickedUp)) {
+            return;
+        }
+        if (pickedUp) {
+            result.add(Positions.of(table, Positions.opponentRocks(position), rocks,
+                    Positions.activePlayer(position) ^ 1));
+        }
+        if (table == 0) {
+            return;
+        }
+        for (int col = 0; col < 5; col++) {
+            int bit = BitboardRockTableState.bit(row, col);
+            if ((table & bit) != 0) {
+                explore(position, row, table & ~bit, rocks + 1, Math.min(col, leftMostCol), true, visited, result);
+            } else if (rocks > 0 && col > leftMostCol) {
+                explore(position, row, table | bit, rocks - 1, leftMostCol, pickedUp, visited, result);
+            }
+        }
+    }
+}
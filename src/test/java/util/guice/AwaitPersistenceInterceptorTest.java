@@ -0,0 +1,117 @@
+package util.guice;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.persist.PersistService;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.Test;
+
+import javax.persistence.EntityManagerFactory;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AwaitPersistenceInterceptorTest {
+
+    /**
+     * Returns an interceptor waiting for a persistence service that starts
+     * when the latch is released, or fails if {@code failure} is not null.
+     */
+    private static AwaitPersistenceInterceptor interceptor(CountDownLatch latch, RuntimeException failure) {
+        PersistService persistService = new PersistService() {
+            @Override
+            public void start() {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (failure != null) {
+                    throw failure;
+                }
+            }
+
+            @Override
+            public void stop() {
+            }
+        };
+        // Without the schema version property, no schema is updated.
+        EntityManagerFactory entityManagerFactory = (EntityManagerFactory) Proxy.newProxyInstance(
+                AwaitPersistenceInterceptorTest.class.getClassLoader(), new Class<?>[]{EntityManagerFactory.class},
+                (proxy, method, args) -> method.getName().equals("getProperties") ? Map.of() : null);
+        Injector injector = Guice.createInjector(new AbstractModule() {
+            @Override
+            protected void configure() {
+                bind(PersistService.class).toInstance(persistService);
+                bind(EntityManagerFactory.class).toInstance(entityManagerFactory);
+            }
+        });
+        AwaitPersistenceInterceptor interceptor = new AwaitPersistenceInterceptor();
+        injector.injectMembers(interceptor);
+        return interceptor;
+    }
+
+    private static MethodInvocation invocation(Object result) {
+        return new MethodInvocation() {
+            @Override
+            public Method getMethod() {
+                return null;
+            }
+
+            @Override
+            public Object[] getArguments() {
+                return new Object[0];
+            }
+
+            @Override
+            public Object proceed() {
+                return result;
+            }
+
+            @Override
+            public Object getThis() {
+                return null;
+            }
+
+            @Override
+            public AccessibleObject getStaticPart() {
+                return null;
+            }
+        };
+    }
+
+    @Test
+    void testWaitsUntilReady() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        AwaitPersistenceInterceptor interceptor = interceptor(latch, null);
+        CompletableFuture<Object> result = CompletableFuture.supplyAsync(() -> {
+            try {
+                return interceptor.invoke(invocation("result"));
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertThrows(TimeoutException.class, () -> result.get(200, TimeUnit.MILLISECONDS));
+        latch.countDown();
+        assertEquals("result", result.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testFailedStart() throws InterruptedException, ExecutionException, TimeoutException {
+        CountDownLatch latch = new CountDownLatch(0);
+        AwaitPersistenceInterceptor interceptor = interceptor(latch, new IllegalStateException("No database"));
+        CompletableFuture<Throwable> failure = CompletableFuture.supplyAsync(() ->
+                assertThrows(IllegalStateException.class, () -> interceptor.invoke(invocation("result"))));
+        assertEquals("No database", failure.get(10, TimeUnit.SECONDS).getCause().getMessage());
+    }
+
+}
@@ -0,0 +1,185 @@
+package util.jpa;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.persist.PersistService;
+import com.google.inject.persist.UnitOfWork;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import rocktable.results.GameResult;
+import rocktable.results.GameResultDao;
+import util.guice.JpaInitializer;
+import util.guice.PersistenceModule;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GenericJpaDaoTest {
+
+    private static final String URL = "jdbc:h2:mem:generic-jpa-dao-test;DB_CLOSE_DELAY=-1";
+
+    private static Injector injector;
+
+    private static GameResultDao gameResultDao;
+
+    @BeforeAll
+    static void setUpPersistence() {
+        Properties properties = new Properties();
+        properties.setProperty("javax.persistence.jdbc.url", URL);
+        injector = Guice.createInjector(new AbstractModule() {
+            @Override
+            protected void configure() {
+                install(new PersistenceModule("rock-table", properties));
+            }
+        });
+        injector.getInstance(JpaInitializer.class).awaitReady();
+        gameResultDao = injector.getInstance(GameResultDao.class);
+    }
+
+    @AfterAll
+    static void tearDownPersistence() {
+        injector.getInstance(PersistService.class).stop();
+    }
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("DELETE FROM GameResult");
+        }
+    }
+
+    private static int count() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(URL, "sa", "");
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM GameResult")) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+
+    private static List<GameResult> results(int n) {
+        List<GameResult> results = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            results.add(GameResult.builder().winner("Player " + i).duration(Duration.ofSeconds(i)).build());
+        }
+        return results;
+    }
+
+    /**
+     * Returns a DAO recording the entity managers it creates.
+     */
+    private static GameResultDao recordingDao(List<EntityManager> entityManagers) {
+        GameResultDao dao = new GameResultDao() {
+            @Override
+            public EntityManagerFactory getEntityManagerFactory() {
+                EntityManagerFactory factory = super.getEntityManagerFactory();
+                return (EntityManagerFactory) Proxy.newProxyInstance(getClass().getClassLoader(),
+                        new Class<?>[]{EntityManagerFactory.class}, (proxy, method, args) -> {
+                            Object result = method.invoke(factory, args);
+                            if (result instanceof EntityManager) {
+                                entityManagers.add((EntityManager) result);
+                            }
+                            return result;
+                        });
+            }
+        };
+        injector.injectMembers(dao);
+        return dao;
+    }
+
+    @Test
+    void testPersistAll() throws SQLException {
+        List<GameResult> results = results(250);
+        int batchSize = 100;
+        Statistics statistics = gameResultDao.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        long inserts = statistics.getEntityInsertCount();
+        UnitOfWork unitOfWork = injector.getInstance(UnitOfWork.class);
+        unitOfWork.begin();
+        try {
+            Session session = gameResultDao.getEntityManager().unwrap(Session.class);
+            Iterator<GameResult> iterator = results.iterator();
+            // Checks the persistence context before every entity instance is persisted.
+            Iterator<GameResult> checking = new Iterator<>() {
+                private int persisted;
+
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public GameResult next() {
+                    assertEquals(persisted % batchSize, session.getStatistics().getEntityCount());
+                    assertEquals(persisted - persisted % batchSize, statistics.getEntityInsertCount() - inserts);
+                    persisted++;
+                    return iterator.next();
+                }
+            };
+            assertEquals(results.size(), gameResultDao.persistAll(checking, batchSize));
+            assertEquals(0, session.getStatistics().getEntityCount());
+        } finally {
+            unitOfWork.end();
+        }
+        assertEquals(results.size(), statistics.getEntityInsertCount() - inserts);
+        assertEquals(results.size(), results.stream().map(GameResult::getId).filter(id -> id != null).distinct().count());
+        assertEquals(results.size(), count());
+        assertThrows(IllegalArgumentException.class, () -> gameResultDao.persistAll(results.iterator(), 0));
+    }
+
+    @Test
+    void testStreamAll() {
+        List<GameResult> results = results(250);
+        gameResultDao.persistAll(results);
+        Set<Long> ids = results.stream().map(GameResult::getId).collect(Collectors.toSet());
+        List<EntityManager> entityManagers = new ArrayList<>();
+        GameResultDao dao = recordingDao(entityManagers);
+
+        Set<Long> streamed = new HashSet<>();
+        try (Stream<GameResult> stream = dao.streamAll(100)) {
+            stream.forEach(result -> {
+                Session session = entityManagers.get(0).unwrap(Session.class);
+                assertFalse(session.contains(result));
+                assertEquals(0, session.getStatistics().getEntityCount());
+                streamed.add(result.getId());
+            });
+            assertFalse(entityManagers.get(0).isOpen());
+        }
+        assertEquals(ids, streamed);
+
+        Stream<GameResult> stream = dao.streamAll(100);
+        Iterator<GameResult> iterator = stream.iterator();
+        for (int i = 0; i < 10; i++) {
+            assertTrue(ids.contains(iterator.next().getId()));
+        }
+        assertTrue(entityManagers.get(1).isOpen());
+        stream.close();
+        assertFalse(entityManagers.get(1).isOpen());
+        assertEquals(2, entityManagers.size());
+        assertThrows(IllegalArgumentException.class, () -> gameResultDao.streamAll(0));
+    }
+
+}
@@ -0,0 +1,114 @@
+package util.jpa;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchemaUpdaterTest {
+
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:schema-updater-test");
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    private int storedVersion() throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT MAX(version) FROM " + SchemaUpdater.VERSION_TABLE)) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+
+    @Test
+    void testUpdate() throws SQLException {
+        SchemaUpdater schemaUpdater = new SchemaUpdater("/META-INF/schema/", 1);
+        assertEquals(1, schemaUpdater.update(connection));
+        assertEquals(1, storedVersion());
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("INSERT INTO GameResult (id, created, duration, winner)"
+                    + " VALUES (NEXT VALUE FOR hibernate_sequence, CURRENT_TIMESTAMP, 1000, 'Player')");
+        }
+        assertEquals(0, schemaUpdater.update(connection));
+        assertEquals(1, storedVersion());
+        assertTrue(connection.getAutoCommit());
+    }
+
+    @Test
+    void testUpdateExistingSchema() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE GameResult (id BIGINT NOT NULL, created TIMESTAMP NOT NULL,"
+                    + " duration BIGINT NOT NULL, winner VARCHAR(255) NOT NULL, PRIMARY KEY (id))");
+            statement.execute("CREATE INDEX idx_game_result_best ON GameResult (duration ASC, created DESC)");
+        }
+        assertEquals(1, new SchemaUpdater("/META-INF/schema/", 1).update(connection));
+        assertEquals(1, storedVersion());
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM INFORMATION_SCHEMA.INDEXES"
+                     + " WHERE INDEX_NAME = 'IDX_GAME_RESULT_BEST'")) {
+            resultSet.next();
+            assertEquals(3, resultSet.getInt(1));
+        }
+    }
+
+    @Test
+    void testScriptRunConcurrently() throws IOException, SQLException {
+        String script;
+        try (InputStream in = SchemaUpdater.class.getResourceAsStream("/META-INF/schema/1.sql")) {
+            script = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        // Two processes upgrading a new database run the statements in turns.
+        try (Connection other = DriverManager.getConnection("jdbc:h2:mem:schema-updater-test");
+             Statement statement = connection.createStatement();
+             Statement otherStatement = other.createStatement()) {
+            for (String sql : script.split(";")) {
+                if (!sql.isBlank()) {
+                    statement.execute(sql);
+                    otherStatement.execute(sql);
+                }
+            }
+        }
+        assertEquals(1, new SchemaUpdater("/META-INF/schema/", 1).update(connection));
+        assertEquals(1, storedVersion());
+    }
+
+    @Test
+    void testMissingScript() throws SQLException {
+        assertThrows(SQLException.class, () -> new SchemaUpdater("/META-INF/schema/", 2).update(connection));
+        assertEquals(0, storedVersion());
+        assertTrue(connection.getAutoCommit());
+    }
+
+    @Test
+    void testNewerSchema() throws SQLException {
+        new SchemaUpdater("/META-INF/schema/", 1).update(connection);
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("UPDATE " + SchemaUpdater.VERSION_TABLE + " SET version = 2");
+        }
+        assertThrows(SQLException.class, () -> new SchemaUpdater("/META-INF/schema/", 1).update(connection));
+        assertEquals(2, storedVersion());
+    }
+
+    @Test
+    void testInvalidVersion() {
+        assertThrows(IllegalArgumentException.class, () -> new SchemaUpdater("/META-INF/schema/", 0));
+    }
+
+}